@@ -0,0 +1,20 @@
+package com.coltwarren.sports_betting_analytics.config;
+
+import com.coltwarren.sports_betting_analytics.service.replay.ExchangeRecorder;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+/**
+ * Outbound HTTP clients shared by the Odds API, ESPN and Claude services
+ */
+@Configuration
+public class HttpClientConfig {
+
+    @Bean(destroyMethod = "dispose")
+    public OutboundHttpClients outboundHttpClients(Environment environment, ExchangeRecorder recorder,
+                                                   MeterRegistry meterRegistry) {
+        return new OutboundHttpClients(environment, recorder, meterRegistry);
+    }
+}
@@ -0,0 +1,238 @@
+package com.coltwarren.sports_betting_analytics.config;
+
+import com.coltwarren.sports_betting_analytics.service.replay.ExchangeRecorder;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.netty.channel.ChannelOption;
+import io.netty.handler.timeout.ReadTimeoutHandler;
+import io.netty.handler.timeout.WriteTimeoutHandler;
+import org.springframework.core.env.Environment;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionPoolMetrics;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.net.SocketAddress;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One tuned reactor-netty client per outbound dependency (odds-api, espn, claude).
+ *
+ * Each dependency gets its own connection pool (pooled per remote host
+ * inside it), keep-alive, gzip negotiation, connect/response timeouts and
+ * an in-memory buffer limit, all from {@code http.client.<name>.*} with
+ * {@code http.client.default.*} as the fallback. Services sharing a
+ * dependency share its pool. While recording is on, every response also
+ * goes through the {@link ExchangeRecorder}.
+ *
+ * Metrics: upstream.requests (latency histogram by dependency, status and
+ * outcome), upstream.errors, and http.client.pool.* gauges per remote host.
+ */
+public class OutboundHttpClients {
+
+    private record Pool(ConnectionProvider provider, HttpClient client, int maxInMemoryBytes) {
+    }
+
+    private record PoolKey(String poolName, String id, String remoteAddress) {
+    }
+
+    private final Environment environment;
+    private final ExchangeRecorder recorder;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Pool> pools = new ConcurrentHashMap<>();
+
+    // Live gauges reactor-netty hands us for every (pool, remote host), and their registered meters
+    private final Map<PoolKey, ConnectionPoolMetrics> poolMetrics = new ConcurrentHashMap<>();
+    private final Map<PoolKey, List<Meter>> poolMeters = new ConcurrentHashMap<>();
+
+    public OutboundHttpClients(Environment environment, ExchangeRecorder recorder, MeterRegistry meterRegistry) {
+        this.environment = environment;
+        this.recorder = recorder;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * WebClient builder on the dependency's shared pool; callers add base URL and headers
+     */
+    public WebClient.Builder builder(String dependency) {
+        Pool pool = pools.computeIfAbsent(dependency, this::createPool);
+        WebClient.Builder builder = WebClient.builder()
+            .clientConnector(new ReactorClientHttpConnector(pool.client()))
+            .codecs(codecs -> codecs.defaultCodecs().maxInMemorySize(pool.maxInMemoryBytes()))
+            .filter(upstreamMetrics(dependency));
+        if (recorder.isEnabled()) {
+            builder.filter(recorder.filter(dependency));
+        }
+        return builder;
+    }
+
+    /**
+     * Connection counts per dependency and remote host
+     */
+    public List<Map<String, Object>> getPoolStats() {
+        List<Map<String, Object>> stats = new ArrayList<>();
+        for (Map.Entry<PoolKey, ConnectionPoolMetrics> entry : poolMetrics.entrySet()) {
+            ConnectionPoolMetrics metrics = entry.getValue();
+            Map<String, Object> pool = new LinkedHashMap<>();
+            pool.put("dependency", entry.getKey().poolName());
+            pool.put("remoteAddress", entry.getKey().remoteAddress());
+            pool.put("acquired", metrics.acquiredSize());
+            pool.put("idle", metrics.idleSize());
+            pool.put("allocated", metrics.allocatedSize());
+            pool.put("pendingAcquire", metrics.pendingAcquireSize());
+            pool.put("maxConnections", metrics.maxAllocatedSize());
+            pool.put("maxPendingAcquire", metrics.maxPendingAcquireSize());
+            stats.add(pool);
+        }
+        return stats;
+    }
+
+    /**
+     * Close every pool's connections (application shutdown)
+     */
+    public void dispose() {
+        for (Pool pool : pools.values()) {
+            pool.provider().disposeLater().block(Duration.ofSeconds(5));
+        }
+        pools.clear();
+    }
+
+    // ============================================
+    // POOL SETUP
+    // ============================================
+
+    private Pool createPool(String dependency) {
+        ConnectionProvider provider = ConnectionProvider.builder(dependency)
+            .maxConnections(property(dependency, "max-connections", 50))
+            .pendingAcquireMaxCount(property(dependency, "max-pending-acquires", 500))
+            .pendingAcquireTimeout(Duration.ofMillis(property(dependency, "pending-acquire-timeout-ms", 5000)))
+            // Drop idle connections before the server or a NAT silently does
+            .maxIdleTime(Duration.ofMillis(property(dependency, "max-idle-ms", 30000)))
+            .maxLifeTime(Duration.ofMillis(property(dependency, "max-life-ms", 300000)))
+            .evictInBackground(Duration.ofSeconds(30))
+            .metrics(true, () -> new PoolRegistrar())
+            .build();
+
+        int readTimeoutMs = property(dependency, "read-timeout-ms", 10000);
+        int writeTimeoutMs = property(dependency, "write-timeout-ms", 10000);
+
+        HttpClient client = HttpClient.create(provider)
+            .compress(property(dependency, "compression", Boolean.class, true))
+            .keepAlive(true)
+            .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, property(dependency, "connect-timeout-ms", 3000))
+            .option(ChannelOption.SO_KEEPALIVE, true)
+            .responseTimeout(Duration.ofMillis(property(dependency, "response-timeout-ms", 10000)))
+            .doOnConnected(connection -> connection
+                .addHandlerLast(new ReadTimeoutHandler(readTimeoutMs, TimeUnit.MILLISECONDS))
+                .addHandlerLast(new WriteTimeoutHandler(writeTimeoutMs, TimeUnit.MILLISECONDS)));
+
+        int maxInMemoryBytes = property(dependency, "max-in-memory-kb", 1024) * 1024;
+        return new Pool(provider, client, maxInMemoryBytes);
+    }
+
+    // ============================================
+    // METRICS
+    // ============================================
+
+    /**
+     * Time every call to the response headers and count failures. Body read
+     * failures after the headers arrive surface in the caller, not here.
+     */
+    private ExchangeFilterFunction upstreamMetrics(String dependency) {
+        return (request, next) -> {
+            Timer.Sample sample = Timer.start(meterRegistry);
+            String method = request.method().name();
+            return next.exchange(request)
+                .doOnSuccess(response -> recordCall(sample, dependency, method, response.statusCode().value(), null))
+                .doOnError(error -> recordCall(sample, dependency, method, 0, error));
+        };
+    }
+
+    private void recordCall(Timer.Sample sample, String dependency, String method, int status, Throwable error) {
+        String outcome = error != null ? "ERROR"
+            : status >= 500 ? "SERVER_ERROR"
+            : status >= 400 ? "CLIENT_ERROR"
+            : "SUCCESS";
+
+        sample.stop(Timer.builder("upstream.requests")
+            .description("Outbound calls by dependency, to the response headers")
+            .tag("dependency", dependency)
+            .tag("method", method)
+            .tag("status", error != null ? "none" : String.valueOf(status))
+            .tag("outcome", outcome)
+            .tag("exception", error != null ? error.getClass().getSimpleName() : "none")
+            .publishPercentileHistogram()
+            .register(meterRegistry));
+
+        if (!outcome.equals("SUCCESS")) {
+            Counter.builder("upstream.errors")
+                .description("Failed outbound calls by dependency")
+                .tag("dependency", dependency)
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .increment();
+        }
+    }
+
+    private List<Meter> registerPoolGauges(PoolKey key, ConnectionPoolMetrics metrics) {
+        String[] tags = {"dependency", key.poolName(), "remote", key.remoteAddress()};
+        return List.of(
+            Gauge.builder("http.client.pool.acquired", metrics, ConnectionPoolMetrics::acquiredSize)
+                .tags(tags).register(meterRegistry),
+            Gauge.builder("http.client.pool.idle", metrics, ConnectionPoolMetrics::idleSize)
+                .tags(tags).register(meterRegistry),
+            Gauge.builder("http.client.pool.allocated", metrics, ConnectionPoolMetrics::allocatedSize)
+                .tags(tags).register(meterRegistry),
+            Gauge.builder("http.client.pool.pending", metrics, ConnectionPoolMetrics::pendingAcquireSize)
+                .tags(tags).register(meterRegistry),
+            Gauge.builder("http.client.pool.max", metrics, ConnectionPoolMetrics::maxAllocatedSize)
+                .tags(tags).register(meterRegistry));
+    }
+
+    /**
+     * http.client.&lt;dependency&gt;.&lt;name&gt;, then http.client.default.&lt;name&gt;, then the fallback
+     */
+    private int property(String dependency, String name, int fallback) {
+        return property(dependency, name, Integer.class, fallback);
+    }
+
+    private <T> T property(String dependency, String name, Class<T> type, T fallback) {
+        T shared = environment.getProperty("http.client.default." + name, type, fallback);
+        return environment.getProperty("http.client." + dependency + "." + name, type, shared);
+    }
+
+    /**
+     * Receives reactor-netty's pool gauges and publishes them as Micrometer meters
+     */
+    private final class PoolRegistrar implements ConnectionProvider.MeterRegistrar {
+
+        @Override
+        public void registerMetrics(String poolName, String id, SocketAddress remoteAddress,
+                                    ConnectionPoolMetrics metrics) {
+            PoolKey key = new PoolKey(poolName, id, String.valueOf(remoteAddress));
+            poolMetrics.put(key, metrics);
+            poolMeters.put(key, registerPoolGauges(key, metrics));
+        }
+
+        @Override
+        public void deRegisterMetrics(String poolName, String id, SocketAddress remoteAddress) {
+            PoolKey key = new PoolKey(poolName, id, String.valueOf(remoteAddress));
+            poolMetrics.remove(key);
+            List<Meter> meters = poolMeters.remove(key);
+            if (meters != null) {
+                meters.forEach(meterRegistry::remove);
+            }
+        }
+    }
+}
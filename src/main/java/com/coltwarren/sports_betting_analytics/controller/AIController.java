@@ -6,6 +6,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 
 import java.math.BigDecimal;
 
@@ -25,12 +26,13 @@ public class AIController {
     @GetMapping("/analyze-performance")
     public String analyzePerformance(Model model) {
         // Get current stats
-        long totalBets = betService.getAllBets().size();
-        long wonCount = betService.countBetsByStatus("WON");
-        long lostCount = betService.countBetsByStatus("LOST");
-        BigDecimal profitLoss = betService.calculateTotalProfitLoss();
-        Double winRate = betService.calculateWinRate();
-        Double roi = betService.calculateROI();
+        BetService.BettingStats stats = betService.getComprehensiveStats();
+        long totalBets = stats.getTotalBets();
+        long wonCount = stats.getWonBets();
+        long lostCount = stats.getLostBets();
+        BigDecimal profitLoss = stats.getTotalProfitLoss();
+        Double winRate = stats.getWinRate();
+        Double roi = stats.getRoi();
         
         // Get AI analysis
         String analysis = claudeAIService.analyzeBettingPerformance(
@@ -60,4 +62,17 @@ public class AIController {
         
         return claudeAIService.calculateEV(sport, eventName, betType, selection, odds, stake);
     }
+    
+    @PostMapping("/calculate-ev-async")
+    @ResponseBody
+    public Mono<String> calculateEVAsync(
+            @RequestParam String sport,
+            @RequestParam String eventName,
+            @RequestParam String betType,
+            @RequestParam String selection,
+            @RequestParam BigDecimal odds,
+            @RequestParam BigDecimal stake) {
+        
+        return claudeAIService.calculateEVAsync(sport, eventName, betType, selection, odds, stake);
+    }
 }
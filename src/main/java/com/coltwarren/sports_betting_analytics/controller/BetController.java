@@ -1,25 +1,40 @@
 package com.coltwarren.sports_betting_analytics.controller;
 
 import com.coltwarren.sports_betting_analytics.model.Bet;
+import com.coltwarren.sports_betting_analytics.service.BetImportService;
+import com.coltwarren.sports_betting_analytics.service.BetPage;
 import com.coltwarren.sports_betting_analytics.service.BetService;
+import com.coltwarren.sports_betting_analytics.service.BetSettlement;
+import com.coltwarren.sports_betting_analytics.service.BetStatsService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.math.BigDecimal;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Supplier;
 
 @RestController
 @RequestMapping("/api/bets")
 @CrossOrigin(origins = "*")
 public class BetController {
     
+    private static final String DEFAULT_PAGE_SIZE = "50";
+    
     private final BetService betService;
+    private final BetStatsService betStatsService;
+    private final BetImportService betImportService;
     
     @Autowired
-    public BetController(BetService betService) {
+    public BetController(BetService betService, BetStatsService betStatsService,
+                         BetImportService betImportService) {
         this.betService = betService;
+        this.betStatsService = betStatsService;
+        this.betImportService = betImportService;
     }
     
     @PostMapping
@@ -32,9 +47,29 @@ public class BetController {
         }
     }
     
+    /**
+     * Bulk import, streamed from the request body: ?format=csv (header row
+     * first) or ?format=jsonl (one bet object per line). Bad rows are skipped
+     * and listed with their line numbers; the rest are committed in chunks.
+     */
+    @PostMapping("/import")
+    public ResponseEntity<Map<String, Object>> importBets(@RequestParam(defaultValue = BetImportService.FORMAT_CSV) String format,
+                                                          InputStream body) throws IOException {
+        try {
+            return ResponseEntity.ok(betImportService.importBets(body, format));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+    
+    /**
+     * Bet listings are keyset-paged, newest first. Pass the response's
+     * nextCursor back as ?cursor= for the next page; it is null on the last one.
+     */
     @GetMapping
-    public ResponseEntity<List<Bet>> getAllBets() {
-        return ResponseEntity.ok(betService.getAllBets());
+    public ResponseEntity<BetPage> getAllBets(@RequestParam(required = false) String cursor,
+                                              @RequestParam(defaultValue = DEFAULT_PAGE_SIZE) int size) {
+        return page(() -> betService.getBetsPage(cursor, size));
     }
     
     @GetMapping("/{id}")
@@ -45,23 +80,37 @@ public class BetController {
     }
     
     @GetMapping("/pending")
-    public ResponseEntity<List<Bet>> getPendingBets() {
-        return ResponseEntity.ok(betService.getPendingBets());
+    public ResponseEntity<BetPage> getPendingBets(@RequestParam(required = false) String cursor,
+                                                  @RequestParam(defaultValue = DEFAULT_PAGE_SIZE) int size) {
+        return page(() -> betService.getPendingBetsPage(cursor, size));
     }
     
     @GetMapping("/settled")
-    public ResponseEntity<List<Bet>> getSettledBets() {
-        return ResponseEntity.ok(betService.getSettledBets());
+    public ResponseEntity<BetPage> getSettledBets(@RequestParam(required = false) String cursor,
+                                                  @RequestParam(defaultValue = DEFAULT_PAGE_SIZE) int size) {
+        return page(() -> betService.getSettledBetsPage(cursor, size));
     }
     
     @GetMapping("/sportsbook/{name}")
-    public ResponseEntity<List<Bet>> getBetsBySportsbook(@PathVariable String name) {
-        return ResponseEntity.ok(betService.getBetsBySportsbook(name));
+    public ResponseEntity<BetPage> getBetsBySportsbook(@PathVariable String name,
+                                                       @RequestParam(required = false) String cursor,
+                                                       @RequestParam(defaultValue = DEFAULT_PAGE_SIZE) int size) {
+        return page(() -> betService.getBetsBySportsbookPage(name, cursor, size));
     }
     
     @GetMapping("/sport/{sport}")
-    public ResponseEntity<List<Bet>> getBetsBySport(@PathVariable String sport) {
-        return ResponseEntity.ok(betService.getBetsBySport(sport));
+    public ResponseEntity<BetPage> getBetsBySport(@PathVariable String sport,
+                                                  @RequestParam(required = false) String cursor,
+                                                  @RequestParam(defaultValue = DEFAULT_PAGE_SIZE) int size) {
+        return page(() -> betService.getBetsBySportPage(sport, cursor, size));
+    }
+    
+    private ResponseEntity<BetPage> page(Supplier<BetPage> query) {
+        try {
+            return ResponseEntity.ok(query.get());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
     
     @PutMapping("/{id}/won")
@@ -91,6 +140,20 @@ public class BetController {
         }
     }
     
+    /**
+     * Settle a slate in one call: [{"id": 12, "outcome": "WON", "closingOdds": -115}, ...].
+     * IDs with no bet are listed in notFound and bets that are no longer PENDING in alreadySettled;
+     * a bad outcome or repeated ID rejects the whole batch.
+     */
+    @PostMapping("/settle")
+    public ResponseEntity<Map<String, Object>> settleBets(@RequestBody List<BetSettlement> settlements) {
+        try {
+            return ResponseEntity.ok(betService.settleBets(settlements));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+    
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteBet(@PathVariable Long id) {
         try {
@@ -118,13 +181,34 @@ public class BetController {
     
     @GetMapping("/analytics/counts")
     public ResponseEntity<Map<String, Long>> getCountsByStatus() {
+        BetService.BettingStats stats = betService.getComprehensiveStats();
         Map<String, Long> counts = Map.of(
-            "total", (long) betService.getAllBets().size(),
-            "pending", betService.countBetsByStatus("PENDING"),
-            "won", betService.countBetsByStatus("WON"),
-            "lost", betService.countBetsByStatus("LOST"),
-            "push", betService.countBetsByStatus("PUSH")
+            "total", stats.getTotalBets(),
+            "pending", stats.getPendingBets(),
+            "won", stats.getWonBets(),
+            "lost", stats.getLostBets(),
+            "push", stats.getPushedBets()
         );
         return ResponseEntity.ok(counts);
     }
+    
+    /**
+     * Running totals overall, per sport and per sportsbook
+     */
+    @GetMapping("/analytics/stats")
+    public ResponseEntity<Map<String, Object>> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("overall", betStatsService.getOverall());
+        stats.put("bySport", betStatsService.getBySport());
+        stats.put("bySportsbook", betStatsService.getBySportsbook());
+        return ResponseEntity.ok(stats);
+    }
+    
+    /**
+     * Recompute the running totals from the bets table
+     */
+    @PostMapping("/analytics/stats/rebuild")
+    public ResponseEntity<Map<String, Object>> rebuildStats() {
+        return ResponseEntity.ok(betStatsService.rebuild());
+    }
 }
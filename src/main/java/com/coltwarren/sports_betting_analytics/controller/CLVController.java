@@ -1,6 +1,7 @@
 package com.coltwarren.sports_betting_analytics.controller;
 
 import com.coltwarren.sports_betting_analytics.service.CLVTracker;
+import com.coltwarren.sports_betting_analytics.service.ClosingLineCaptureService;
 import com.coltwarren.sports_betting_analytics.model.Bet;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Controller;
@@ -13,10 +14,12 @@ import java.util.Map;
 public class CLVController {
     
     private final CLVTracker clvTracker;
+    private final ClosingLineCaptureService closingLineCaptureService;
     
     @Autowired
-    public CLVController(CLVTracker clvTracker) {
+    public CLVController(CLVTracker clvTracker, ClosingLineCaptureService closingLineCaptureService) {
         this.clvTracker = clvTracker;
+        this.closingLineCaptureService = closingLineCaptureService;
     }
     
     @GetMapping("/clv")
@@ -37,4 +40,13 @@ public class CLVController {
     public Map<String, Object> getCLVStats() {
         return clvTracker.getCLVStats();
     }
+    
+    /**
+     * Run closing-line capture now instead of waiting for the scheduler
+     */
+    @PostMapping("/api/clv/capture")
+    @ResponseBody
+    public Map<String, Object> captureClosingLines() {
+        return closingLineCaptureService.captureClosingLines();
+    }
 }
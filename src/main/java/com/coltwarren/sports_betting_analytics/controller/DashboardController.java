@@ -1,10 +1,12 @@
 package com.coltwarren.sports_betting_analytics.controller;
 
+import com.coltwarren.sports_betting_analytics.service.BetPage;
 import com.coltwarren.sports_betting_analytics.service.BetService;
 import com.coltwarren.sports_betting_analytics.service.BankrollService;
 import com.coltwarren.sports_betting_analytics.model.Bet;
 import com.coltwarren.sports_betting_analytics.model.Bankroll;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
@@ -12,50 +14,69 @@ import org.springframework.web.bind.annotation.*;
 import java.math.BigDecimal;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Supplier;
 
 @Controller
 public class DashboardController {
     
     private final BetService betService;
     private final BankrollService bankrollService;
+    private final int pendingLimit;
+    private final int recentLimit;
     
     @Autowired
-    public DashboardController(BetService betService, BankrollService bankrollService) {
+    public DashboardController(BetService betService, BankrollService bankrollService,
+                               @Value("${dashboard.pending-limit:50}") int pendingLimit,
+                               @Value("${dashboard.recent-limit:20}") int recentLimit) {
         this.betService = betService;
         this.bankrollService = bankrollService;
+        this.pendingLimit = pendingLimit;
+        this.recentLimit = recentLimit;
     }
     
+    /**
+     * Stat cards come from one grouped aggregate query; the pending and
+     * settled tables are independent keyset pages (?pending= / ?settled= cursors)
+     */
     @GetMapping("/")
-    public String home(Model model) {
-        List<Bet> allBets = betService.getAllBets();
-        List<Bet> pendingBets = betService.getPendingBets();
-        List<Bet> settledBets = betService.getSettledBets();
+    public String home(@RequestParam(required = false) String pending,
+                       @RequestParam(required = false) String settled,
+                       Model model) {
+        BetService.BettingStats stats = betService.getComprehensiveStats();
+        BetPage pendingPage = pageOrFirst(() -> betService.getPendingBetsPage(pending, pendingLimit),
+                                          () -> betService.getPendingBetsPage(null, pendingLimit));
+        BetPage settledPage = pageOrFirst(() -> betService.getSettledBetsPage(settled, recentLimit),
+                                          () -> betService.getSettledBetsPage(null, recentLimit));
         
-        BigDecimal totalProfitLoss = betService.calculateTotalProfitLoss();
-        Double winRate = betService.calculateWinRate();
-        Double roi = betService.calculateROI();
-        
-        long totalCount = allBets.size();
-        long pendingCount = betService.countBetsByStatus("PENDING");
-        long wonCount = betService.countBetsByStatus("WON");
-        long lostCount = betService.countBetsByStatus("LOST");
-        long pushCount = betService.countBetsByStatus("PUSH");
-        
-        model.addAttribute("allBets", allBets);
-        model.addAttribute("pendingBets", pendingBets);
-        model.addAttribute("settledBets", settledBets);
-        model.addAttribute("totalProfitLoss", totalProfitLoss);
-        model.addAttribute("winRate", winRate);
-        model.addAttribute("roi", roi);
-        model.addAttribute("totalCount", totalCount);
-        model.addAttribute("pendingCount", pendingCount);
-        model.addAttribute("wonCount", wonCount);
-        model.addAttribute("lostCount", lostCount);
-        model.addAttribute("pushCount", pushCount);
+        model.addAttribute("pendingBets", pendingPage.bets());
+        model.addAttribute("settledBets", settledPage.bets());
+        model.addAttribute("pendingCursor", pending);
+        model.addAttribute("settledCursor", settled);
+        model.addAttribute("pendingNext", pendingPage.nextCursor());
+        model.addAttribute("settledNext", settledPage.nextCursor());
+        model.addAttribute("totalProfitLoss", stats.getTotalProfitLoss());
+        model.addAttribute("winRate", stats.getWinRate());
+        model.addAttribute("roi", stats.getRoi());
+        model.addAttribute("totalCount", stats.getTotalBets());
+        model.addAttribute("pendingCount", stats.getPendingBets());
+        model.addAttribute("wonCount", stats.getWonBets());
+        model.addAttribute("lostCount", stats.getLostBets());
+        model.addAttribute("pushCount", stats.getPushedBets());
         
         return "dashboard";
     }
     
+    /**
+     * A stale or mangled cursor in a bookmarked URL just shows the first page
+     */
+    private BetPage pageOrFirst(Supplier<BetPage> page, Supplier<BetPage> firstPage) {
+        try {
+            return page.get();
+        } catch (IllegalArgumentException e) {
+            return firstPage.get();
+        }
+    }
+    
     @GetMapping("/bets/new")
     public String newBetForm(Model model) {
         model.addAttribute("bet", new Bet());
@@ -1,8 +1,10 @@
 package com.coltwarren.sports_betting_analytics.controller;
 
 import com.coltwarren.sports_betting_analytics.service.AdvancedEVCalculator;
+import com.coltwarren.sports_betting_analytics.service.odds.DevigMethod;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 
 import java.util.Map;
 
@@ -24,9 +26,23 @@ public class EVController {
             @RequestParam String selection,
             @RequestParam int odds,
             @RequestParam String betType,
-            @RequestParam(required = false) String context) {
+            @RequestParam(required = false) String context,
+            @RequestParam(defaultValue = "false") boolean ai) {
         
-        return evCalculator.analyzeEV(sport, event, selection, odds, betType, context);
+        return evCalculator.analyzeEV(sport, event, selection, odds, betType, context, ai);
+    }
+    
+    @GetMapping("/analyze-async")
+    public Mono<Map<String, Object>> analyzeEVAsync(
+            @RequestParam String sport,
+            @RequestParam String event,
+            @RequestParam String selection,
+            @RequestParam int odds,
+            @RequestParam String betType,
+            @RequestParam(required = false) String context,
+            @RequestParam(defaultValue = "false") boolean ai) {
+        
+        return evCalculator.analyzeEVAsync(sport, event, selection, odds, betType, context, ai);
     }
     
     @GetMapping("/simple")
@@ -36,4 +52,20 @@ public class EVController {
         
         return evCalculator.calculateSimpleEV(odds, winProbability);
     }
+    
+    /**
+     * EV against the no-vig cross-book consensus (no AI call)
+     */
+    @GetMapping("/consensus")
+    public Map<String, Object> calculateConsensusEV(
+            @RequestParam String sport,
+            @RequestParam(required = false) String event,
+            @RequestParam String selection,
+            @RequestParam int odds,
+            @RequestParam String betType,
+            @RequestParam(required = false) String method) {
+        
+        return evCalculator.calculateConsensusEV(sport, event, selection, odds, betType,
+            method != null ? DevigMethod.parse(method) : null);
+    }
 }
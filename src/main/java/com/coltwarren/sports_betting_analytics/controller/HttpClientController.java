@@ -0,0 +1,28 @@
+package com.coltwarren.sports_betting_analytics.controller;
+
+import com.coltwarren.sports_betting_analytics.config.OutboundHttpClients;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/http")
+public class HttpClientController {
+
+    private final OutboundHttpClients httpClients;
+
+    @Autowired
+    public HttpClientController(OutboundHttpClients httpClients) {
+        this.httpClients = httpClients;
+    }
+
+    /**
+     * Connection pool usage per outbound dependency and remote host
+     */
+    @GetMapping("/pools")
+    public List<Map<String, Object>> getPoolStats() {
+        return httpClients.getPoolStats();
+    }
+}
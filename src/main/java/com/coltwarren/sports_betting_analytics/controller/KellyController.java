@@ -1,6 +1,7 @@
 package com.coltwarren.sports_betting_analytics.controller;
 
 import com.coltwarren.sports_betting_analytics.service.KellyCriterionService;
+import com.coltwarren.sports_betting_analytics.service.odds.DevigMethod;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.*;
 
@@ -25,6 +26,22 @@ public class KellyController {
         return kellyService.calculateKelly(odds, winProbability, fractional);
     }
     
+    /**
+     * Kelly sizing with the win probability from the no-vig market consensus
+     */
+    @GetMapping("/consensus")
+    public Map<String, Object> calculateConsensusKelly(
+            @RequestParam String sport,
+            @RequestParam(required = false) String event,
+            @RequestParam String selection,
+            @RequestParam String betType,
+            @RequestParam int odds,
+            @RequestParam(required = false) String method,
+            @RequestParam(defaultValue = "true") boolean fractional) {
+        return kellyService.calculateConsensusKelly(sport, event, selection, betType, odds,
+            method != null ? DevigMethod.parse(method) : null, fractional);
+    }
+    
     @GetMapping("/implied-probability")
     public Map<String, Object> getImpliedProbability(@RequestParam int odds) {
         double impliedProb = kellyService.calculateImpliedProbability(odds);
@@ -5,6 +5,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 
@@ -80,6 +81,11 @@ public class NotificationController {
         return response;
     }
     
+    @GetMapping("/recent")
+    public List<NotificationService.Notification> getRecent(@RequestParam(defaultValue = "20") int limit) {
+        return notificationService.getRecentNotifications(limit);
+    }
+    
     @GetMapping("/stats")
     public Map<String, Object> getStats() {
         Map<String, Object> stats = new HashMap<>();
@@ -1,11 +1,26 @@
 package com.coltwarren.sports_betting_analytics.controller;
 
 import com.coltwarren.sports_betting_analytics.model.odds.OddsResponse;
+import com.coltwarren.sports_betting_analytics.service.odds.ArbitrageDetector;
+import com.coltwarren.sports_betting_analytics.service.odds.ArbitrageOpportunity;
+import com.coltwarren.sports_betting_analytics.service.odds.BestBet;
+import com.coltwarren.sports_betting_analytics.service.odds.BestBetsScan;
+import com.coltwarren.sports_betting_analytics.service.odds.DevigMethod;
+import com.coltwarren.sports_betting_analytics.service.odds.FairOdds;
+import com.coltwarren.sports_betting_analytics.service.odds.FairOddsEngine;
+import com.coltwarren.sports_betting_analytics.service.odds.OddsFetchScheduler;
 import com.coltwarren.sports_betting_analytics.service.odds.OddsService;
+import com.coltwarren.sports_betting_analytics.service.odds.OddsShardStore;
+import com.coltwarren.sports_betting_analytics.service.odds.PositiveEVBet;
+import com.coltwarren.sports_betting_analytics.service.odds.PositiveEVScanner;
 import com.coltwarren.sports_betting_analytics.service.odds.BestBetsAnalyzer;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 
+import java.time.Duration;
 import java.util.List;
 import java.util.Map;
 
@@ -13,13 +28,35 @@ import java.util.Map;
 @RequestMapping("/api/odds")
 public class OddsController {
     
+    private static final String ALL_SPORTS = "ALL";
+    
+    // Bounds for a caller-supplied scan deadline
+    private static final long MIN_SCAN_TIMEOUT_MS = 100;
+    private static final long MAX_SCAN_TIMEOUT_MS = 10_000;
+    
     private final OddsService oddsService;
     private final BestBetsAnalyzer bestBetsAnalyzer;
+    private final ArbitrageDetector arbitrageDetector;
+    private final FairOddsEngine fairOddsEngine;
+    private final PositiveEVScanner positiveEVScanner;
+    private final OddsFetchScheduler fetchScheduler;
+    private final OddsShardStore shardStore;
+    private final Duration scanDeadline;
     
     @Autowired
-    public OddsController(OddsService oddsService, BestBetsAnalyzer bestBetsAnalyzer) {
+    public OddsController(OddsService oddsService, BestBetsAnalyzer bestBetsAnalyzer,
+                          ArbitrageDetector arbitrageDetector, FairOddsEngine fairOddsEngine,
+                          PositiveEVScanner positiveEVScanner, OddsFetchScheduler fetchScheduler,
+                          OddsShardStore shardStore,
+                          @Value("${odds.best-bets.scan-timeout-ms:3000}") long scanTimeoutMs) {
         this.oddsService = oddsService;
         this.bestBetsAnalyzer = bestBetsAnalyzer;
+        this.arbitrageDetector = arbitrageDetector;
+        this.fairOddsEngine = fairOddsEngine;
+        this.positiveEVScanner = positiveEVScanner;
+        this.fetchScheduler = fetchScheduler;
+        this.shardStore = shardStore;
+        this.scanDeadline = Duration.ofMillis(scanTimeoutMs);
     }
     
     @GetMapping("/{sport}")
@@ -28,6 +65,15 @@ public class OddsController {
         return oddsService.getLiveOdds(sportKey);
     }
     
+    /**
+     * One game's odds, built from its shard alone
+     */
+    @GetMapping("/{sport}/games/{gameId}")
+    public ResponseEntity<OddsResponse> getGameOdds(@PathVariable String sport, @PathVariable String gameId) {
+        OddsResponse game = oddsService.getGameOdds(oddsService.getSportKey(sport), gameId);
+        return game != null ? ResponseEntity.ok(game) : ResponseEntity.notFound().build();
+    }
+    
     @GetMapping("/best")
     public Map<String, Object> getBestOdds(
             @RequestParam String sport,
@@ -40,10 +86,127 @@ public class OddsController {
         return oddsService.findBestOdds(sportKey, team, marketKey);
     }
     
+    /**
+     * Team-name autocomplete over the cached odds (full names and aliases)
+     */
+    @GetMapping("/teams")
+    public List<String> suggestTeams(
+            @RequestParam String sport,
+            @RequestParam(defaultValue = "") String q,
+            @RequestParam(defaultValue = "10") int limit) {
+        String sportKey = oddsService.getSportKey(sport);
+        return oddsService.suggestTeams(sportKey, q, limit);
+    }
+    
     @GetMapping("/best-bets-today")
-    public List<Map<String, Object>> getBestBetsToday(
+    public List<BestBet> getBestBetsToday(
             @RequestParam(defaultValue = "NFL") String sport,
             @RequestParam(defaultValue = "10") int limit) {
+        if (ALL_SPORTS.equalsIgnoreCase(sport)) {
+            return bestBetsAnalyzer.findBestBetsAllSports(limit, scanDeadline).bets();
+        }
         return bestBetsAnalyzer.findBestBetsToday(sport, limit);
     }
+    
+    /**
+     * All-sports scan with which sports made the deadline
+     */
+    @GetMapping("/best-bets-all")
+    public Mono<BestBetsScan> getBestBetsAllSports(
+            @RequestParam(defaultValue = "10") int limit,
+            @RequestParam(required = false) Long timeoutMs) {
+        Duration deadline = timeoutMs != null
+            ? Duration.ofMillis(Math.max(MIN_SCAN_TIMEOUT_MS, Math.min(MAX_SCAN_TIMEOUT_MS, timeoutMs)))
+            : scanDeadline;
+        return bestBetsAnalyzer.findBestBetsAllSportsAsync(limit, deadline);
+    }
+    
+    /**
+     * No-vig consensus fair odds for one selection
+     */
+    @GetMapping("/fair")
+    public FairOdds getFairOdds(
+            @RequestParam String sport,
+            @RequestParam(required = false) String event,
+            @RequestParam String selection,
+            @RequestParam String betType,
+            @RequestParam(required = false) String method) {
+        return fairOddsEngine.findFairOdds(sport, event, selection, betType,
+            method != null ? DevigMethod.parse(method) : null);
+    }
+    
+    /**
+     * Best prices ranked by expected value against the no-vig consensus
+     */
+    @GetMapping("/positive-ev")
+    public List<PositiveEVBet> getPositiveEVBets(
+            @RequestParam(defaultValue = ALL_SPORTS) String sport,
+            @RequestParam(defaultValue = "20") int limit) {
+        return positiveEVScanner.getTopBets(ALL_SPORTS.equalsIgnoreCase(sport) ? null : sport, limit);
+    }
+    
+    /**
+     * Open cross-book arbitrage opportunities, best first
+     */
+    @GetMapping("/arbitrage")
+    public List<ArbitrageOpportunity> getArbitrage(@RequestParam(defaultValue = ALL_SPORTS) String sport) {
+        if (ALL_SPORTS.equalsIgnoreCase(sport)) {
+            return arbitrageDetector.findArbitrageAllSports();
+        }
+        return arbitrageDetector.findArbitrage(sport);
+    }
+    
+    @GetMapping("/arbitrage/stats")
+    public Map<String, Object> getArbitrageStats() {
+        return arbitrageDetector.getStats();
+    }
+    
+    /**
+     * Planned polling schedule per sport and the Odds API quota burn rate
+     */
+    @GetMapping("/schedule")
+    public Map<String, Object> getFetchSchedule() {
+        return fetchScheduler.getSchedule();
+    }
+    
+    /**
+     * Version and game count of each sport's current shard
+     */
+    @GetMapping("/shards")
+    public Map<String, Object> getShardStats() {
+        return shardStore.getStats();
+    }
+    
+    // ============================================
+    // NON-BLOCKING VARIANTS
+    // Same responses, but no servlet thread waits on the Odds API
+    // ============================================
+    
+    @GetMapping("/async/{sport}")
+    public Mono<List<OddsResponse>> getOddsAsync(@PathVariable String sport) {
+        String sportKey = oddsService.getSportKey(sport);
+        return oddsService.getLiveOddsAsync(sportKey);
+    }
+    
+    @GetMapping("/async/best")
+    public Mono<Map<String, Object>> getBestOddsAsync(
+            @RequestParam String sport,
+            @RequestParam String team,
+            @RequestParam String betType) {
+        
+        String sportKey = oddsService.getSportKey(sport);
+        String marketKey = oddsService.getMarketKey(betType);
+        
+        return oddsService.findBestOddsAsync(sportKey, team, marketKey);
+    }
+    
+    @GetMapping("/async/best-bets-today")
+    public Mono<List<BestBet>> getBestBetsTodayAsync(
+            @RequestParam(defaultValue = "NFL") String sport,
+            @RequestParam(defaultValue = "10") int limit) {
+        if (ALL_SPORTS.equalsIgnoreCase(sport)) {
+            return bestBetsAnalyzer.findBestBetsAllSportsAsync(limit, scanDeadline).map(BestBetsScan::bets);
+        }
+        return bestBetsAnalyzer.findBestBetsTodayAsync(sport, limit);
+    }
 }
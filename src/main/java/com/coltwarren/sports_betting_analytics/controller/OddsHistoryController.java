@@ -0,0 +1,89 @@
+package com.coltwarren.sports_betting_analytics.controller;
+
+import com.coltwarren.sports_betting_analytics.service.odds.OddsService;
+import com.coltwarren.sports_betting_analytics.service.odds.history.LineMovement;
+import com.coltwarren.sports_betting_analytics.service.odds.history.OddsHistoryStore;
+import com.coltwarren.sports_betting_analytics.service.odds.history.PriceTick;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/odds/history")
+public class OddsHistoryController {
+
+    private final OddsHistoryStore historyStore;
+    private final OddsService oddsService;
+
+    @Autowired
+    public OddsHistoryController(OddsHistoryStore historyStore, OddsService oddsService) {
+        this.historyStore = historyStore;
+        this.oddsService = oddsService;
+    }
+
+    /**
+     * Price at every book (or one book) for an outcome at a point in time
+     */
+    @GetMapping("/price")
+    public Map<String, Object> getPriceAt(
+            @RequestParam String sport,
+            @RequestParam String gameId,
+            @RequestParam(defaultValue = "h2h") String market,
+            @RequestParam String outcome,
+            @RequestParam(required = false) String book,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime at) {
+
+        String sportKey = oddsService.getSportKey(sport);
+        Instant instant = at != null ? at.toInstant() : Instant.now();
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("gameId", gameId);
+        response.put("market", market);
+        response.put("outcome", outcome);
+        response.put("at", instant.toString());
+
+        if (book != null) {
+            PriceTick tick = historyStore.priceAt(sportKey, gameId, book, market, outcome, instant);
+            response.put("prices", tick != null ? Map.of(book, tick) : Map.of());
+        } else {
+            response.put("prices", historyStore.pricesAt(sportKey, gameId, market, outcome, instant));
+        }
+
+        return response;
+    }
+
+    /**
+     * Opening vs current line per book
+     */
+    @GetMapping("/movement")
+    public List<LineMovement> getLineMovement(
+            @RequestParam String sport,
+            @RequestParam String gameId,
+            @RequestParam(defaultValue = "h2h") String market,
+            @RequestParam String outcome) {
+
+        String sportKey = oddsService.getSportKey(sport);
+        return historyStore.getLineMovement(sportKey, gameId, market, outcome);
+    }
+
+    @GetMapping("/stats")
+    public Map<String, Object> getStats() {
+        return historyStore.getStats();
+    }
+
+    @PostMapping("/compact")
+    public Map<String, Integer> compact() {
+        return historyStore.compact();
+    }
+
+    @PostMapping("/retention")
+    public Map<String, Integer> enforceRetention() {
+        return historyStore.enforceRetention();
+    }
+}
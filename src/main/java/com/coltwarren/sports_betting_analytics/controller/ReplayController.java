@@ -0,0 +1,73 @@
+package com.coltwarren.sports_betting_analytics.controller;
+
+import com.coltwarren.sports_betting_analytics.service.replay.RecordedExchange;
+import com.coltwarren.sports_betting_analytics.service.replay.ReplayStore;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+/**
+ * Local stand-in for the upstream APIs while replaying a recording.
+ *
+ * Point a service at /replay/{dependency} (e.g. odds.api.url=http://localhost:8080/replay/odds-api)
+ * and it receives what the real API sent at the same point of the recording.
+ */
+@RestController
+@RequestMapping("/replay")
+public class ReplayController {
+
+    private final ReplayStore replayStore;
+
+    @Autowired
+    public ReplayController(ReplayStore replayStore) {
+        this.replayStore = replayStore;
+    }
+
+    @GetMapping("/status")
+    public ResponseEntity<Map<String, Object>> getStatus() {
+        if (!replayStore.isEnabled()) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(replayStore.getStatus());
+    }
+
+    /**
+     * Reload the recordings and restart the virtual clock, optionally at a new speed
+     */
+    @PostMapping("/restart")
+    public ResponseEntity<Map<String, Object>> restart(@RequestParam(defaultValue = "1.0") double speed) {
+        if (!replayStore.isEnabled()) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(replayStore.restart(speed));
+    }
+
+    @RequestMapping("/{dependency}/**")
+    public ResponseEntity<byte[]> replay(@PathVariable String dependency, HttpServletRequest request) {
+        if (!replayStore.isEnabled()) {
+            return ResponseEntity.notFound().build();
+        }
+
+        String prefix = request.getContextPath() + "/replay/" + dependency;
+        String path = request.getRequestURI().substring(prefix.length());
+        if (request.getQueryString() != null) {
+            path += "?" + request.getQueryString();
+        }
+
+        RecordedExchange exchange = replayStore.find(dependency, request.getMethod(), path);
+        if (exchange == null) {
+            return ResponseEntity.notFound().build();
+        }
+
+        HttpHeaders headers = new HttpHeaders();
+        exchange.headers().forEach(headers::set);
+        return ResponseEntity.status(exchange.status())
+            .headers(headers)
+            .body(exchange.body().getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -7,11 +7,24 @@ import java.time.LocalDateTime;
 /**
  * Bet Entity - Represents a single sports bet in the system
  * 
+ * Indexes follow BetRepository's hot paths: listings filter on status,
+ * sport or sportsbook and page newest-first on (placedAt, id), so each of
+ * those leads a (column, placed_at DESC, id DESC) index that serves both
+ * the filter and the keyset seek. Descending order lets the unfiltered
+ * listing read the first page straight off the index.
+ * BetRepositoryIndexTest checks the plans.
+ * 
  * @author Colt Warren
  * @version 1.0
  */
 @Entity
-@Table(name = "bets")
+@Table(name = "bets", indexes = {
+    @Index(name = "idx_bets_status_placed_at", columnList = "status, placed_at DESC, id DESC"),
+    @Index(name = "idx_bets_sport_placed_at", columnList = "sport, placed_at DESC, id DESC"),
+    @Index(name = "idx_bets_book_placed_at", columnList = "sportsbook_name, placed_at DESC, id DESC"),
+    @Index(name = "idx_bets_placed_at", columnList = "placed_at DESC, id DESC"),
+    @Index(name = "idx_bets_bet_type", columnList = "bet_type")
+})
 public class Bet {
     
     @Id
@@ -0,0 +1,175 @@
+package com.coltwarren.sports_betting_analytics.model;
+
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * BetStats Entity - Running totals over a group of bets
+ * 
+ * One row for all bets, one per sport and one per sportsbook, kept up to
+ * date by BetStatsService in the same transaction as every bet write, so
+ * reading stats is a primary-key lookup instead of scanning the bets table.
+ * 
+ * @author Colt Warren
+ * @version 1.0
+ */
+@Entity
+@Table(name = "bet_stats")
+public class BetStats {
+    
+    public static final String SCOPE_ALL = "ALL";
+    public static final String SCOPE_SPORT = "SPORT";
+    public static final String SCOPE_SPORTSBOOK = "BOOK";
+    
+    public static final String OVERALL_ID = SCOPE_ALL;
+    
+    // "ALL", "SPORT:NFL", "BOOK:FANDUEL"
+    @Id
+    @Column(length = 64)
+    private String id;
+    
+    @Column(nullable = false, length = 10)
+    private String scope;
+    
+    @Column(nullable = false, length = 50)
+    private String scopeKey;
+    
+    private long totalBets;
+    private long pendingBets;
+    private long wonBets;
+    private long lostBets;
+    private long pushedBets;
+    
+    @Column(nullable = false, precision = 14, scale = 2)
+    private BigDecimal totalStaked = BigDecimal.ZERO;
+    
+    // Stake of bets with a profit/loss (the ROI denominator)
+    @Column(nullable = false, precision = 14, scale = 2)
+    private BigDecimal settledStaked = BigDecimal.ZERO;
+    
+    @Column(nullable = false, precision = 14, scale = 2)
+    private BigDecimal totalProfitLoss = BigDecimal.ZERO;
+    
+    private LocalDateTime updatedAt;
+    
+    // Constructors
+    protected BetStats() {
+    }
+    
+    public BetStats(String scope, String scopeKey) {
+        this.id = id(scope, scopeKey);
+        this.scope = scope;
+        this.scopeKey = scopeKey;
+        this.updatedAt = LocalDateTime.now();
+    }
+    
+    public static String id(String scope, String scopeKey) {
+        return SCOPE_ALL.equals(scope) ? OVERALL_ID : scope + ":" + scopeKey;
+    }
+    
+    public static BetStats overall() {
+        return new BetStats(SCOPE_ALL, SCOPE_ALL);
+    }
+    
+    // ============================================
+    // UPDATES
+    // ============================================
+    
+    /**
+     * Add (sign = 1) or remove (sign = -1) one bet's contribution
+     */
+    public void apply(Contribution bet, int sign) {
+        totalBets += sign;
+        addToStatus(bet.status(), sign);
+        if (bet.stake() != null) {
+            totalStaked = totalStaked.add(bet.stake().multiply(BigDecimal.valueOf(sign)));
+        }
+        if (bet.profitLoss() != null) {
+            if (bet.stake() != null) {
+                settledStaked = settledStaked.add(bet.stake().multiply(BigDecimal.valueOf(sign)));
+            }
+            totalProfitLoss = totalProfitLoss.add(bet.profitLoss().multiply(BigDecimal.valueOf(sign)));
+        }
+        updatedAt = LocalDateTime.now();
+    }
+    
+    /**
+     * Add the totals of many bets with one status (used when rebuilding); null sums count as zero
+     */
+    public void apply(String status, long count, BigDecimal staked, BigDecimal settledStake, BigDecimal profitLoss) {
+        totalBets += count;
+        addToStatus(status, count);
+        if (staked != null) totalStaked = totalStaked.add(staked);
+        if (settledStake != null) settledStaked = settledStaked.add(settledStake);
+        if (profitLoss != null) totalProfitLoss = totalProfitLoss.add(profitLoss);
+        updatedAt = LocalDateTime.now();
+    }
+    
+    private void addToStatus(String status, long count) {
+        if (status == null) return;
+        switch (status) {
+            case "PENDING" -> pendingBets += count;
+            case "WON" -> wonBets += count;
+            case "LOST" -> lostBets += count;
+            case "PUSH" -> pushedBets += count;
+            default -> { } // VOID and other statuses only count toward totalBets
+        }
+    }
+    
+    /**
+     * Win rate as a percentage of won + lost bets
+     */
+    public double getWinRate() {
+        long decided = wonBets + lostBets;
+        return decided > 0 ? (double) wonBets / decided * 100 : 0.0;
+    }
+    
+    /**
+     * ROI as a percentage of the settled stake
+     */
+    public double getRoi() {
+        return settledStaked.signum() != 0
+            ? totalProfitLoss.doubleValue() / settledStaked.doubleValue() * 100
+            : 0.0;
+    }
+    
+    // Getters
+    public String getId() { return id; }
+    public String getScope() { return scope; }
+    public String getScopeKey() { return scopeKey; }
+    public long getTotalBets() { return totalBets; }
+    public long getPendingBets() { return pendingBets; }
+    public long getWonBets() { return wonBets; }
+    public long getLostBets() { return lostBets; }
+    public long getPushedBets() { return pushedBets; }
+    public BigDecimal getTotalStaked() { return totalStaked; }
+    public BigDecimal getSettledStaked() { return settledStaked; }
+    public BigDecimal getTotalProfitLoss() { return totalProfitLoss; }
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    
+    // ============================================
+    // CONTRIBUTION
+    // ============================================
+    
+    /**
+     * The fields of a bet that feed the stats, captured before a change so
+     * the old values can be taken out and the new ones put in
+     */
+    public record Contribution(String sport, String sportsbookName, String status,
+                               BigDecimal stake, BigDecimal profitLoss) {
+        
+        public static Contribution of(Bet bet) {
+            return new Contribution(bet.getSport(), bet.getSportsbookName(), bet.getStatus(),
+                                    bet.getStake(), bet.getProfitLoss());
+        }
+        
+        /**
+         * Ids of the stats rows this bet counts toward
+         */
+        public List<String> statsIds() {
+            return List.of(OVERALL_ID, id(SCOPE_SPORT, sport), id(SCOPE_SPORTSBOOK, sportsbookName));
+        }
+    }
+}
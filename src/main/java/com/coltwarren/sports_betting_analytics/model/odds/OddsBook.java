@@ -0,0 +1,371 @@
+package com.coltwarren.sports_betting_analytics.model.odds;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * OddsBook - Compact, immutable odds snapshot for one sport
+ *
+ * Instead of nested OddsResponse/Bookmaker/Market/Outcome objects, every
+ * quoted price is one "row" in a set of parallel primitive arrays. Rows are
+ * grouped by game (rowStart/rowEnd) and keep the payload order inside a game
+ * (bookmaker, then market, then outcome).
+ *
+ * Team, bookmaker, market and outcome names are interned, so successive
+ * polls share the same String instances.
+ *
+ * A snapshot remembers when its payload arrived (before decoding), so
+ * latency downstream is measured from the wire rather than from ingestion.
+ *
+ * @author Colt Warren
+ * @version 1.0
+ */
+public final class OddsBook {
+
+    public static final int NO_MARKET = -1;
+
+    private final String sportKey;
+
+    // Per game
+    private final String[] gameIds;
+    private final String[] sportTitles;
+    private final String[] commenceTimes;
+    private final String[] homeTeams;
+    private final String[] awayTeams;
+    private final int[] gameRowStart; // length = games + 1
+
+    // Dictionaries referenced by row columns
+    private final String[] bookKeys;
+    private final String[] bookTitles;
+    private final String[] marketKeys;
+    private final String[] outcomeNames;
+
+    // Per row (one quoted price)
+    private final int[] rowBook;
+    private final byte[] rowMarket;
+    private final int[] rowOutcome;
+    private final double[] rowPrice;
+    private final double[] rowPoint; // NaN when the market has no point
+
+    // When the payload arrived; build time for snapshots that did not come off the wire
+    private final long receivedAtNanos;
+    private final long receivedAtMillis;
+
+    private volatile List<OddsResponse> responses;
+
+    private OddsBook(Builder b) {
+        this.sportKey = b.sportKey;
+        this.receivedAtNanos = b.receivedAtNanos != 0 ? b.receivedAtNanos : System.nanoTime();
+        this.receivedAtMillis = b.receivedAtMillis != 0 ? b.receivedAtMillis : System.currentTimeMillis();
+        this.gameIds = Arrays.copyOf(b.gameIds, b.gameCount);
+        this.sportTitles = Arrays.copyOf(b.sportTitles, b.gameCount);
+        this.commenceTimes = Arrays.copyOf(b.commenceTimes, b.gameCount);
+        this.homeTeams = Arrays.copyOf(b.homeTeams, b.gameCount);
+        this.awayTeams = Arrays.copyOf(b.awayTeams, b.gameCount);
+        this.gameRowStart = Arrays.copyOf(b.gameRowStart, b.gameCount + 1);
+        this.bookKeys = b.bookKeys.toArray(new String[0]);
+        this.bookTitles = b.bookTitles.toArray(new String[0]);
+        this.marketKeys = b.marketKeys.toArray(new String[0]);
+        this.outcomeNames = b.outcomeNames.toArray(new String[0]);
+        this.rowBook = Arrays.copyOf(b.rowBook, b.rowCount);
+        this.rowMarket = Arrays.copyOf(b.rowMarket, b.rowCount);
+        this.rowOutcome = Arrays.copyOf(b.rowOutcome, b.rowCount);
+        this.rowPrice = Arrays.copyOf(b.rowPrice, b.rowCount);
+        this.rowPoint = Arrays.copyOf(b.rowPoint, b.rowCount);
+    }
+
+    public static OddsBook empty(String sportKey) {
+        return new Builder(sportKey, null).build();
+    }
+
+    // ============================================
+    // GAMES
+    // ============================================
+
+    public String getSportKey() { return sportKey; }
+    public long getReceivedAtNanos() { return receivedAtNanos; }
+    public long getReceivedAtMillis() { return receivedAtMillis; }
+    public int gameCount() { return gameIds.length; }
+    public String gameId(int game) { return gameIds[game]; }
+    public String sportTitle(int game) { return sportTitles[game]; }
+    public String commenceTime(int game) { return commenceTimes[game]; }
+    public String homeTeam(int game) { return homeTeams[game]; }
+    public String awayTeam(int game) { return awayTeams[game]; }
+    public int rowStart(int game) { return gameRowStart[game]; }
+    public int rowEnd(int game) { return gameRowStart[game + 1]; }
+
+    /**
+     * Index of a game by its Odds API id, or -1
+     */
+    public int indexOfGame(String gameId) {
+        for (int g = 0; g < gameIds.length; g++) {
+            if (gameIds[g].equals(gameId)) {
+                return g;
+            }
+        }
+        return -1;
+    }
+
+    // ============================================
+    // DICTIONARIES
+    // ============================================
+
+    public int bookCount() { return bookKeys.length; }
+    public String bookKeyAt(int book) { return bookKeys[book]; }
+    public String bookTitleAt(int book) { return bookTitles[book]; }
+    public int marketCount() { return marketKeys.length; }
+    public String marketKeyAt(int market) { return marketKeys[market]; }
+    public int outcomeCount() { return outcomeNames.length; }
+    public String outcomeNameAt(int outcome) { return outcomeNames[outcome]; }
+
+    /**
+     * Dictionary index of a market key ("h2h", "spreads", "totals"), or NO_MARKET
+     */
+    public int marketIndex(String marketKey) {
+        for (int m = 0; m < marketKeys.length; m++) {
+            if (marketKeys[m].equals(marketKey)) {
+                return m;
+            }
+        }
+        return NO_MARKET;
+    }
+
+    // ============================================
+    // ROWS
+    // ============================================
+
+    public int rowCount() { return rowPrice.length; }
+    public int book(int row) { return rowBook[row]; }
+    public String bookKey(int row) { return bookKeys[rowBook[row]]; }
+    public String bookTitle(int row) { return bookTitles[rowBook[row]]; }
+    public int market(int row) { return rowMarket[row]; }
+    public String marketKey(int row) { return marketKeys[rowMarket[row]]; }
+    public int outcome(int row) { return rowOutcome[row]; }
+    public String outcomeName(int row) { return outcomeNames[rowOutcome[row]]; }
+    public double price(int row) { return rowPrice[row]; }
+    public double point(int row) { return rowPoint[row]; }
+    public boolean hasPoint(int row) { return !Double.isNaN(rowPoint[row]); }
+
+    public Double pointOrNull(int row) {
+        return hasPoint(row) ? rowPoint[row] : null;
+    }
+
+    /**
+     * Materialize the legacy nested form (only needed for the raw JSON endpoint).
+     * Built once per snapshot and then shared.
+     */
+    public List<OddsResponse> toResponses() {
+        List<OddsResponse> result = responses;
+        if (result == null) {
+            result = Collections.unmodifiableList(buildResponses());
+            responses = result;
+        }
+        return result;
+    }
+
+    private List<OddsResponse> buildResponses() {
+        List<OddsResponse> games = new ArrayList<>(gameCount());
+        for (int g = 0; g < gameCount(); g++) {
+            games.add(toResponse(g));
+        }
+        return games;
+    }
+
+    /**
+     * One game in the Odds API's nested shape (not cached)
+     */
+    public OddsResponse toResponse(int g) {
+        OddsResponse game = new OddsResponse();
+        game.setId(gameIds[g]);
+        game.setSport_key(sportKey);
+        game.setSport_title(sportTitles[g]);
+        game.setCommence_time(commenceTimes[g]);
+        game.setHome_team(homeTeams[g]);
+        game.setAway_team(awayTeams[g]);
+
+        List<OddsResponse.Bookmaker> bookmakers = new ArrayList<>();
+        OddsResponse.Bookmaker bookmaker = null;
+        OddsResponse.Market market = null;
+
+        for (int row = rowStart(g); row < rowEnd(g); row++) {
+            if (bookmaker == null || !bookmaker.getKey().equals(bookKey(row))) {
+                bookmaker = new OddsResponse.Bookmaker();
+                bookmaker.setKey(bookKey(row));
+                bookmaker.setTitle(bookTitle(row));
+                bookmaker.setMarkets(new ArrayList<>());
+                bookmakers.add(bookmaker);
+                market = null;
+            }
+            if (market == null || !market.getKey().equals(marketKey(row))) {
+                market = new OddsResponse.Market();
+                market.setKey(marketKey(row));
+                market.setOutcomes(new ArrayList<>());
+                bookmaker.getMarkets().add(market);
+            }
+
+            OddsResponse.Outcome outcome = new OddsResponse.Outcome();
+            outcome.setName(outcomeName(row));
+            outcome.setPrice(price(row));
+            outcome.setPoint(pointOrNull(row));
+            market.getOutcomes().add(outcome);
+        }
+
+        game.setBookmakers(bookmakers);
+        return game;
+    }
+
+    // ============================================
+    // BUILDER
+    // ============================================
+
+    /**
+     * Append-only builder used by the streaming decoder. Not thread-safe.
+     */
+    public static final class Builder {
+
+        private final String sportKey;
+        private final OddsStringPool pool;
+        private long receivedAtNanos;
+        private long receivedAtMillis;
+
+        private int gameCount;
+        private String[] gameIds = new String[16];
+        private String[] sportTitles = new String[16];
+        private String[] commenceTimes = new String[16];
+        private String[] homeTeams = new String[16];
+        private String[] awayTeams = new String[16];
+        private int[] gameRowStart = new int[17];
+
+        private final List<String> bookKeys = new ArrayList<>();
+        private final List<String> bookTitles = new ArrayList<>();
+        private final Map<String, Integer> bookIndex = new HashMap<>();
+        private final List<String> marketKeys = new ArrayList<>();
+        private final Map<String, Integer> marketIndex = new HashMap<>();
+        private final List<String> outcomeNames = new ArrayList<>();
+        private final Map<String, Integer> outcomeIndex = new HashMap<>();
+
+        private int rowCount;
+        private int[] rowBook = new int[256];
+        private byte[] rowMarket = new byte[256];
+        private int[] rowOutcome = new int[256];
+        private double[] rowPrice = new double[256];
+        private double[] rowPoint = new double[256];
+
+        public Builder(String sportKey, OddsStringPool pool) {
+            this.sportKey = sportKey;
+            this.pool = pool;
+        }
+
+        /**
+         * When the payload this snapshot is decoded from arrived (System.nanoTime and wall clock)
+         */
+        public Builder receivedAt(long nanos, long millis) {
+            this.receivedAtNanos = nanos;
+            this.receivedAtMillis = millis;
+            return this;
+        }
+
+        /**
+         * Start a new game; rows added afterwards belong to it
+         */
+        public int startGame(String id, String sportTitle, String commenceTime, String homeTeam, String awayTeam) {
+            if (gameCount == gameIds.length) {
+                int capacity = gameCount * 2;
+                gameIds = Arrays.copyOf(gameIds, capacity);
+                sportTitles = Arrays.copyOf(sportTitles, capacity);
+                commenceTimes = Arrays.copyOf(commenceTimes, capacity);
+                homeTeams = Arrays.copyOf(homeTeams, capacity);
+                awayTeams = Arrays.copyOf(awayTeams, capacity);
+                gameRowStart = Arrays.copyOf(gameRowStart, capacity + 1);
+            }
+            gameIds[gameCount] = id;
+            sportTitles[gameCount] = intern(sportTitle);
+            commenceTimes[gameCount] = commenceTime;
+            homeTeams[gameCount] = intern(homeTeam);
+            awayTeams[gameCount] = intern(awayTeam);
+            gameRowStart[gameCount] = rowCount;
+            gameRowStart[gameCount + 1] = rowCount;
+            return gameCount++;
+        }
+
+        /**
+         * Fill in game fields that arrived after the bookmakers in the payload
+         */
+        public void updateGame(int game, String id, String sportTitle, String commenceTime,
+                               String homeTeam, String awayTeam) {
+            if (id != null) gameIds[game] = id;
+            if (sportTitle != null) sportTitles[game] = intern(sportTitle);
+            if (commenceTime != null) commenceTimes[game] = commenceTime;
+            if (homeTeam != null) homeTeams[game] = intern(homeTeam);
+            if (awayTeam != null) awayTeams[game] = intern(awayTeam);
+        }
+
+        public int book(String key, String title) {
+            Integer index = bookIndex.get(key);
+            if (index == null) {
+                index = bookKeys.size();
+                bookKeys.add(intern(key));
+                bookTitles.add(intern(title != null ? title : key));
+                bookIndex.put(key, index);
+            }
+            return index;
+        }
+
+        public int market(String key) {
+            Integer index = marketIndex.get(key);
+            if (index == null) {
+                if (marketKeys.size() == Byte.MAX_VALUE) {
+                    throw new IllegalStateException("Too many distinct markets in one payload");
+                }
+                index = marketKeys.size();
+                marketKeys.add(intern(key));
+                marketIndex.put(key, index);
+            }
+            return index;
+        }
+
+        public int outcome(String name) {
+            Integer index = outcomeIndex.get(name);
+            if (index == null) {
+                index = outcomeNames.size();
+                outcomeNames.add(intern(name));
+                outcomeIndex.put(name, index);
+            }
+            return index;
+        }
+
+        /**
+         * Add a price to the current game
+         */
+        public void addRow(int book, int market, int outcome, double price, double point) {
+            if (rowCount == rowPrice.length) {
+                int capacity = rowCount * 2;
+                rowBook = Arrays.copyOf(rowBook, capacity);
+                rowMarket = Arrays.copyOf(rowMarket, capacity);
+                rowOutcome = Arrays.copyOf(rowOutcome, capacity);
+                rowPrice = Arrays.copyOf(rowPrice, capacity);
+                rowPoint = Arrays.copyOf(rowPoint, capacity);
+            }
+            rowBook[rowCount] = book;
+            rowMarket[rowCount] = (byte) market;
+            rowOutcome[rowCount] = outcome;
+            rowPrice[rowCount] = price;
+            rowPoint[rowCount] = point;
+            rowCount++;
+            gameRowStart[gameCount] = rowCount;
+        }
+
+        public OddsBook build() {
+            return new OddsBook(this);
+        }
+
+        private String intern(String value) {
+            if (value == null) return null;
+            return pool != null ? pool.intern(value) : value;
+        }
+    }
+}
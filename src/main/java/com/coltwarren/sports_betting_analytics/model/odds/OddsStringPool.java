@@ -0,0 +1,33 @@
+package com.coltwarren.sports_betting_analytics.model.odds;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Shared intern pool for team, bookmaker, market and outcome names.
+ *
+ * The set of names is small and stable (a few hundred teams, a few dozen
+ * books), so every poll after the first reuses the same String instances.
+ */
+public class OddsStringPool {
+    
+    private static final int MAX_SIZE = 50_000;
+    
+    private final ConcurrentHashMap<String, String> pool = new ConcurrentHashMap<>();
+    
+    public String intern(String value) {
+        String existing = pool.get(value);
+        if (existing != null) {
+            return existing;
+        }
+        if (pool.size() >= MAX_SIZE) {
+            // Safety valve against unbounded junk; names will simply not be shared
+            return value;
+        }
+        existing = pool.putIfAbsent(value, value);
+        return existing != null ? existing : value;
+    }
+    
+    public int size() {
+        return pool.size();
+    }
+}
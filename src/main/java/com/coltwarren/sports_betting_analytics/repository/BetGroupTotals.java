@@ -0,0 +1,14 @@
+package com.coltwarren.sports_betting_analytics.repository;
+
+/**
+ * BetGroupTotals - One row of a per-group, per-status bet aggregate
+ * 
+ * The group is a sport or a sportsbook, depending on the query.
+ * 
+ * @author Colt Warren
+ * @version 1.0
+ */
+public interface BetGroupTotals extends BetStatusTotals {
+    
+    String getGroupKey();
+}
@@ -1,13 +1,18 @@
 package com.coltwarren.sports_betting_analytics.repository;
 
 import com.coltwarren.sports_betting_analytics.model.Bet;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * BetRepository - Data Access Layer for Bet Entity
@@ -30,6 +35,29 @@ public interface BetRepository extends JpaRepository<Bet, Long> {
     // deleteById(Long id) - Delete by ID
     // count() - Count all bets
     
+    /**
+     * Load a bet and lock its row until the transaction ends (SELECT ... FOR UPDATE)
+     * Used by every write that feeds the running stats, so two concurrent
+     * changes to the same bet can't both take out the same "before" values
+     * 
+     * @param id - Bet ID
+     * @return The bet, if it exists
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM Bet b WHERE b.id = :id")
+    Optional<Bet> findByIdForUpdate(Long id);
+    
+    /**
+     * Load several bets and lock their rows until the transaction ends
+     * Rows are locked in ID order, so two overlapping batches can't deadlock
+     * 
+     * @param ids - Bet IDs
+     * @return The bets that exist, by ID
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM Bet b WHERE b.id IN :ids ORDER BY b.id")
+    List<Bet> findAllByIdForUpdate(Collection<Long> ids);
+    
     // ============================================
     // CUSTOM QUERY METHODS
     // Spring Data JPA generates SQL from method names!
@@ -193,6 +221,36 @@ public interface BetRepository extends JpaRepository<Bet, Long> {
     @Query("SELECT SUM(b.stake) FROM Bet b")
     BigDecimal calculateTotalStaked();
     
+    /**
+     * Count, stake and profit/loss per status in a single pass over the table
+     * Everything the dashboard's stat cards need (totals, win rate, ROI) derives from these rows
+     * 
+     * @return One row per status
+     */
+    @Query("SELECT b.status AS status, COUNT(b) AS betCount, SUM(b.stake) AS staked, " +
+           "SUM(CASE WHEN b.profitLoss IS NOT NULL THEN b.stake END) AS settledStaked, " +
+           "SUM(b.profitLoss) AS profitLoss " +
+           "FROM Bet b GROUP BY b.status")
+    List<BetStatusTotals> summarizeByStatus();
+    
+    /**
+     * Same totals per sport and status (for rebuilding the per-sport stats rows)
+     */
+    @Query("SELECT b.sport AS groupKey, b.status AS status, COUNT(b) AS betCount, SUM(b.stake) AS staked, " +
+           "SUM(CASE WHEN b.profitLoss IS NOT NULL THEN b.stake END) AS settledStaked, " +
+           "SUM(b.profitLoss) AS profitLoss " +
+           "FROM Bet b GROUP BY b.sport, b.status")
+    List<BetGroupTotals> summarizeBySportAndStatus();
+    
+    /**
+     * Same totals per sportsbook and status (for rebuilding the per-sportsbook stats rows)
+     */
+    @Query("SELECT b.sportsbookName AS groupKey, b.status AS status, COUNT(b) AS betCount, SUM(b.stake) AS staked, " +
+           "SUM(CASE WHEN b.profitLoss IS NOT NULL THEN b.stake END) AS settledStaked, " +
+           "SUM(b.profitLoss) AS profitLoss " +
+           "FROM Bet b GROUP BY b.sportsbookName, b.status")
+    List<BetGroupTotals> summarizeBySportsbookAndStatus();
+    
     /**
      * Find recent bets (last N bets, ordered by placement date)
      * 
@@ -202,6 +260,17 @@ public interface BetRepository extends JpaRepository<Bet, Long> {
     @Query("SELECT b FROM Bet b ORDER BY b.placedAt DESC")
     List<Bet> findRecentBets();
     
+    /**
+     * Find pending bets that still need a closing line
+     * Bets without an event start time are included; the odds feed decides when they close
+     * 
+     * @param startsBefore - Only bets starting before this time (or with no start time)
+     * @return Pending bets with no closing odds
+     */
+    @Query("SELECT b FROM Bet b WHERE b.status = 'PENDING' AND b.closingOdds IS NULL " +
+           "AND (b.eventStartTime IS NULL OR b.eventStartTime <= :startsBefore)")
+    List<Bet> findPendingWithoutClosingOdds(LocalDateTime startsBefore);
+    
     /**
      * Find best performing sportsbook by profit
      * Returns sportsbook names ordered by total profit (highest first)
@@ -219,5 +288,48 @@ public interface BetRepository extends JpaRepository<Bet, Long> {
      */
     @Query("SELECT b.sport FROM Bet b WHERE b.profitLoss IS NOT NULL GROUP BY b.sport ORDER BY SUM(b.profitLoss) DESC")
     List<String> findMostProfitableSports();
-}
     
+    // ============================================
+    // KEYSET PAGINATION
+    // Newest first on (placedAt, id). Each page seeks past the last row of
+    // the previous one, so deep pages never scan the rows before them.
+    // ============================================
+    
+    /**
+     * Bets placed before a cursor position
+     * 
+     * @param placedAt - placedAt of the last bet on the previous page
+     * @param id - id of the last bet on the previous page (breaks placedAt ties)
+     * @param limit - Maximum number of bets to return
+     * @return Bets after the cursor, newest first
+     */
+    @Query("SELECT b FROM Bet b WHERE b.placedAt < :placedAt OR (b.placedAt = :placedAt AND b.id < :id) " +
+           "ORDER BY b.placedAt DESC, b.id DESC")
+    List<Bet> findPageBefore(LocalDateTime placedAt, Long id, Limit limit);
+    
+    /**
+     * Bets with one status placed before a cursor position. One status per
+     * query on purpose: with IN (...) the (status, placed_at, id) index no
+     * longer returns rows in page order and MySQL filesorts every match.
+     */
+    @Query("SELECT b FROM Bet b WHERE b.status = :status " +
+           "AND (b.placedAt < :placedAt OR (b.placedAt = :placedAt AND b.id < :id)) " +
+           "ORDER BY b.placedAt DESC, b.id DESC")
+    List<Bet> findPageByStatusBefore(String status, LocalDateTime placedAt, Long id, Limit limit);
+    
+    /**
+     * Bets on a sport placed before a cursor position
+     */
+    @Query("SELECT b FROM Bet b WHERE b.sport = :sport " +
+           "AND (b.placedAt < :placedAt OR (b.placedAt = :placedAt AND b.id < :id)) " +
+           "ORDER BY b.placedAt DESC, b.id DESC")
+    List<Bet> findPageBySportBefore(String sport, LocalDateTime placedAt, Long id, Limit limit);
+    
+    /**
+     * Bets at a sportsbook placed before a cursor position
+     */
+    @Query("SELECT b FROM Bet b WHERE b.sportsbookName = :sportsbookName " +
+           "AND (b.placedAt < :placedAt OR (b.placedAt = :placedAt AND b.id < :id)) " +
+           "ORDER BY b.placedAt DESC, b.id DESC")
+    List<Bet> findPageBySportsbookBefore(String sportsbookName, LocalDateTime placedAt, Long id, Limit limit);
+}
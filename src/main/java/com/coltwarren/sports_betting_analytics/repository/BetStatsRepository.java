@@ -0,0 +1,79 @@
+package com.coltwarren.sports_betting_analytics.repository;
+
+import com.coltwarren.sports_betting_analytics.model.BetStats;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * BetStatsRepository - Data Access Layer for the running bet totals
+ * 
+ * @author Colt Warren
+ * @version 1.0
+ */
+@Repository
+public interface BetStatsRepository extends JpaRepository<BetStats, String> {
+    
+    /**
+     * Lock stats rows for update (SELECT ... FOR UPDATE)
+     * Rows are locked in id order so two concurrent bet writes can't deadlock.
+     * Every write includes the "ALL" row, which sorts first, so rebuild()
+     * can hold off all writers by locking that one row.
+     * 
+     * @param ids - Stats row ids
+     * @return The rows that exist
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM BetStats s WHERE s.id IN :ids ORDER BY s.id")
+    List<BetStats> lockByIds(Collection<String> ids);
+    
+    /**
+     * Which of these stats rows exist (plain read, no locks)
+     */
+    @Query("SELECT s.id FROM BetStats s WHERE s.id IN :ids")
+    List<String> findExistingIds(Collection<String> ids);
+    
+    /**
+     * Create an all-zero stats row unless it already exists. A concurrent
+     * insert of the same row waits for the other transaction and then does
+     * nothing, so a new sport or sportsbook never fails a bet write with a
+     * duplicate key.
+     * 
+     * @return 1 if the row was created, 0 if it was already there
+     */
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO bet_stats (id, scope, scope_key, total_bets, pending_bets, won_bets, " +
+                   "lost_bets, pushed_bets, total_staked, settled_staked, total_profit_loss, updated_at) " +
+                   "VALUES (:id, :scope, :scopeKey, 0, 0, 0, 0, 0, 0, 0, 0, NOW())",
+           nativeQuery = true)
+    int insertIfMissing(String id, String scope, String scopeKey);
+    
+    /**
+     * Delete every stats row except one (used by rebuild, which keeps the locked "ALL" row)
+     */
+    @Modifying
+    @Query("DELETE FROM BetStats s WHERE s.id <> :keepId")
+    int deleteAllExcept(String keepId);
+    
+    /**
+     * All rows of one scope ("SPORT" or "BOOK")
+     * Generated SQL: SELECT * FROM bet_stats WHERE scope = ? ORDER BY scope_key
+     */
+    List<BetStats> findByScopeOrderByScopeKey(String scope);
+    
+    /**
+     * Scope keys with at least one settled bet, most profitable first
+     * 
+     * @param scope - "SPORT" or "BOOK"
+     * @return Sport or sportsbook names ordered by profit
+     */
+    @Query("SELECT s.scopeKey FROM BetStats s WHERE s.scope = :scope AND s.settledStaked > 0 " +
+           "ORDER BY s.totalProfitLoss DESC")
+    List<String> findScopeKeysByProfit(String scope);
+}
@@ -0,0 +1,28 @@
+package com.coltwarren.sports_betting_analytics.repository;
+
+import java.math.BigDecimal;
+
+/**
+ * BetStatusTotals - One row of the per-status bet aggregate
+ * 
+ * Spring Data fills this projection from BetRepository.summarizeByStatus(),
+ * so dashboard totals come from one GROUP BY instead of loading bets.
+ * Sums are null when no bet in the group has a value.
+ * 
+ * @author Colt Warren
+ * @version 1.0
+ */
+public interface BetStatusTotals {
+    
+    String getStatus();
+    
+    Long getBetCount();
+    
+    /** Total stake of every bet in the group */
+    BigDecimal getStaked();
+    
+    /** Stake of the bets that have a profit/loss (the ROI denominator) */
+    BigDecimal getSettledStaked();
+    
+    BigDecimal getProfitLoss();
+}
@@ -1,8 +1,13 @@
 package com.coltwarren.sports_betting_analytics.service;
 
 import com.coltwarren.sports_betting_analytics.service.ai.ClaudeAIService;
+import com.coltwarren.sports_betting_analytics.service.odds.DevigMethod;
+import com.coltwarren.sports_betting_analytics.service.odds.FairOdds;
+import com.coltwarren.sports_betting_analytics.service.odds.FairOddsEngine;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
@@ -14,65 +19,160 @@ public class AdvancedEVCalculator {
     
     private final ClaudeAIService claudeAIService;
     private final KellyCriterionService kellyService;
+    private final FairOddsEngine fairOddsEngine;
     
     @Autowired
-    public AdvancedEVCalculator(ClaudeAIService claudeAIService, KellyCriterionService kellyService) {
+    public AdvancedEVCalculator(ClaudeAIService claudeAIService, KellyCriterionService kellyService,
+                                FairOddsEngine fairOddsEngine) {
         this.claudeAIService = claudeAIService;
         this.kellyService = kellyService;
+        this.fairOddsEngine = fairOddsEngine;
     }
     
     /**
-     * Calculate comprehensive EV analysis with Claude AI
+     * Calculate comprehensive EV analysis.
+     * 
+     * The win probability comes from the no-vig cross-book consensus when the
+     * market is on the board; Claude is only asked when it isn't, or when
+     * {@code includeAI} requests its estimate as an overlay.
      */
     public Map<String, Object> analyzeEV(String sport, String event, String selection, 
-                                         int odds, String betType, String context) {
-        
-        Map<String, Object> result = new HashMap<>();
+                                         int odds, String betType, String context, boolean includeAI) {
         
         try {
+            FairOdds fair = fairOddsEngine.findFairOdds(sport, event, selection, betType, null);
+            if (fair != null && !includeAI) {
+                return buildConsensusAnalysis(sport, event, selection, odds, betType, fair);
+            }
+            
             // Ask Claude AI to estimate win probability
             String prompt = buildEVPrompt(sport, event, selection, odds, betType, context);
             String aiResponse = claudeAIService.callClaudeAPI(prompt);
             
-            // Extract probability from AI response (looking for percentage)
-            double estimatedProbability = extractProbability(aiResponse);
-            
-            // Calculate EV
-            double decimalOdds = americanToDecimal(odds);
-            double ev = (decimalOdds * estimatedProbability) - 1;
-            double evPercentage = ev * 100;
-            
-            // Calculate Kelly recommendation
-            Map<String, Object> kellyData = kellyService.calculateQuarterKelly(odds, estimatedProbability);
-            
-            // Determine if bet is +EV
-            boolean isPositiveEV = ev > 0;
-            
-            // Calculate implied probability from odds
-            double impliedProb = kellyService.calculateImpliedProbability(odds);
-            
-            // Calculate edge (difference between true prob and implied prob)
-            double edge = (estimatedProbability - impliedProb) * 100;
-            
-            result.put("sport", sport);
-            result.put("event", event);
-            result.put("selection", selection);
-            result.put("odds", odds);
-            result.put("betType", betType);
-            result.put("estimatedWinProbability", estimatedProbability * 100);
-            result.put("impliedProbability", impliedProb * 100);
-            result.put("edge", edge);
-            result.put("expectedValue", evPercentage);
-            result.put("isPositiveEV", isPositiveEV);
-            result.put("kellyRecommendation", kellyData.get("recommendedStake"));
-            result.put("kellyPercentage", kellyData.get("kellyPercentage"));
-            result.put("aiAnalysis", aiResponse);
-            result.put("recommendation", generateRecommendation(isPositiveEV, evPercentage, edge));
+            return fair != null
+                ? withAIOverlay(buildConsensusAnalysis(sport, event, selection, odds, betType, fair), aiResponse)
+                : buildEVAnalysis(sport, event, selection, odds, betType, aiResponse);
             
         } catch (Exception e) {
-            result.put("error", "Failed to analyze EV: " + e.getMessage());
+            return evError(e);
         }
+    }
+    
+    /**
+     * Non-blocking variant of analyzeEV. The Kelly sizing reads the bankroll
+     * from the database, so that step is moved off the event loop.
+     */
+    public Mono<Map<String, Object>> analyzeEVAsync(String sport, String event, String selection,
+                                                    int odds, String betType, String context,
+                                                    boolean includeAI) {
+        
+        String prompt = buildEVPrompt(sport, event, selection, odds, betType, context);
+        
+        Mono<Map<String, Object>> aiOnly = Mono.defer(() -> claudeAIService.callClaudeAPIAsync(prompt)
+            .publishOn(Schedulers.boundedElastic())
+            .map(aiResponse -> buildEVAnalysis(sport, event, selection, odds, betType, aiResponse)));
+        
+        return fairOddsEngine.findFairOddsAsync(sport, event, selection, betType, null)
+            .flatMap(fair -> {
+                if (!includeAI) {
+                    return Mono.fromCallable(() -> buildConsensusAnalysis(sport, event, selection, odds, betType, fair))
+                        .subscribeOn(Schedulers.boundedElastic());
+                }
+                return claudeAIService.callClaudeAPIAsync(prompt)
+                    .publishOn(Schedulers.boundedElastic())
+                    .map(aiResponse -> withAIOverlay(
+                        buildConsensusAnalysis(sport, event, selection, odds, betType, fair), aiResponse));
+            })
+            .switchIfEmpty(aiOnly)
+            .onErrorResume(e -> Mono.just(evError(e)));
+    }
+    
+    /**
+     * EV from the no-vig market consensus only (no AI call)
+     */
+    public Map<String, Object> calculateConsensusEV(String sport, String event, String selection,
+                                                    int odds, String betType, DevigMethod method) {
+        FairOdds fair = fairOddsEngine.findFairOdds(sport, event, selection, betType, method);
+        if (fair == null) {
+            Map<String, Object> result = new HashMap<>();
+            result.put("error", "No consensus market found for " + selection);
+            return result;
+        }
+        return buildConsensusAnalysis(sport, event, selection, odds, betType, fair);
+    }
+    
+    private Map<String, Object> buildConsensusAnalysis(String sport, String event, String selection,
+                                                       int odds, String betType, FairOdds fair) {
+        Map<String, Object> result = calculateSimpleEV(odds, fair.fairProbability());
+        result.put("sport", sport);
+        result.put("event", event);
+        result.put("selection", selection);
+        result.put("betType", betType);
+        result.put("estimatedWinProbability", fair.fairProbability() * 100);
+        result.put("probabilitySource", "consensus");
+        result.put("fairOdds", fair);
+        return result;
+    }
+    
+    /**
+     * Add Claude's estimate next to the consensus one without replacing it
+     */
+    private Map<String, Object> withAIOverlay(Map<String, Object> result, String aiResponse) {
+        double aiProbability = extractProbability(aiResponse);
+        double consensusProbability = (Double) result.get("estimatedWinProbability");
+        
+        result.put("aiProbability", aiProbability * 100);
+        result.put("aiVsConsensus", aiProbability * 100 - consensusProbability);
+        result.put("aiAnalysis", aiResponse);
+        return result;
+    }
+    
+    private Map<String, Object> buildEVAnalysis(String sport, String event, String selection,
+                                                int odds, String betType, String aiResponse) {
+        Map<String, Object> result = new HashMap<>();
+        
+        // Extract probability from AI response (looking for percentage)
+        double estimatedProbability = extractProbability(aiResponse);
+        
+        // Calculate EV
+        double decimalOdds = americanToDecimal(odds);
+        double ev = (decimalOdds * estimatedProbability) - 1;
+        double evPercentage = ev * 100;
+        
+        // Calculate Kelly recommendation
+        Map<String, Object> kellyData = kellyService.calculateQuarterKelly(odds, estimatedProbability);
+        
+        // Determine if bet is +EV
+        boolean isPositiveEV = ev > 0;
+        
+        // Calculate implied probability from odds
+        double impliedProb = kellyService.calculateImpliedProbability(odds);
         
+        // Calculate edge (difference between true prob and implied prob)
+        double edge = (estimatedProbability - impliedProb) * 100;
+        
+        result.put("sport", sport);
+        result.put("event", event);
+        result.put("selection", selection);
+        result.put("odds", odds);
+        result.put("betType", betType);
+        result.put("estimatedWinProbability", estimatedProbability * 100);
+        result.put("impliedProbability", impliedProb * 100);
+        result.put("edge", edge);
+        result.put("expectedValue", evPercentage);
+        result.put("isPositiveEV", isPositiveEV);
+        result.put("kellyRecommendation", kellyData.get("recommendedStake"));
+        result.put("kellyPercentage", kellyData.get("kellyPercentage"));
+        result.put("probabilitySource", "ai");
+        result.put("aiAnalysis", aiResponse);
+        result.put("recommendation", generateRecommendation(isPositiveEV, evPercentage, edge));
+        
+        return result;
+    }
+    
+    private Map<String, Object> evError(Throwable e) {
+        Map<String, Object> result = new HashMap<>();
+        result.put("error", "Failed to analyze EV: " + e.getMessage());
         return result;
     }
     
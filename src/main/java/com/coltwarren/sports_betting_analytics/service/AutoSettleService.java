@@ -16,11 +16,13 @@ import java.util.Map;
 public class AutoSettleService {
     
     private final BetRepository betRepository;
+    private final BetService betService;
     private final ESPNApiService espnApiService;
     
     @Autowired
-    public AutoSettleService(BetRepository betRepository, ESPNApiService espnApiService) {
+    public AutoSettleService(BetRepository betRepository, BetService betService, ESPNApiService espnApiService) {
         this.betRepository = betRepository;
+        this.betService = betService;
         this.espnApiService = espnApiService;
     }
     
@@ -30,9 +32,9 @@ public class AutoSettleService {
     public Map<String, Object> autoSettleAllBets() {
         List<Bet> pendingBets = betRepository.findByStatus("PENDING");
         
-        int settled = 0;
         int failed = 0;
         List<String> results = new ArrayList<>();
+        List<BetSettlement> settlements = new ArrayList<>();
         
         for (Bet bet : pendingBets) {
             // Only try to settle bets where the event has already started
@@ -43,10 +45,7 @@ public class AutoSettleService {
                     String outcome = attemptAutoSettle(bet);
                     
                     if (!"PENDING".equals(outcome)) {
-                        bet.setStatus(outcome);
-                        bet.setSettledAt(LocalDateTime.now());
-                        betRepository.save(bet);
-                        settled++;
+                        settlements.add(new BetSettlement(bet.getId(), outcome));
                         results.add(bet.getEventName() + ": " + outcome);
                     }
                 } catch (Exception e) {
@@ -56,11 +55,22 @@ public class AutoSettleService {
             }
         }
         
+        // One transaction per batch of finished bets; settles payout and P/L and keeps the running stats in step
+        // Bets settled or deleted elsewhere since the pending list was read are skipped, not re-settled
+        int settled = 0;
+        int gone = 0;
+        for (int from = 0; from < settlements.size(); from += BetService.MAX_SETTLEMENT_BATCH) {
+            int to = Math.min(from + BetService.MAX_SETTLEMENT_BATCH, settlements.size());
+            Map<String, Object> batch = betService.settleBets(settlements.subList(from, to));
+            settled += (int) batch.get("settled");
+            gone += ((List<?>) batch.get("notFound")).size() + ((List<?>) batch.get("alreadySettled")).size();
+        }
+        
         Map<String, Object> summary = new HashMap<>();
         summary.put("totalPending", pendingBets.size());
         summary.put("settled", settled);
         summary.put("failed", failed);
-        summary.put("stillPending", pendingBets.size() - settled - failed);
+        summary.put("stillPending", pendingBets.size() - settled - failed - gone);
         summary.put("results", results);
         
         return summary;
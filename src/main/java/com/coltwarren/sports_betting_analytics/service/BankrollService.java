@@ -2,6 +2,7 @@ package com.coltwarren.sports_betting_analytics.service;
 
 import com.coltwarren.sports_betting_analytics.repository.BankrollRepository;
 import com.coltwarren.sports_betting_analytics.model.Bankroll;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
@@ -13,6 +14,7 @@ import java.util.List;
 import java.util.Map;
 
 @Service
+@Timed(value = "app.service", histogram = true)
 public class BankrollService {
     
     private final BankrollRepository bankrollRepository;
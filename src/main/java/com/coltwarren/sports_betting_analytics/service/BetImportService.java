@@ -0,0 +1,474 @@
+package com.coltwarren.sports_betting_analytics.service;
+
+import com.coltwarren.sports_betting_analytics.model.Bet;
+import com.coltwarren.sports_betting_analytics.model.BetStats.Contribution;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * BetImportService - Streaming bulk import of bets from CSV or JSON lines
+ *
+ * The body is read one line at a time, so memory stays at one chunk of
+ * bets however large the file. Each row is parsed and validated like a bet
+ * created through the API; a bad row is reported with its line number and
+ * skipped. Valid rows are written with JDBC batch inserts (bypassing the
+ * persistence context, so IDENTITY ids do not force row-by-row inserts)
+ * and committed every {@code bets.import.chunk-size} rows together with
+ * their bet_stats contributions. A chunk the database rejects rolls back
+ * alone and is reported as a line range; earlier chunks stay committed.
+ *
+ * CSV needs a header row; JSON lines are one bet object per line. Field
+ * names match the Bet properties in camelCase or snake_case.
+ *
+ * @author Colt Warren
+ * @version 1.0
+ */
+@Service
+public class BetImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(BetImportService.class);
+
+    public static final String FORMAT_CSV = "csv";
+    public static final String FORMAT_JSONL = "jsonl";
+
+    private static final String INSERT_SQL =
+        "INSERT INTO bets (sport, event_name, bet_type, selection, stake, odds, potential_payout, " +
+        "actual_payout, sportsbook_name, status, profit_loss, placed_at, settled_at, event_start_time, " +
+        "closing_odds, beat_closing_line, notes) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    // Column limits from Bet, checked here so one long value cannot fail a whole chunk
+    private static final Map<String, Integer> MAX_LENGTHS = Map.of(
+        "sport", 50, "eventName", 200, "betType", 50, "selection", 100, "sportsbookName", 50, "notes", 500);
+    private static final Map<String, Digits> DECIMAL_COLUMNS = Map.of(
+        "stake", new Digits(10, 2), "odds", new Digits(6, 2), "closingOdds", new Digits(6, 2));
+    private static final Digits PAYOUT_COLUMN = new Digits(10, 2);
+    
+    /**
+     * DECIMAL(precision, scale) of a Bet column
+     */
+    private record Digits(int precision, int scale) {
+        
+        BigDecimal max() {
+            return BigDecimal.TEN.pow(precision - scale).subtract(BigDecimal.ONE.movePointLeft(scale));
+        }
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final BetStatsService betStatsService;
+    private final JsonMapper jsonMapper = JsonMapper.builder().build();
+    private final int chunkSize;
+    private final int maxErrors;
+
+    @Autowired
+    public BetImportService(JdbcTemplate jdbcTemplate,
+                            TransactionTemplate transactionTemplate,
+                            BetStatsService betStatsService,
+                            @Value("${bets.import.chunk-size:5000}") int chunkSize,
+                            @Value("${bets.import.max-errors:1000}") int maxErrors) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.betStatsService = betStatsService;
+        this.chunkSize = Math.max(1, chunkSize);
+        this.maxErrors = Math.max(0, maxErrors);
+    }
+
+    /**
+     * Import every row of the body
+     *
+     * @param body - CSV with a header row, or one JSON object per line (UTF-8)
+     * @param format - "csv" or "jsonl"
+     * @return Counts, per-row errors (capped at bets.import.max-errors) and throughput
+     * @throws IllegalArgumentException for an unknown format or a CSV without a header
+     */
+    public Map<String, Object> importBets(InputStream body, String format) throws IOException {
+        String normalized = format == null ? FORMAT_CSV : format.trim().toLowerCase(Locale.ROOT);
+        if (!normalized.equals(FORMAT_CSV) && !normalized.equals(FORMAT_JSONL)) {
+            throw new IllegalArgumentException("Unknown import format: " + format);
+        }
+
+        Run run = new Run(normalized);
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+            List<String> header = null;
+            String line;
+            int lineNumber = 0;
+
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (lineNumber == 1 && line.startsWith("\uFEFF")) {
+                    line = line.substring(1);
+                }
+                if (line.isBlank()) continue;
+
+                if (run.format.equals(FORMAT_CSV) && header == null) {
+                    header = parseCsvLine(line).stream().map(BetImportService::fieldName).toList();
+                    continue;
+                }
+
+                run.rowsRead++;
+                try {
+                    Map<String, String> fields = run.format.equals(FORMAT_CSV)
+                        ? csvFields(header, parseCsvLine(line))
+                        : jsonFields(line);
+                    run.add(lineNumber, toBet(fields));
+                } catch (RuntimeException e) {
+                    run.error(lineNumber, e.getMessage());
+                }
+
+                if (run.pending.size() >= chunkSize) {
+                    flush(run);
+                }
+            }
+
+            if (run.format.equals(FORMAT_CSV) && header == null) {
+                throw new IllegalArgumentException("CSV import needs a header row");
+            }
+            flush(run);
+        }
+
+        log.info("Imported {} of {} {} rows ({} failed) in {} ms",
+            run.imported, run.rowsRead, run.format, run.failed, run.elapsedMs());
+        return run.toResult();
+    }
+
+    // ============================================
+    // WRITING
+    // ============================================
+
+    /**
+     * Insert the pending chunk and its stats contributions in one transaction
+     */
+    private void flush(Run run) {
+        if (run.pending.isEmpty()) {
+            return;
+        }
+        List<Bet> bets = run.pending;
+        int firstLine = run.pendingLines.get(0);
+        int lastLine = run.pendingLines.get(run.pendingLines.size() - 1);
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.batchUpdate(INSERT_SQL, bets, bets.size(), BetImportService::bind);
+                betStatsService.recordCreated(bets.stream().map(Contribution::of).toList());
+            });
+            run.imported += bets.size();
+        } catch (RuntimeException e) {
+            log.warn("Import chunk at lines {}-{} rolled back: {}", firstLine, lastLine, e.getMessage());
+            run.failed += bets.size();
+            run.report(firstLine, "Lines " + firstLine + "-" + lastLine + " (" + bets.size() +
+                " rows) not imported: " + rootMessage(e));
+        }
+
+        run.pending = new ArrayList<>(chunkSize);
+        run.pendingLines = new ArrayList<>(chunkSize);
+    }
+
+    private static void bind(PreparedStatement ps, Bet bet) throws SQLException {
+        ps.setString(1, bet.getSport());
+        ps.setString(2, bet.getEventName());
+        ps.setString(3, bet.getBetType());
+        ps.setString(4, bet.getSelection());
+        ps.setBigDecimal(5, bet.getStake());
+        ps.setBigDecimal(6, bet.getOdds());
+        ps.setBigDecimal(7, bet.getPotentialPayout());
+        ps.setBigDecimal(8, bet.getActualPayout());
+        ps.setString(9, bet.getSportsbookName());
+        ps.setString(10, bet.getStatus());
+        ps.setBigDecimal(11, bet.getProfitLoss());
+        ps.setObject(12, bet.getPlacedAt());
+        ps.setObject(13, bet.getSettledAt());
+        ps.setObject(14, bet.getEventStartTime());
+        ps.setBigDecimal(15, bet.getClosingOdds());
+        if (bet.getBeatClosingLine() == null) {
+            ps.setNull(16, Types.BOOLEAN);
+        } else {
+            ps.setBoolean(16, bet.getBeatClosingLine());
+        }
+        ps.setString(17, bet.getNotes());
+    }
+
+    private static String rootMessage(Throwable e) {
+        Throwable root = e;
+        while (root.getCause() != null && root.getCause() != root) {
+            root = root.getCause();
+        }
+        return root.getMessage();
+    }
+
+    // ============================================
+    // ROW PARSING AND VALIDATION
+    // ============================================
+
+    /**
+     * Build a bet from one row's fields, the same way the API would
+     *
+     * @throws IllegalArgumentException naming the first bad field
+     */
+    static Bet toBet(Map<String, String> fields) {
+        BigDecimal stake = decimal(fields, "stake");
+        BigDecimal odds = decimal(fields, "odds");
+        if (stake == null || stake.compareTo(BigDecimal.ZERO) <= 0) {
+            throw new IllegalArgumentException("Stake must be greater than zero");
+        }
+        if (odds == null || odds.compareTo(BigDecimal.ZERO) == 0) {
+            throw new IllegalArgumentException("Odds must be non-zero American odds");
+        }
+
+        Bet bet = new Bet(text(fields, "sport"), text(fields, "eventName"), text(fields, "betType"),
+                          text(fields, "selection"), stake, odds, text(fields, "sportsbookName"));
+        BetService.validateBet(bet);
+        if (bet.getPotentialPayout().abs().compareTo(PAYOUT_COLUMN.max()) > 0) {
+            throw new IllegalArgumentException("Potential payout " + bet.getPotentialPayout().toPlainString() +
+                " is larger than " + PAYOUT_COLUMN.max().toPlainString());
+        }
+
+        LocalDateTime placedAt = dateTime(fields, "placedAt");
+        if (placedAt != null) {
+            bet.setPlacedAt(placedAt);
+        }
+        bet.setEventStartTime(dateTime(fields, "eventStartTime"));
+        bet.setNotes(text(fields, "notes"));
+
+        String status = text(fields, "status");
+        switch (status == null ? "PENDING" : status.toUpperCase(Locale.ROOT)) {
+            case "PENDING" -> { }
+            case "WON" -> bet.markAsWon();
+            case "LOST" -> bet.markAsLost();
+            case "PUSH" -> bet.markAsPush();
+            default -> throw new IllegalArgumentException("Unknown status: " + status);
+        }
+        LocalDateTime settledAt = dateTime(fields, "settledAt");
+        if (settledAt != null && bet.getSettledAt() != null) {
+            bet.setSettledAt(settledAt);
+        }
+
+        BigDecimal closingOdds = decimal(fields, "closingOdds");
+        if (closingOdds != null) {
+            bet.setClosingOdds(closingOdds);
+            bet.checkBeatClosingLine();
+        }
+
+        for (Map.Entry<String, Integer> limit : MAX_LENGTHS.entrySet()) {
+            String value = fields.get(limit.getKey());
+            if (value != null && value.length() > limit.getValue()) {
+                throw new IllegalArgumentException(limit.getKey() + " is longer than " + limit.getValue() + " characters");
+            }
+        }
+        return bet;
+    }
+
+    private static String text(Map<String, String> fields, String name) {
+        String value = fields.get(name);
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+
+    private static BigDecimal decimal(Map<String, String> fields, String name) {
+        String value = text(fields, name);
+        if (value == null) {
+            return null;
+        }
+        BigDecimal number;
+        try {
+            number = new BigDecimal(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(name + " is not a number: " + value);
+        }
+        
+        Digits digits = DECIMAL_COLUMNS.get(name);
+        if (digits != null) {
+            if (number.stripTrailingZeros().scale() > digits.scale()) {
+                throw new IllegalArgumentException(name + " has more than " + digits.scale() + " decimal places: " + value);
+            }
+            if (number.abs().compareTo(digits.max()) > 0) {
+                String max = digits.max().toPlainString();
+                throw new IllegalArgumentException(name + " must be between -" + max + " and " + max + ": " + value);
+            }
+        }
+        return number;
+    }
+
+    /**
+     * ISO date-time ("2025-01-05T19:30:00"), the same with a space, or a bare date (midnight)
+     */
+    private static LocalDateTime dateTime(Map<String, String> fields, String name) {
+        String value = text(fields, name);
+        if (value == null) {
+            return null;
+        }
+        try {
+            if (value.length() == 10) {
+                return LocalDate.parse(value).atStartOfDay();
+            }
+            return LocalDateTime.parse(value.replace(' ', 'T'));
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException(name + " is not a date-time: " + value);
+        }
+    }
+
+    /**
+     * "event_name", "Event Name" and "eventName" all map to eventName; "sportsbook" to sportsbookName
+     */
+    static String fieldName(String raw) {
+        String compact = raw.trim().replace("_", "").replace(" ", "").toLowerCase(Locale.ROOT);
+        return switch (compact) {
+            case "eventname" -> "eventName";
+            case "bettype" -> "betType";
+            case "sportsbook", "sportsbookname", "book" -> "sportsbookName";
+            case "placedat" -> "placedAt";
+            case "settledat" -> "settledAt";
+            case "eventstarttime" -> "eventStartTime";
+            case "closingodds" -> "closingOdds";
+            default -> compact;
+        };
+    }
+
+    private static Map<String, String> csvFields(List<String> header, List<String> values) {
+        if (values.size() > header.size()) {
+            throw new IllegalArgumentException("Expected " + header.size() + " columns, found " + values.size());
+        }
+        Map<String, String> fields = new HashMap<>();
+        for (int i = 0; i < values.size(); i++) {
+            fields.put(header.get(i), values.get(i));
+        }
+        return fields;
+    }
+
+    private Map<String, String> jsonFields(String line) {
+        Map<?, ?> object;
+        try {
+            object = jsonMapper.readValue(line, Map.class);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Not a JSON object");
+        }
+        Map<String, String> fields = new HashMap<>();
+        object.forEach((key, value) -> {
+            if (value != null) {
+                fields.put(fieldName(String.valueOf(key)), String.valueOf(value));
+            }
+        });
+        return fields;
+    }
+
+    /**
+     * Split one CSV record; fields may be quoted, with "" for a literal quote.
+     * Records span a single line (no embedded newlines).
+     */
+    static List<String> parseCsvLine(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quoted field");
+        }
+        values.add(field.toString());
+        return values;
+    }
+
+    // ============================================
+    // RUN STATE
+    // ============================================
+
+    /**
+     * Counters and the pending chunk of one import
+     */
+    private final class Run {
+        private final String format;
+        private final long startedAt = System.nanoTime();
+        private final List<Map<String, Object>> errors = new ArrayList<>();
+        private List<Bet> pending = new ArrayList<>(chunkSize);
+        private List<Integer> pendingLines = new ArrayList<>(chunkSize);
+        private long rowsRead;
+        private long imported;
+        private long failed;
+        private boolean errorsTruncated;
+
+        private Run(String format) {
+            this.format = format;
+        }
+
+        private void add(int line, Bet bet) {
+            pending.add(bet);
+            pendingLines.add(line);
+        }
+
+        private void error(int line, String message) {
+            failed++;
+            report(line, message);
+        }
+
+        private void report(int line, String message) {
+            if (errors.size() >= maxErrors) {
+                errorsTruncated = true;
+                return;
+            }
+            Map<String, Object> error = new LinkedHashMap<>();
+            error.put("line", line);
+            error.put("message", message);
+            errors.add(error);
+        }
+
+        private long elapsedMs() {
+            return (System.nanoTime() - startedAt) / 1_000_000;
+        }
+
+        private Map<String, Object> toResult() {
+            long elapsedMs = elapsedMs();
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("format", format);
+            result.put("rowsRead", rowsRead);
+            result.put("imported", imported);
+            result.put("failed", failed);
+            result.put("elapsedMs", elapsedMs);
+            result.put("rowsPerSecond", elapsedMs > 0 ? imported * 1000 / elapsedMs : imported);
+            result.put("errors", errors);
+            result.put("errorsTruncated", errorsTruncated);
+            return result;
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.coltwarren.sports_betting_analytics.service;
+
+import com.coltwarren.sports_betting_analytics.model.Bet;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * BetPage - One page of bets, newest first, plus the cursor for the next (older) page
+ * 
+ * Pages are keyset-paginated on (placedAt, id): the cursor carries the last
+ * row's sort key and the next query seeks past it instead of skipping rows
+ * with OFFSET, so page 1,000 costs the same as page 1 and bets added in the
+ * meantime never shift a page.
+ * 
+ * @author Colt Warren
+ * @version 1.0
+ */
+public record BetPage(List<Bet> bets, String nextCursor, boolean hasMore) {
+    
+    // Page order: placedAt descending, id descending on ties
+    public static final Comparator<Bet> NEWEST_FIRST =
+        Comparator.comparing(Bet::getPlacedAt).thenComparing(Bet::getId).reversed();
+    
+    /**
+     * Build a page from a query that fetched one row more than the page size
+     */
+    public static BetPage of(List<Bet> rows, int size) {
+        boolean hasMore = rows.size() > size;
+        List<Bet> bets = hasMore ? rows.subList(0, size) : rows;
+        String nextCursor = hasMore ? Cursor.of(bets.get(bets.size() - 1)).encode() : null;
+        return new BetPage(List.copyOf(bets), nextCursor, hasMore);
+    }
+    
+    /**
+     * Position after the last bet of a page; opaque to clients
+     */
+    public record Cursor(LocalDateTime placedAt, long id) {
+        
+        // Sorts after every real bet, so the first page uses the same seek query as the rest
+        public static final Cursor FIRST = new Cursor(LocalDateTime.of(9999, 12, 31, 23, 59, 59), Long.MAX_VALUE);
+        
+        public static Cursor of(Bet bet) {
+            return new Cursor(bet.getPlacedAt(), bet.getId());
+        }
+        
+        public String encode() {
+            String key = placedAt + "|" + id;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(key.getBytes(StandardCharsets.UTF_8));
+        }
+        
+        /**
+         * Decode a cursor from a request; a missing cursor means the first page
+         * 
+         * @throws IllegalArgumentException if the cursor was not produced by encode()
+         */
+        public static Cursor decode(String cursor) {
+            if (cursor == null || cursor.isBlank()) {
+                return FIRST;
+            }
+            try {
+                String key = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                int separator = key.indexOf('|');
+                return new Cursor(LocalDateTime.parse(key.substring(0, separator)),
+                                  Long.parseLong(key.substring(separator + 1)));
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Invalid cursor: " + cursor);
+            }
+        }
+    }
+}
@@ -1,15 +1,23 @@
 package com.coltwarren.sports_betting_analytics.service;
 
 import com.coltwarren.sports_betting_analytics.model.Bet;
+import com.coltwarren.sports_betting_analytics.model.BetStats;
 import com.coltwarren.sports_betting_analytics.repository.BetRepository;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.BiFunction;
 
 /**
  * BetService - Business Logic Layer
@@ -24,18 +32,25 @@ import java.util.Optional;
  * @version 1.0
  */
 @Service
+@Timed(value = "app.service", histogram = true)
 @Transactional
 public class BetService {
     
+    private static final List<String> SETTLED_STATUSES = List.of("WON", "LOST", "PUSH");
+    public static final int MAX_PAGE_SIZE = 200;
+    public static final int MAX_SETTLEMENT_BATCH = 1000;
+    
     private final BetRepository betRepository;
+    private final BetStatsService betStatsService;
     
     /**
      * Constructor injection (recommended over @Autowired on fields)
-     * Spring automatically injects BetRepository
+     * Spring automatically injects BetRepository and BetStatsService
      */
     @Autowired
-    public BetService(BetRepository betRepository) {
+    public BetService(BetRepository betRepository, BetStatsService betStatsService) {
         this.betRepository = betRepository;
+        this.betStatsService = betStatsService;
     }
     
     // ============================================
@@ -53,7 +68,9 @@ public class BetService {
         validateBet(bet);
         
         // Save to database
-        return betRepository.save(bet);
+        Bet saved = betRepository.save(bet);
+        betStatsService.recordCreated(saved);
+        return saved;
     }
     
     /**
@@ -72,7 +89,9 @@ public class BetService {
                         BigDecimal stake, BigDecimal odds, String sportsbookName) {
         
         Bet bet = new Bet(sport, eventName, betType, selection, stake, odds, sportsbookName);
-        return betRepository.save(bet);
+        Bet saved = betRepository.save(bet);
+        betStatsService.recordCreated(saved);
+        return saved;
     }
     
     // ============================================
@@ -113,7 +132,7 @@ public class BetService {
      * @return List of settled bets
      */
     public List<Bet> getSettledBets() {
-        return betRepository.findByStatusIn(List.of("WON", "LOST", "PUSH"));
+        return betRepository.findByStatusIn(SETTLED_STATUSES);
     }
     
     /**
@@ -166,6 +185,73 @@ public class BetService {
         return betRepository.findRecentBets();
     }
     
+    // ============================================
+    // PAGED READ OPERATIONS
+    // Keyset pages, newest first; pass the previous page's nextCursor for the next one
+    // ============================================
+    
+    /**
+     * Get one page of all bets
+     * 
+     * @param cursor - nextCursor of the previous page, or null for the first page
+     * @param size - Page size (capped at MAX_PAGE_SIZE)
+     * @return Page of bets plus the cursor for the next page
+     * @throws IllegalArgumentException if the cursor is invalid
+     */
+    public BetPage getBetsPage(String cursor, int size) {
+        return page(cursor, size, (after, limit) ->
+            betRepository.findPageBefore(after.placedAt(), after.id(), limit));
+    }
+    
+    /**
+     * Get one page of pending bets
+     */
+    public BetPage getPendingBetsPage(String cursor, int size) {
+        return page(cursor, size, (after, limit) ->
+            betRepository.findPageByStatusBefore("PENDING", after.placedAt(), after.id(), limit));
+    }
+    
+    /**
+     * Get one page of settled bets (won, lost, pushed).
+     * Seeks each status on its own index range and merges the three short
+     * lists, so a deep page reads at most 3 x (size + 1) rows.
+     */
+    public BetPage getSettledBetsPage(String cursor, int size) {
+        return page(cursor, size, (after, limit) -> {
+            List<Bet> rows = new ArrayList<>(limit.max() * SETTLED_STATUSES.size());
+            for (String status : SETTLED_STATUSES) {
+                rows.addAll(betRepository.findPageByStatusBefore(status, after.placedAt(), after.id(), limit));
+            }
+            rows.sort(BetPage.NEWEST_FIRST);
+            return rows.size() > limit.max() ? rows.subList(0, limit.max()) : rows;
+        });
+    }
+    
+    /**
+     * Get one page of bets for a specific sport
+     */
+    public BetPage getBetsBySportPage(String sport, String cursor, int size) {
+        return page(cursor, size, (after, limit) ->
+            betRepository.findPageBySportBefore(sport, after.placedAt(), after.id(), limit));
+    }
+    
+    /**
+     * Get one page of bets from a specific sportsbook
+     */
+    public BetPage getBetsBySportsbookPage(String sportsbookName, String cursor, int size) {
+        return page(cursor, size, (after, limit) ->
+            betRepository.findPageBySportsbookBefore(sportsbookName, after.placedAt(), after.id(), limit));
+    }
+    
+    /**
+     * Fetch one row past the page so we know whether another page follows
+     */
+    private BetPage page(String cursor, int size, BiFunction<BetPage.Cursor, Limit, List<Bet>> query) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        List<Bet> rows = query.apply(BetPage.Cursor.decode(cursor), Limit.of(pageSize + 1));
+        return BetPage.of(rows, pageSize);
+    }
+    
     // ============================================
     // UPDATE OPERATIONS
     // ============================================
@@ -179,8 +265,9 @@ public class BetService {
      * @throws RuntimeException if bet not found
      */
     public Bet updateBet(Long id, Bet updatedBet) {
-        Bet existingBet = betRepository.findById(id)
+        Bet existingBet = betRepository.findByIdForUpdate(id)
             .orElseThrow(() -> new RuntimeException("Bet not found with id: " + id));
+        BetStats.Contribution before = BetStats.Contribution.of(existingBet);
         
         // Update fields (only if not null)
         if (updatedBet.getSport() != null) existingBet.setSport(updatedBet.getSport());
@@ -192,7 +279,9 @@ public class BetService {
         if (updatedBet.getSportsbookName() != null) existingBet.setSportsbookName(updatedBet.getSportsbookName());
         if (updatedBet.getNotes() != null) existingBet.setNotes(updatedBet.getNotes());
         
-        return betRepository.save(existingBet);
+        Bet saved = betRepository.save(existingBet);
+        betStatsService.recordChanged(before, saved);
+        return saved;
     }
     
     /**
@@ -203,11 +292,14 @@ public class BetService {
      * @throws RuntimeException if bet not found
      */
     public Bet markBetAsWon(Long id) {
-        Bet bet = betRepository.findById(id)
+        Bet bet = betRepository.findByIdForUpdate(id)
             .orElseThrow(() -> new RuntimeException("Bet not found with id: " + id));
         
+        BetStats.Contribution before = BetStats.Contribution.of(bet);
         bet.markAsWon();
-        return betRepository.save(bet);
+        Bet saved = betRepository.save(bet);
+        betStatsService.recordChanged(before, saved);
+        return saved;
     }
     
     /**
@@ -218,11 +310,14 @@ public class BetService {
      * @throws RuntimeException if bet not found
      */
     public Bet markBetAsLost(Long id) {
-        Bet bet = betRepository.findById(id)
+        Bet bet = betRepository.findByIdForUpdate(id)
             .orElseThrow(() -> new RuntimeException("Bet not found with id: " + id));
         
+        BetStats.Contribution before = BetStats.Contribution.of(bet);
         bet.markAsLost();
-        return betRepository.save(bet);
+        Bet saved = betRepository.save(bet);
+        betStatsService.recordChanged(before, saved);
+        return saved;
     }
     
     /**
@@ -233,11 +328,103 @@ public class BetService {
      * @throws RuntimeException if bet not found
      */
     public Bet markBetAsPush(Long id) {
-        Bet bet = betRepository.findById(id)
+        Bet bet = betRepository.findByIdForUpdate(id)
             .orElseThrow(() -> new RuntimeException("Bet not found with id: " + id));
         
+        BetStats.Contribution before = BetStats.Contribution.of(bet);
         bet.markAsPush();
-        return betRepository.save(bet);
+        Bet saved = betRepository.save(bet);
+        betStatsService.recordChanged(before, saved);
+        return saved;
+    }
+    
+    /**
+     * Settle a bet with a result from a feed
+     * 
+     * @param id - Bet ID
+     * @param outcome - "WON", "LOST" or "PUSH"
+     * @return Updated bet
+     * @throws IllegalArgumentException if the outcome is not a settlement
+     */
+    public Bet settleBet(Long id, String outcome) {
+        return switch (outcome) {
+            case "WON" -> markBetAsWon(id);
+            case "LOST" -> markBetAsLost(id);
+            case "PUSH" -> markBetAsPush(id);
+            default -> throw new IllegalArgumentException("Not a settlement outcome: " + outcome);
+        };
+    }
+    
+    /**
+     * Settle many bets in one transaction: one query loads and locks them all,
+     * payout and P/L are worked out in memory, Hibernate flushes the updates as
+     * JDBC batches, and the running stats are adjusted once for the whole slate.
+     * Only PENDING bets are settled; a bet that was settled in the meantime is
+     * left as it is and reported instead.
+     * 
+     * @param settlements - Bet ID, outcome and optional closing odds per bet
+     * @return settled (count), bets (updated), notFound (IDs with no bet) and
+     *         alreadySettled (IDs of bets that were no longer PENDING), the last two skipped
+     * @throws IllegalArgumentException for a bad outcome, a repeated ID or more
+     *         than MAX_SETTLEMENT_BATCH entries; nothing is settled in that case
+     */
+    public Map<String, Object> settleBets(List<BetSettlement> settlements) {
+        if (settlements.size() > MAX_SETTLEMENT_BATCH) {
+            throw new IllegalArgumentException("At most " + MAX_SETTLEMENT_BATCH + " bets per settlement batch");
+        }
+        
+        Map<Long, BetSettlement> byId = new LinkedHashMap<>();
+        for (BetSettlement settlement : settlements) {
+            if (settlement.id() == null) {
+                throw new IllegalArgumentException("Settlement is missing a bet id");
+            }
+            settlementOutcome(settlement);
+            if (byId.put(settlement.id(), settlement) != null) {
+                throw new IllegalArgumentException("Bet " + settlement.id() + " is listed more than once");
+            }
+        }
+        
+        List<Bet> bets = new ArrayList<>(byId.size());
+        List<BetStats.Contribution> before = new ArrayList<>(byId.size());
+        List<Long> alreadySettled = new ArrayList<>();
+        
+        for (Bet bet : betRepository.findAllByIdForUpdate(byId.keySet())) {
+            BetSettlement settlement = byId.remove(bet.getId());
+            if (!"PENDING".equals(bet.getStatus())) {
+                alreadySettled.add(bet.getId());
+                continue;
+            }
+            bets.add(bet);
+            before.add(BetStats.Contribution.of(bet));
+            switch (settlementOutcome(settlement)) {
+                case "WON" -> bet.markAsWon();
+                case "LOST" -> bet.markAsLost();
+                default -> bet.markAsPush();
+            }
+            if (settlement.closingOdds() != null) {
+                bet.setClosingOdds(settlement.closingOdds());
+                bet.checkBeatClosingLine();
+            }
+        }
+        
+        List<Bet> saved = betRepository.saveAll(bets);
+        betStatsService.recordChanged(before, saved);
+        
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("settled", saved.size());
+        result.put("bets", saved);
+        result.put("notFound", List.copyOf(byId.keySet())); // whatever findAllByIdForUpdate did not return
+        result.put("alreadySettled", alreadySettled);
+        return result;
+    }
+    
+    private static String settlementOutcome(BetSettlement settlement) {
+        String outcome = settlement.outcome() == null ? "" : settlement.outcome().trim().toUpperCase(Locale.ROOT);
+        if (!SETTLED_STATUSES.contains(outcome)) {
+            throw new IllegalArgumentException("Not a settlement outcome for bet " + settlement.id() + ": "
+                + settlement.outcome());
+        }
+        return outcome;
     }
     
     /**
@@ -271,6 +458,31 @@ public class BetService {
         return betRepository.save(bet);
     }
     
+    /**
+     * Set closing odds on many bets in one transaction.
+     * Loads and locks them with one query and lets Hibernate flush the updates as a JDBC batch.
+     * The lock keeps a settlement running at the same time from being overwritten by the
+     * PENDING row read here.
+     * 
+     * @param closingOddsByBetId - Closing odds keyed by bet ID
+     * @return Bets that were updated (bets that already had closing odds or are no longer
+     *         PENDING are skipped)
+     */
+    public List<Bet> applyClosingOdds(Map<Long, BigDecimal> closingOddsByBetId) {
+        List<Bet> updated = new ArrayList<>();
+        
+        for (Bet bet : betRepository.findAllByIdForUpdate(closingOddsByBetId.keySet())) {
+            if (bet.getClosingOdds() != null || !"PENDING".equals(bet.getStatus())) {
+                continue;
+            }
+            bet.setClosingOdds(closingOddsByBetId.get(bet.getId()));
+            bet.checkBeatClosingLine();
+            updated.add(bet);
+        }
+        
+        return betRepository.saveAll(updated);
+    }
+    
     // ============================================
     // DELETE OPERATIONS
     // ============================================
@@ -282,10 +494,10 @@ public class BetService {
      * @throws RuntimeException if bet not found
      */
     public void deleteBet(Long id) {
-        if (!betRepository.existsById(id)) {
-            throw new RuntimeException("Bet not found with id: " + id);
-        }
-        betRepository.deleteById(id);
+        Bet bet = betRepository.findByIdForUpdate(id)
+            .orElseThrow(() -> new RuntimeException("Bet not found with id: " + id));
+        betRepository.delete(bet);
+        betStatsService.recordDeleted(BetStats.Contribution.of(bet));
     }
     
     /**
@@ -296,11 +508,13 @@ public class BetService {
     public long deleteAllBets() {
         long count = betRepository.count();
         betRepository.deleteAll();
+        betStatsService.rebuild();
         return count;
     }
     
     // ============================================
     // ANALYTICS & STATISTICS
+    // Totals come from the running bet_stats rows (see BetStatsService)
     // ============================================
     
     /**
@@ -309,8 +523,7 @@ public class BetService {
      * @return Total profit (positive) or loss (negative)
      */
     public BigDecimal calculateTotalProfitLoss() {
-        BigDecimal total = betRepository.calculateTotalProfitLoss();
-        return total != null ? total : BigDecimal.ZERO;
+        return betStatsService.getOverall().getTotalProfitLoss();
     }
     
     /**
@@ -320,8 +533,7 @@ public class BetService {
      * @return Profit/loss for that sportsbook
      */
     public BigDecimal calculateProfitLossBySportsbook(String sportsbookName) {
-        BigDecimal total = betRepository.calculateProfitLossBySportsbook(sportsbookName);
-        return total != null ? total : BigDecimal.ZERO;
+        return betStatsService.getForSportsbook(sportsbookName).getTotalProfitLoss();
     }
     
     /**
@@ -331,8 +543,7 @@ public class BetService {
      * @return Profit/loss for that sport
      */
     public BigDecimal calculateProfitLossBySport(String sport) {
-        BigDecimal total = betRepository.calculateProfitLossBySport(sport);
-        return total != null ? total : BigDecimal.ZERO;
+        return betStatsService.getForSport(sport).getTotalProfitLoss();
     }
     
     /**
@@ -341,8 +552,7 @@ public class BetService {
      * @return Win rate as percentage (0-100)
      */
     public Double calculateWinRate() {
-        Double winRate = betRepository.calculateWinRate();
-        return winRate != null ? winRate * 100 : 0.0;
+        return betStatsService.getOverall().getWinRate();
     }
     
     /**
@@ -351,8 +561,7 @@ public class BetService {
      * @return ROI as percentage (e.g., 5.0 = 5%)
      */
     public Double calculateROI() {
-        Double roi = betRepository.calculateROI();
-        return roi != null ? roi * 100 : 0.0;
+        return betStatsService.getOverall().getRoi();
     }
     
     /**
@@ -361,8 +570,7 @@ public class BetService {
      * @return Total stake across all bets
      */
     public BigDecimal calculateTotalStaked() {
-        BigDecimal total = betRepository.calculateTotalStaked();
-        return total != null ? total : BigDecimal.ZERO;
+        return betStatsService.getOverall().getTotalStaked();
     }
     
     /**
@@ -391,7 +599,7 @@ public class BetService {
      * @return List of sportsbooks ordered by profit (best first)
      */
     public List<String> getBestPerformingSportsbooks() {
-        return betRepository.findBestPerformingSportsbooks();
+        return betStatsService.getSportsbooksByProfit();
     }
     
     /**
@@ -400,26 +608,18 @@ public class BetService {
      * @return List of sports ordered by profit (best first)
      */
     public List<String> getMostProfitableSports() {
-        return betRepository.findMostProfitableSports();
+        return betStatsService.getSportsByProfit();
     }
     
     /**
      * Get comprehensive betting statistics
+     * Read from the running totals (one primary-key lookup); the figures match
+     * the individual calculate/count methods
      * 
      * @return BettingStats object with all statistics
      */
     public BettingStats getComprehensiveStats() {
-        return new BettingStats(
-            betRepository.count(),
-            countBetsByStatus("PENDING"),
-            countBetsByStatus("WON"),
-            countBetsByStatus("LOST"),
-            countBetsByStatus("PUSH"),
-            calculateTotalStaked(),
-            calculateTotalProfitLoss(),
-            calculateWinRate(),
-            calculateROI()
-        );
+        return BettingStats.from(betStatsService.getOverall());
     }
     
     // ============================================
@@ -432,7 +632,7 @@ public class BetService {
      * @param bet - Bet to validate
      * @throws IllegalArgumentException if validation fails
      */
-    private void validateBet(Bet bet) {
+    static void validateBet(Bet bet) {
         if (bet.getStake() == null || bet.getStake().compareTo(BigDecimal.ZERO) <= 0) {
             throw new IllegalArgumentException("Stake must be greater than zero");
         }
@@ -494,6 +694,16 @@ public class BetService {
             this.roi = roi;
         }
         
+        /**
+         * Stats from a running-totals row
+         * Win rate and ROI are percentages, like calculateWinRate() and calculateROI()
+         */
+        public static BettingStats from(BetStats stats) {
+            return new BettingStats(stats.getTotalBets(), stats.getPendingBets(), stats.getWonBets(),
+                stats.getLostBets(), stats.getPushedBets(), stats.getTotalStaked(), stats.getTotalProfitLoss(),
+                stats.getWinRate(), stats.getRoi());
+        }
+        
         // Getters
         public long getTotalBets() { return totalBets; }
         public long getPendingBets() { return pendingBets; }
@@ -0,0 +1,21 @@
+package com.coltwarren.sports_betting_analytics.service;
+
+import java.math.BigDecimal;
+
+/**
+ * BetSettlement - One line of a batch settlement: which bet, how it ended,
+ * and optionally the closing line captured at kickoff
+ *
+ * @param id - Bet ID
+ * @param outcome - "WON", "LOST" or "PUSH" (any case)
+ * @param closingOdds - Closing American odds, or null to leave them unchanged
+ *
+ * @author Colt Warren
+ * @version 1.0
+ */
+public record BetSettlement(Long id, String outcome, BigDecimal closingOdds) {
+
+    public BetSettlement(Long id, String outcome) {
+        this(id, outcome, null);
+    }
+}
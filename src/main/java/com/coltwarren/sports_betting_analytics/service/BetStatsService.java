@@ -0,0 +1,259 @@
+package com.coltwarren.sports_betting_analytics.service;
+
+import com.coltwarren.sports_betting_analytics.model.Bet;
+import com.coltwarren.sports_betting_analytics.model.BetStats;
+import com.coltwarren.sports_betting_analytics.model.BetStats.Contribution;
+import com.coltwarren.sports_betting_analytics.repository.BetGroupTotals;
+import com.coltwarren.sports_betting_analytics.repository.BetRepository;
+import com.coltwarren.sports_betting_analytics.repository.BetStatsRepository;
+import com.coltwarren.sports_betting_analytics.repository.BetStatusTotals;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * BetStatsService - Running betting totals, overall, per sport and per sportsbook
+ * 
+ * Every bet write in BetService locks the bet row and reports its
+ * contribution before and after the change; the affected bet_stats rows are
+ * created if missing, locked, adjusted and saved in the same transaction, so
+ * the totals commit or roll back with the bet itself. Reads are primary-key
+ * lookups. rebuild() recomputes every row from the bets table if the totals
+ * are ever in doubt, holding the "ALL" row lock so no write interleaves.
+ * 
+ * @author Colt Warren
+ * @version 1.0
+ */
+@Service
+@Transactional
+public class BetStatsService {
+    
+    private static final Logger log = LoggerFactory.getLogger(BetStatsService.class);
+    
+    private final BetStatsRepository statsRepository;
+    private final BetRepository betRepository;
+    
+    @Autowired
+    public BetStatsService(BetStatsRepository statsRepository, BetRepository betRepository) {
+        this.statsRepository = statsRepository;
+        this.betRepository = betRepository;
+    }
+    
+    // ============================================
+    // UPDATES (called inside the bet's transaction)
+    // ============================================
+    
+    public void recordCreated(Bet bet) {
+        apply(List.of(), List.of(Contribution.of(bet)));
+    }
+    
+    /**
+     * Bets inserted in bulk (one lock and one save per stats row, however many bets)
+     */
+    public void recordCreated(Collection<Contribution> bets) {
+        apply(List.of(), bets);
+    }
+    
+    /**
+     * @param before - Contribution captured before the bet was modified
+     * @param after - The bet after the change
+     */
+    public void recordChanged(Contribution before, Bet after) {
+        Contribution updated = Contribution.of(after);
+        if (!before.equals(updated)) { // e.g. only notes or closing odds changed
+            apply(List.of(before), List.of(updated));
+        }
+    }
+    
+    /**
+     * Bets changed in bulk
+     * 
+     * @param before - Contributions captured before the bets were modified
+     * @param after - The same bets after the change
+     */
+    public void recordChanged(Collection<Contribution> before, Collection<Bet> after) {
+        apply(before, after.stream().map(Contribution::of).toList());
+    }
+    
+    public void recordDeleted(Contribution before) {
+        apply(List.of(before), List.of());
+    }
+    
+    private void apply(Collection<Contribution> removed, Collection<Contribution> added) {
+        if (removed.isEmpty() && added.isEmpty()) {
+            return;
+        }
+        
+        // id -> {scope, scopeKey}, in id (= lock) order
+        TreeMap<String, String[]> scopes = new TreeMap<>();
+        removed.forEach(bet -> addScopes(scopes, bet));
+        added.forEach(bet -> addScopes(scopes, bet));
+        
+        Map<String, BetStats> rows = lockRows(scopes);
+        
+        removed.forEach(bet -> applyTo(rows, bet, -1));
+        added.forEach(bet -> applyTo(rows, bet, 1));
+        
+        statsRepository.saveAll(rows.values());
+    }
+    
+    /**
+     * Lock the stats rows, creating any that don't exist yet. Locking a missing
+     * row locks nothing, so new rows are inserted first, and only while holding
+     * the "ALL" row so the inserts can't interleave with rebuild().
+     */
+    private Map<String, BetStats> lockRows(TreeMap<String, String[]> scopes) {
+        Set<String> existing = new HashSet<>(statsRepository.findExistingIds(scopes.keySet()));
+        if (existing.size() < scopes.size()) {
+            statsRepository.insertIfMissing(BetStats.OVERALL_ID, BetStats.SCOPE_ALL, BetStats.SCOPE_ALL);
+            statsRepository.lockByIds(List.of(BetStats.OVERALL_ID));
+            createMissing(scopes, existing);
+        }
+        
+        Map<String, BetStats> rows = new HashMap<>();
+        statsRepository.lockByIds(scopes.keySet()).forEach(row -> rows.put(row.getId(), row));
+        
+        // A rebuild we waited on can drop rows it found no bets for; we hold "ALL" now
+        if (rows.size() < scopes.size()) {
+            createMissing(scopes, rows.keySet());
+            statsRepository.lockByIds(scopes.keySet()).forEach(row -> rows.put(row.getId(), row));
+        }
+        return rows;
+    }
+    
+    private void createMissing(Map<String, String[]> scopes, Set<String> existing) {
+        scopes.forEach((id, scope) -> {
+            if (!existing.contains(id)) {
+                statsRepository.insertIfMissing(id, scope[0], scope[1]);
+            }
+        });
+    }
+    
+    private static void addScopes(Map<String, String[]> scopes, Contribution bet) {
+        scopes.putIfAbsent(BetStats.OVERALL_ID, new String[] {BetStats.SCOPE_ALL, BetStats.SCOPE_ALL});
+        scopes.putIfAbsent(BetStats.id(BetStats.SCOPE_SPORT, bet.sport()),
+                           new String[] {BetStats.SCOPE_SPORT, bet.sport()});
+        scopes.putIfAbsent(BetStats.id(BetStats.SCOPE_SPORTSBOOK, bet.sportsbookName()),
+                           new String[] {BetStats.SCOPE_SPORTSBOOK, bet.sportsbookName()});
+    }
+    
+    private static void applyTo(Map<String, BetStats> rows, Contribution bet, int sign) {
+        rows.get(BetStats.OVERALL_ID).apply(bet, sign);
+        rows.get(BetStats.id(BetStats.SCOPE_SPORT, bet.sport())).apply(bet, sign);
+        rows.get(BetStats.id(BetStats.SCOPE_SPORTSBOOK, bet.sportsbookName())).apply(bet, sign);
+    }
+    
+    // ============================================
+    // READS
+    // ============================================
+    
+    public BetStats getOverall() {
+        return statsRepository.findById(BetStats.OVERALL_ID).orElseGet(BetStats::overall);
+    }
+    
+    public BetStats getForSport(String sport) {
+        return get(BetStats.SCOPE_SPORT, sport);
+    }
+    
+    public BetStats getForSportsbook(String sportsbookName) {
+        return get(BetStats.SCOPE_SPORTSBOOK, sportsbookName);
+    }
+    
+    /**
+     * Sportsbooks with settled bets, most profitable first
+     */
+    public List<String> getSportsbooksByProfit() {
+        return statsRepository.findScopeKeysByProfit(BetStats.SCOPE_SPORTSBOOK);
+    }
+    
+    /**
+     * Sports with settled bets, most profitable first
+     */
+    public List<String> getSportsByProfit() {
+        return statsRepository.findScopeKeysByProfit(BetStats.SCOPE_SPORT);
+    }
+    
+    private BetStats get(String scope, String scopeKey) {
+        return statsRepository.findById(BetStats.id(scope, scopeKey)).orElseGet(() -> new BetStats(scope, scopeKey));
+    }
+    
+    public List<BetStats> getBySport() {
+        return statsRepository.findByScopeOrderByScopeKey(BetStats.SCOPE_SPORT);
+    }
+    
+    public List<BetStats> getBySportsbook() {
+        return statsRepository.findByScopeOrderByScopeKey(BetStats.SCOPE_SPORTSBOOK);
+    }
+    
+    // ============================================
+    // REBUILD
+    // ============================================
+    
+    /**
+     * Seed the totals the first time the app starts against an existing bets table
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        if (!statsRepository.existsById(BetStats.OVERALL_ID) && betRepository.count() > 0) {
+            Map<String, Object> result = rebuild();
+            log.info("Built bet stats from existing bets: {}", result);
+        }
+    }
+    
+    /**
+     * Recompute every stats row from the bets table with three grouped queries.
+     * Locks the "ALL" row before reading any bets: writers lock it first too,
+     * so a write either commits before the rebuild reads or waits and applies
+     * its change on top of the rebuilt totals.
+     * 
+     * @return Number of rows written per scope
+     */
+    public Map<String, Object> rebuild() {
+        statsRepository.insertIfMissing(BetStats.OVERALL_ID, BetStats.SCOPE_ALL, BetStats.SCOPE_ALL);
+        statsRepository.lockByIds(List.of(BetStats.OVERALL_ID));
+        statsRepository.deleteAllExcept(BetStats.OVERALL_ID);
+        
+        BetStats overall = BetStats.overall();
+        for (BetStatusTotals totals : betRepository.summarizeByStatus()) {
+            add(overall, totals);
+        }
+        Map<String, BetStats> bySport = group(BetStats.SCOPE_SPORT, betRepository.summarizeBySportAndStatus());
+        Map<String, BetStats> bySportsbook = group(BetStats.SCOPE_SPORTSBOOK, betRepository.summarizeBySportsbookAndStatus());
+        
+        statsRepository.save(overall);
+        statsRepository.saveAll(bySport.values());
+        statsRepository.saveAll(bySportsbook.values());
+        
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("totalBets", overall.getTotalBets());
+        result.put("sports", bySport.size());
+        result.put("sportsbooks", bySportsbook.size());
+        return result;
+    }
+    
+    private static Map<String, BetStats> group(String scope, List<BetGroupTotals> rows) {
+        Map<String, BetStats> stats = new LinkedHashMap<>();
+        for (BetGroupTotals totals : rows) {
+            add(stats.computeIfAbsent(totals.getGroupKey(), key -> new BetStats(scope, key)), totals);
+        }
+        return stats;
+    }
+    
+    private static void add(BetStats stats, BetStatusTotals totals) {
+        long count = totals.getBetCount() != null ? totals.getBetCount() : 0;
+        stats.apply(totals.getStatus(), count, totals.getStaked(), totals.getSettledStaked(), totals.getProfitLoss());
+    }
+}
@@ -0,0 +1,257 @@
+package com.coltwarren.sports_betting_analytics.service;
+
+import com.coltwarren.sports_betting_analytics.model.Bet;
+import com.coltwarren.sports_betting_analytics.model.odds.OddsBook;
+import com.coltwarren.sports_betting_analytics.repository.BetRepository;
+import com.coltwarren.sports_betting_analytics.service.odds.OddsService;
+import com.coltwarren.sports_betting_analytics.service.odds.SelectionMatcher;
+import com.coltwarren.sports_betting_analytics.service.odds.history.OddsHistoryStore;
+import com.coltwarren.sports_betting_analytics.service.odds.history.PriceTick;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * ClosingLineCaptureService - Fills in closing odds for pending bets automatically
+ *
+ * Once a bet's game reaches its commence_time, the price at that moment is
+ * taken as the closing line:
+ *   1. From the odds history (last quote at or before commence_time), or
+ *   2. From the live odds feed within a short grace period after kickoff
+ *
+ * Nothing is captured before kickoff, so the stored close is never an early
+ * quote the line moved away from. Only quotes at the bet's own line count;
+ * a spread or total that closed at a different number is skipped rather than
+ * compared across lines. The bet's own sportsbook is used when it quotes
+ * the same market; otherwise the median price across books stands in as the
+ * consensus close. All captured bets are written in one batched transaction.
+ */
+@Service
+public class ClosingLineCaptureService {
+
+    private static final Logger log = LoggerFactory.getLogger(ClosingLineCaptureService.class);
+
+    // Bet.eventStartTime is entered by hand (local time, often missing), so it is
+    // only a coarse pre-filter; the feed's commence_time decides when a game closes
+    private static final Duration PREFILTER_WINDOW = Duration.ofHours(12);
+
+    private record Quote(String bookTitle, String bookKey, double price, double point) {
+    }
+
+    private final BetRepository betRepository;
+    private final BetService betService;
+    private final OddsService oddsService;
+    private final OddsHistoryStore historyStore;
+    private final boolean enabled;
+    private final Duration liveGrace;
+
+    @Autowired
+    public ClosingLineCaptureService(BetRepository betRepository,
+                                     BetService betService,
+                                     OddsService oddsService,
+                                     OddsHistoryStore historyStore,
+                                     @Value("${clv.capture.enabled:true}") boolean enabled,
+                                     @Value("${clv.capture.live-grace-seconds:300}") long liveGraceSeconds) {
+        this.betRepository = betRepository;
+        this.betService = betService;
+        this.oddsService = oddsService;
+        this.historyStore = historyStore;
+        this.enabled = enabled;
+        this.liveGrace = Duration.ofSeconds(liveGraceSeconds);
+    }
+
+    @Scheduled(fixedDelayString = "${clv.capture.interval-ms:60000}",
+               initialDelayString = "${clv.capture.initial-delay-ms:20000}")
+    public void scheduledCapture() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            captureClosingLines();
+        } catch (Exception e) {
+            log.error("Error capturing closing lines", e);
+        }
+    }
+
+    /**
+     * Capture closing odds for every pending bet whose game has reached commence_time
+     */
+    public Map<String, Object> captureClosingLines() {
+        Instant now = Instant.now();
+        List<Bet> candidates = betRepository.findPendingWithoutClosingOdds(
+            LocalDateTime.now().plus(PREFILTER_WINDOW));
+
+        Map<String, List<Bet>> bySport = candidates.stream()
+            .collect(Collectors.groupingBy(Bet::getSport, LinkedHashMap::new, Collectors.toList()));
+
+        Map<Long, BigDecimal> closingOdds = new LinkedHashMap<>();
+        List<String> results = new ArrayList<>();
+        int fromHistory = 0;
+        int fromLive = 0;
+        int consensus = 0;
+        int unmatched = 0;
+        int lineMoved = 0;
+
+        for (Map.Entry<String, List<Bet>> entry : bySport.entrySet()) {
+            String sportKey = oddsService.getSportKey(entry.getKey());
+            OddsBook book = oddsService.getOddsBook(sportKey);
+
+            for (Bet bet : entry.getValue()) {
+                int game = SelectionMatcher.findGame(book, bet.getEventName());
+                if (game < 0) {
+                    unmatched++;
+                    continue;
+                }
+
+                Instant commence = parseCommence(book.commenceTime(game));
+                if (commence == null || now.isBefore(commence)) {
+                    continue; // not closed yet
+                }
+
+                String market = oddsService.getMarketKey(bet.getBetType());
+                String outcome = SelectionMatcher.resolveOutcome(book, game, bet.getBetType(), bet.getSelection());
+                if (outcome == null) {
+                    unmatched++;
+                    continue;
+                }
+
+                // History first: the last quote at or before kickoff, even if we run late
+                List<Quote> quotes = historyQuotes(sportKey, book.gameId(game), market, outcome, commence);
+                boolean historical = !quotes.isEmpty();
+
+                if (!historical && now.isBefore(commence.plus(liveGrace))) {
+                    quotes = liveQuotes(book, game, market, outcome);
+                }
+                if (quotes.isEmpty()) {
+                    unmatched++;
+                    continue;
+                }
+
+                quotes = atBetLine(quotes, SelectionMatcher.extractLine(bet.getSelection()), market);
+                if (quotes.isEmpty()) {
+                    lineMoved++;
+                    continue;
+                }
+                Quote ownBook = findBook(quotes, bet.getSportsbookName());
+                double price = ownBook != null ? ownBook.price() : medianPrice(quotes);
+
+                closingOdds.put(bet.getId(), BigDecimal.valueOf(Math.round(price)));
+                if (historical) fromHistory++; else fromLive++;
+                if (ownBook == null) consensus++;
+
+                results.add(String.format("%s (%s): %+d %s", bet.getEventName(), bet.getSelection(),
+                    Math.round(price), ownBook != null ? "@ " + ownBook.bookTitle() : "consensus"));
+            }
+        }
+
+        int captured = closingOdds.isEmpty() ? 0 : betService.applyClosingOdds(closingOdds).size();
+
+        Map<String, Object> summary = new HashMap<>();
+        summary.put("checked", candidates.size());
+        summary.put("captured", captured);
+        summary.put("fromHistory", fromHistory);
+        summary.put("fromLiveOdds", fromLive);
+        summary.put("consensusPrices", consensus);
+        summary.put("unmatched", unmatched);
+        summary.put("lineMoved", lineMoved);
+        summary.put("results", results);
+        return summary;
+    }
+
+    // ============================================
+    // PRICES
+    // ============================================
+
+    private List<Quote> historyQuotes(String sportKey, String gameId, String market, String outcome, Instant at) {
+        List<Quote> quotes = new ArrayList<>();
+        for (Map.Entry<String, PriceTick> entry : historyStore.pricesAt(sportKey, gameId, market, outcome, at).entrySet()) {
+            PriceTick tick = entry.getValue();
+            if (!tick.removed()) {
+                quotes.add(new Quote(entry.getKey(), null, tick.price(),
+                    tick.point() != null ? tick.point() : Double.NaN));
+            }
+        }
+        return quotes;
+    }
+
+    private static List<Quote> liveQuotes(OddsBook book, int game, String market, String outcome) {
+        List<Quote> quotes = new ArrayList<>();
+        int marketIndex = book.marketIndex(market);
+        for (int row = book.rowStart(game); row < book.rowEnd(game); row++) {
+            if (book.market(row) == marketIndex && book.outcomeName(row).equals(outcome)) {
+                quotes.add(new Quote(book.bookTitle(row), book.bookKey(row), book.price(row), book.point(row)));
+            }
+        }
+        return quotes;
+    }
+
+    /**
+     * Keep only quotes at the bet's line. Empty when every book closed at a
+     * different number: a price at another line is not the same bet's close.
+     */
+    private static List<Quote> atBetLine(List<Quote> quotes, Double line, String market) {
+        if (line == null || market.equals("h2h")) {
+            return quotes;
+        }
+
+        List<Quote> filtered = new ArrayList<>();
+        for (Quote quote : quotes) {
+            if (quote.point() == line) {
+                filtered.add(quote);
+            }
+        }
+        return filtered;
+    }
+
+    private static Quote findBook(List<Quote> quotes, String sportsbookName) {
+        if (sportsbookName == null) {
+            return null;
+        }
+        String wanted = normalize(sportsbookName);
+        for (Quote quote : quotes) {
+            if (normalize(quote.bookTitle()).equals(wanted)
+                || (quote.bookKey() != null && normalize(quote.bookKey()).equals(wanted))) {
+                return quote;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Median price across books. American odds order the same way as payouts
+     * (no value falls between -100 and +100), so a plain numeric sort works;
+     * with an even count the lower middle is taken so the result is a real quote.
+     */
+    private static double medianPrice(List<Quote> quotes) {
+        double[] prices = quotes.stream().mapToDouble(Quote::price).sorted().toArray();
+        return prices[(prices.length - 1) / 2];
+    }
+
+    private static Instant parseCommence(String commenceTime) {
+        try {
+            return commenceTime != null ? Instant.parse(commenceTime) : null;
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    private static String normalize(String name) {
+        return name.toLowerCase(Locale.ROOT).replaceAll("[^a-z0-9]", "");
+    }
+}
@@ -1,5 +1,8 @@
 package com.coltwarren.sports_betting_analytics.service;
 
+import com.coltwarren.sports_betting_analytics.service.odds.DevigMethod;
+import com.coltwarren.sports_betting_analytics.service.odds.FairOdds;
+import com.coltwarren.sports_betting_analytics.service.odds.FairOddsEngine;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
@@ -12,10 +15,12 @@ import java.util.Map;
 public class KellyCriterionService {
     
     private final BankrollService bankrollService;
+    private final FairOddsEngine fairOddsEngine;
     
     @Autowired
-    public KellyCriterionService(BankrollService bankrollService) {
+    public KellyCriterionService(BankrollService bankrollService, FairOddsEngine fairOddsEngine) {
         this.bankrollService = bankrollService;
+        this.fairOddsEngine = fairOddsEngine;
     }
     
     /**
@@ -71,6 +76,25 @@ public class KellyCriterionService {
         return result;
     }
     
+    /**
+     * Kelly sizing with the win probability taken from the no-vig market consensus
+     */
+    public Map<String, Object> calculateConsensusKelly(String sport, String event, String selection,
+                                                       String betType, int americanOdds,
+                                                       DevigMethod method, boolean fractional) {
+        FairOdds fair = fairOddsEngine.findFairOdds(sport, event, selection, betType, method);
+        if (fair == null) {
+            Map<String, Object> result = new HashMap<>();
+            result.put("error", "No consensus market found for " + selection);
+            return result;
+        }
+        
+        Map<String, Object> result = calculateKelly(americanOdds, fair.fairProbability(), fractional);
+        result.put("probabilitySource", "consensus");
+        result.put("fairOdds", fair);
+        return result;
+    }
+    
     /**
      * Calculate Full Kelly
      */
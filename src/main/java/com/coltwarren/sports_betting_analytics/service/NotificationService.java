@@ -1,15 +1,33 @@
 package com.coltwarren.sports_betting_analytics.service;
 
+import com.coltwarren.sports_betting_analytics.service.odds.ArbitrageOpportunity;
+import com.coltwarren.sports_betting_analytics.service.odds.OddsDelta;
+import com.coltwarren.sports_betting_analytics.service.odds.OddsUpdate;
+import com.coltwarren.sports_betting_analytics.service.odds.OddsUpdateListener;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
 
 @Service
-public class NotificationService {
+public class NotificationService implements OddsUpdateListener {
+    
+    private static final int MAX_RECENT_NOTIFICATIONS = 200;
     
     // Store active notification subscribers (in production, use Redis or database)
     private final Map<String, NotificationSubscriber> subscribers = new ConcurrentHashMap<>();
     
+    // Most recent notifications first, bounded so the feed never grows without limit
+    private final Deque<Notification> recentNotifications = new ConcurrentLinkedDeque<>();
+    
+    // Minimum implied-probability move, in percentage points, for a line-move alert
+    private final double lineMoveThreshold;
+    
+    public NotificationService(@Value("${notifications.line-move.min-probability-points:3}") double lineMoveThreshold) {
+        this.lineMoveThreshold = lineMoveThreshold;
+    }
+    
     public static class NotificationSubscriber {
         private String sessionId;
         private boolean enableBestBets;
@@ -37,7 +55,7 @@ public class NotificationService {
     public static class Notification {
         private String title;
         private String message;
-        private String type; // "best-bet", "high-value", "bankroll", "clv"
+        private String type; // "best-bet", "high-value", "bankroll", "clv", "line-move", "arbitrage"
         private Map<String, Object> data;
         private long timestamp;
         
@@ -156,6 +174,97 @@ public class NotificationService {
         return notification;
     }
     
+    /**
+     * Create notification for a price that moved at a book
+     */
+    public Notification createLineMoveNotification(OddsDelta delta) {
+        int from = delta.getPreviousPrice().intValue();
+        int to = delta.getPrice().intValue();
+        
+        Notification notification = new Notification(
+            "📉 Line Move!",
+            delta.getGame() + " - " + delta.getOutcome() + " @ " + delta.getBookmaker() + ": "
+                + formatOdds(from) + " → " + formatOdds(to),
+            "line-move"
+        );
+        
+        notification.addData("game", delta.getGame());
+        notification.addData("selection", delta.getOutcome());
+        notification.addData("market", delta.getMarketKey());
+        notification.addData("book", delta.getBookmaker());
+        notification.addData("previousOdds", from);
+        notification.addData("odds", to);
+        notification.addData("value", delta.getPriceMove());
+        
+        return notification;
+    }
+    
+    /**
+     * Create notification for a cross-book arbitrage
+     */
+    public Notification createArbitrageNotification(ArbitrageOpportunity opportunity) {
+        StringBuilder legs = new StringBuilder();
+        for (ArbitrageOpportunity.Leg leg : opportunity.legs()) {
+            if (legs.length() > 0) legs.append(" / ");
+            legs.append(leg.selection());
+            if (leg.point() != null) legs.append(' ').append(leg.point());
+            legs.append(" @ ").append(leg.book()).append(' ').append(formatOdds((int) leg.odds()));
+        }
+        
+        Notification notification = new Notification(
+            "⚖️ Arbitrage!",
+            opportunity.game() + " - " + String.format("%.2f", opportunity.profitPercent()) + "% locked: " + legs,
+            "arbitrage"
+        );
+        
+        notification.addData("game", opportunity.game());
+        notification.addData("market", opportunity.market());
+        notification.addData("legs", opportunity.legs());
+        notification.addData("profitPercent", opportunity.profitPercent());
+        notification.addData("value", opportunity.profitPercent());
+        notification.addData("detectionLatencyMillis", opportunity.detectionLatencyMillis());
+        
+        return notification;
+    }
+    
+    /**
+     * Turn significant price moves from the odds poller into line-move alerts
+     */
+    @Override
+    public void onOddsUpdate(OddsUpdate update) {
+        for (OddsDelta delta : update.getDeltas()) {
+            if (delta.getPriceMove() >= lineMoveThreshold) {
+                publish(createLineMoveNotification(delta));
+            }
+        }
+    }
+    
+    /**
+     * Add a notification to the recent feed
+     */
+    public void publish(Notification notification) {
+        recentNotifications.addFirst(notification);
+        while (recentNotifications.size() > MAX_RECENT_NOTIFICATIONS) {
+            recentNotifications.pollLast();
+        }
+    }
+    
+    /**
+     * Get the most recent notifications (newest first)
+     */
+    public List<Notification> getRecentNotifications(int limit) {
+        List<Notification> result = new ArrayList<>(Math.min(limit, MAX_RECENT_NOTIFICATIONS));
+        Iterator<Notification> iterator = recentNotifications.iterator();
+        while (iterator.hasNext() && result.size() < limit) {
+            result.add(iterator.next());
+        }
+        return result;
+    }
+    
+    private String formatOdds(int odds) {
+        return odds > 0 ? "+" + odds : String.valueOf(odds);
+    }
+    
     /**
      * Get active subscribers count
      */
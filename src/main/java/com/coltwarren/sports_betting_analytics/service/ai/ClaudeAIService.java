@@ -1,5 +1,6 @@
 package com.coltwarren.sports_betting_analytics.service.ai;
 
+import com.coltwarren.sports_betting_analytics.config.OutboundHttpClients;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
@@ -18,9 +19,10 @@ public class ClaudeAIService {
     public ClaudeAIService(
             @Value("${claude.api.url}") String apiUrl,
             @Value("${claude.api.key}") String apiKey,
-            @Value("${claude.model}") String model) {
+            @Value("${claude.model}") String model,
+            OutboundHttpClients httpClients) {
         this.model = model;
-        this.webClient = WebClient.builder()
+        this.webClient = httpClients.builder("claude")
             .baseUrl(apiUrl)
             .defaultHeader("x-api-key", apiKey)
             .defaultHeader("anthropic-version", "2023-06-01")
@@ -31,7 +33,12 @@ public class ClaudeAIService {
     public String calculateEV(String sport, String eventName, String betType, 
                              String selection, BigDecimal yourOdds, BigDecimal stake) {
         
-        String prompt = String.format("""
+        return callClaudeAPI(buildEVPrompt(sport, eventName, betType, selection, yourOdds, stake));
+    }
+    
+    private String buildEVPrompt(String sport, String eventName, String betType,
+                                 String selection, BigDecimal yourOdds, BigDecimal stake) {
+        return String.format("""
             You are a professional sports betting analyst. Calculate the Expected Value (EV) for this bet.
             
             BET DETAILS:
@@ -56,8 +63,14 @@ public class ClaudeAIService {
             - Reasoning: 2-3 sentences
             """,
             sport, eventName, betType, selection, yourOdds, stake);
-        
-        return callClaudeAPI(prompt);
+    }
+    
+    /**
+     * Non-blocking variant of calculateEV
+     */
+    public Mono<String> calculateEVAsync(String sport, String eventName, String betType,
+                                         String selection, BigDecimal yourOdds, BigDecimal stake) {
+        return callClaudeAPIAsync(buildEVPrompt(sport, eventName, betType, selection, yourOdds, stake));
     }
     
     public String analyzeClosingLineValue(BigDecimal yourOdds, BigDecimal closingOdds) {
@@ -105,36 +118,39 @@ public class ClaudeAIService {
     }
     
     public String callClaudeAPI(String prompt) {
-        try {
-            Map<String, Object> requestBody = Map.of(
-                "model", model,
-                "max_tokens", 1024,
-                "messages", List.of(
-                    Map.of(
-                        "role", "user",
-                        "content", prompt
-                    )
+        return callClaudeAPIAsync(prompt).block();
+    }
+    
+    /**
+     * Non-blocking Claude call. Never errors: failures come back as a message,
+     * same as the blocking variant.
+     */
+    public Mono<String> callClaudeAPIAsync(String prompt) {
+        Map<String, Object> requestBody = Map.of(
+            "model", model,
+            "max_tokens", 1024,
+            "messages", List.of(
+                Map.of(
+                    "role", "user",
+                    "content", prompt
                 )
-            );
-            
-            Mono<Map> response = webClient.post()
-                .bodyValue(requestBody)
-                .retrieve()
-                .bodyToMono(Map.class);
-            
-            Map<String, Object> result = response.block();
-            
-            if (result != null && result.containsKey("content")) {
-                List<Map<String, Object>> content = (List<Map<String, Object>>) result.get("content");
-                if (!content.isEmpty()) {
-                    return (String) content.get(0).get("text");
+            )
+        );
+        
+        return webClient.post()
+            .bodyValue(requestBody)
+            .retrieve()
+            .bodyToMono(Map.class)
+            .map(result -> {
+                if (result.containsKey("content")) {
+                    List<Map<String, Object>> content = (List<Map<String, Object>>) result.get("content");
+                    if (!content.isEmpty()) {
+                        return (String) content.get(0).get("text");
+                    }
                 }
-            }
-            
-            return "Unable to get AI response. Please try again.";
-            
-        } catch (Exception e) {
-            return "Error calling Claude AI: " + e.getMessage();
-        }
+                return "Unable to get AI response. Please try again.";
+            })
+            .defaultIfEmpty("Unable to get AI response. Please try again.")
+            .onErrorResume(e -> Mono.just("Error calling Claude AI: " + e.getMessage()));
     }
 }
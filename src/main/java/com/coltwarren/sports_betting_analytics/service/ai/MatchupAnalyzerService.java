@@ -1,5 +1,6 @@
 package com.coltwarren.sports_betting_analytics.service.ai;
 
+import com.coltwarren.sports_betting_analytics.config.OutboundHttpClients;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
@@ -14,9 +15,9 @@ public class MatchupAnalyzerService {
     private final WebClient webClient;
     private final String apiKey;
     
-    public MatchupAnalyzerService(@Value("${claude.api.key}") String apiKey) {
+    public MatchupAnalyzerService(@Value("${claude.api.key}") String apiKey, OutboundHttpClients httpClients) {
         this.apiKey = apiKey;
-        this.webClient = WebClient.builder()
+        this.webClient = httpClients.builder("claude")
             .baseUrl("https://api.anthropic.com/v1")
             .defaultHeader("x-api-key", apiKey)
             .defaultHeader("anthropic-version", "2023-06-01")
@@ -1,7 +1,10 @@
 package com.coltwarren.sports_betting_analytics.service.espn;
 
+import com.coltwarren.sports_betting_analytics.config.OutboundHttpClients;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -11,9 +14,10 @@ public class ESPNApiService {
     
     private final WebClient webClient;
     
-    public ESPNApiService() {
-        this.webClient = WebClient.builder()
-            .baseUrl("https://site.api.espn.com/apis/site/v2/sports")
+    public ESPNApiService(@Value("${espn.api.url:https://site.api.espn.com/apis/site/v2/sports}") String apiUrl,
+                          OutboundHttpClients httpClients) {
+        this.webClient = httpClients.builder("espn")
+            .baseUrl(apiUrl)
             .build();
     }
     
@@ -21,25 +25,28 @@ public class ESPNApiService {
      * Get game result from ESPN
      */
     public Map<String, Object> getGameResult(String sport, String homeTeam, String awayTeam) {
+        return getGameResultAsync(sport, homeTeam, awayTeam).block();
+    }
+    
+    /**
+     * Non-blocking variant of getGameResult
+     */
+    public Mono<Map<String, Object>> getGameResultAsync(String sport, String homeTeam, String awayTeam) {
         String sportPath = mapSportToESPN(sport);
         
-        try {
-            String response = webClient
-                .get()
-                .uri(uriBuilder -> uriBuilder
-                    .path("/{sport}/scoreboard")
-                    .build(sportPath))
-                .retrieve()
-                .bodyToMono(String.class)
-                .block();
-            
-            return parseGameResult(response, homeTeam, awayTeam);
-            
-        } catch (Exception e) {
-            Map<String, Object> error = new HashMap<>();
-            error.put("error", "Failed to fetch game result: " + e.getMessage());
-            return error;
-        }
+        return webClient
+            .get()
+            .uri(uriBuilder -> uriBuilder
+                .path("/{sport}/scoreboard")
+                .build(sportPath))
+            .retrieve()
+            .bodyToMono(String.class)
+            .map(response -> parseGameResult(response, homeTeam, awayTeam))
+            .onErrorResume(e -> {
+                Map<String, Object> error = new HashMap<>();
+                error.put("error", "Failed to fetch game result: " + e.getMessage());
+                return Mono.just(error);
+            });
     }
     
     /**
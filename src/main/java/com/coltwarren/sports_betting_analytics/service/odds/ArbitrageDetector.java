@@ -0,0 +1,291 @@
+package com.coltwarren.sports_betting_analytics.service.odds;
+
+import com.coltwarren.sports_betting_analytics.model.odds.OddsBook;
+import com.coltwarren.sports_betting_analytics.service.NotificationService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * ArbitrageDetector - Finds cross-book arbitrage on every odds update
+ *
+ * For each market of a game the best price of every outcome is taken from
+ * {@link PriceGroups}; if their implied probabilities sum below 1 the
+ * market is an arbitrage:
+ *   - h2h:     all outcomes of the market (two-way, or three-way with a draw)
+ *   - spreads: one team at -p against the other at +p
+ *   - totals:  Over p against Under p
+ *
+ * Only games touched by an update are rescanned. The scan itself is plain
+ * double math over the grouped rows; objects are only built for markets
+ * that actually are an arbitrage.
+ */
+@Service
+public class ArbitrageDetector implements OddsUpdateListener {
+
+    private static final String H2H = "h2h";
+    private static final String SPREADS = "spreads";
+    private static final String TOTALS = "totals";
+
+    private final OddsService oddsService;
+    private final NotificationService notificationService;
+    private final double minProfitPercent;
+
+    // sportKey -> gameId -> opportunities; each sport's map is replaced, never mutated
+    private final Map<String, Map<String, List<ArbitrageOpportunity>>> opportunities = new ConcurrentHashMap<>();
+
+    // Detection latency (payload arrival -> opportunities published)
+    private final AtomicLong scans = new AtomicLong();
+    private final AtomicLong totalLatencyNanos = new AtomicLong();
+    private final AtomicLong maxLatencyNanos = new AtomicLong();
+    private volatile long lastLatencyNanos;
+
+    @Autowired
+    public ArbitrageDetector(OddsService oddsService,
+                             NotificationService notificationService,
+                             @Value("${odds.arbitrage.min-profit-percent:0}") double minProfitPercent) {
+        this.oddsService = oddsService;
+        this.notificationService = notificationService;
+        this.minProfitPercent = minProfitPercent;
+    }
+
+    @Override
+    public void onOddsUpdate(OddsUpdate update) {
+        String sportKey = update.getSportKey();
+        Map<String, List<ArbitrageOpportunity>> previous = opportunities.get(sportKey);
+
+        if (previous != null && !update.hasChanges()) {
+            return;
+        }
+
+        // First sight of a sport: scan everything; afterwards only the games that moved
+        Set<String> changedGames = previous == null ? null : update.getChangedGameIds();
+        Map<String, List<ArbitrageOpportunity>> current =
+            scan(sportKey, update.getBook(), previous, changedGames, update.getReceivedAtNanos());
+        opportunities.put(sportKey, current);
+        recordLatency(System.nanoTime() - update.getReceivedAtNanos());
+
+        notifyNew(previous, current, changedGames);
+    }
+
+    /**
+     * Current arbitrage opportunities for a sport, best first
+     */
+    public List<ArbitrageOpportunity> findArbitrage(String sport) {
+        String sportKey = oddsService.getSportKey(sport);
+        Map<String, List<ArbitrageOpportunity>> bySport = opportunities.get(sportKey);
+
+        if (bySport == null) {
+            // Nothing polled yet for this sport: scan the cached snapshot once
+            bySport = scan(sportKey, oddsService.getOddsBook(sportKey), null, null, System.nanoTime());
+            opportunities.putIfAbsent(sportKey, bySport);
+        }
+
+        return ranked(bySport.values());
+    }
+
+    /**
+     * Current arbitrage opportunities across every sport seen so far, best first
+     */
+    public List<ArbitrageOpportunity> findArbitrageAllSports() {
+        List<List<ArbitrageOpportunity>> all = new ArrayList<>();
+        for (Map<String, List<ArbitrageOpportunity>> bySport : opportunities.values()) {
+            all.addAll(bySport.values());
+        }
+        return ranked(all);
+    }
+
+    public Map<String, Object> getStats() {
+        long count = scans.get();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("scans", count);
+        stats.put("openOpportunities", findArbitrageAllSports().size());
+        stats.put("lastLatencyMillis", lastLatencyNanos / 1_000_000.0);
+        stats.put("avgLatencyMillis", count == 0 ? 0.0 : totalLatencyNanos.get() / (double) count / 1_000_000.0);
+        stats.put("maxLatencyMillis", maxLatencyNanos.get() / 1_000_000.0);
+        return stats;
+    }
+
+    // ============================================
+    // SCANNING
+    // ============================================
+
+    private Map<String, List<ArbitrageOpportunity>> scan(String sportKey, OddsBook book,
+                                                        Map<String, List<ArbitrageOpportunity>> previous,
+                                                        Set<String> changedGames, long receivedAtNanos) {
+        Map<String, List<ArbitrageOpportunity>> result = new HashMap<>();
+        PriceGroups groups = new PriceGroups();
+        int h2h = book.marketIndex(H2H);
+        int spreads = book.marketIndex(SPREADS);
+        int totals = book.marketIndex(TOTALS);
+
+        for (int game = 0; game < book.gameCount(); game++) {
+            String gameId = book.gameId(game);
+
+            if (changedGames != null && !changedGames.contains(gameId)) {
+                List<ArbitrageOpportunity> unchanged = previous.get(gameId);
+                if (unchanged != null) {
+                    result.put(gameId, unchanged);
+                }
+                continue;
+            }
+
+            List<ArbitrageOpportunity> found = new ArrayList<>(0);
+            scanGame(sportKey, book, game, groups.build(book, game), h2h, spreads, totals,
+                minProfitPercent, receivedAtNanos, found);
+            if (!found.isEmpty()) {
+                result.put(gameId, List.copyOf(found));
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Append every arbitrage in one (already grouped) game to {@code out}
+     */
+    static void scanGame(String sportKey, OddsBook book, int game, PriceGroups groups,
+                         int h2h, int spreads, int totals, double minProfitPercent,
+                         long receivedAtNanos, List<ArbitrageOpportunity> out) {
+        int size = groups.size();
+
+        // Moneyline: every outcome of the market must be covered
+        if (h2h != OddsBook.NO_MARKET) {
+            int outcomes = 0;
+            double sum = 0;
+            for (int g = 0; g < size; g++) {
+                if (groups.market(g) == h2h) {
+                    outcomes++;
+                    sum += impliedProbability(groups.bestPrice(g));
+                }
+            }
+            if ((outcomes == 2 || outcomes == 3) && isArbitrage(sum, minProfitPercent)) {
+                int[] legs = new int[outcomes];
+                int n = 0;
+                for (int g = 0; g < size; g++) {
+                    if (groups.market(g) == h2h) legs[n++] = g;
+                }
+                out.add(toOpportunity(sportKey, book, game, groups, H2H, legs, sum, receivedAtNanos));
+            }
+        }
+
+        // Spreads and totals: pair opposite outcomes at matching points
+        for (int a = 0; a < size; a++) {
+            int market = groups.market(a);
+            if ((market != spreads && market != totals) || !groups.hasPoint(a)) {
+                continue;
+            }
+            for (int b = a + 1; b < size; b++) {
+                if (groups.market(b) != market || groups.outcome(b) == groups.outcome(a) || !groups.hasPoint(b)) {
+                    continue;
+                }
+                boolean matches = market == spreads
+                    ? groups.point(a) == -groups.point(b)
+                    : groups.point(a) == groups.point(b);
+                if (!matches) {
+                    continue;
+                }
+
+                double sum = impliedProbability(groups.bestPrice(a)) + impliedProbability(groups.bestPrice(b));
+                if (isArbitrage(sum, minProfitPercent)) {
+                    out.add(toOpportunity(sportKey, book, game, groups,
+                        market == spreads ? SPREADS : TOTALS, new int[] { a, b }, sum, receivedAtNanos));
+                }
+            }
+        }
+    }
+
+    private static ArbitrageOpportunity toOpportunity(String sportKey, OddsBook book, int game, PriceGroups groups,
+                                                      String market, int[] legGroups, double sum,
+                                                      long receivedAtNanos) {
+        List<ArbitrageOpportunity.Leg> legs = new ArrayList<>(legGroups.length);
+        for (int g : legGroups) {
+            double price = groups.bestPrice(g);
+            legs.add(new ArbitrageOpportunity.Leg(
+                book.outcomeNameAt(groups.outcome(g)),
+                groups.hasPoint(g) ? groups.point(g) : null,
+                book.bookTitle(groups.bestRow(g)),
+                price,
+                round2(impliedProbability(price) / sum * 100)));
+        }
+
+        return new ArbitrageOpportunity(
+            sportKey,
+            book.gameId(game),
+            book.awayTeam(game) + " @ " + book.homeTeam(game),
+            book.commenceTime(game),
+            market,
+            List.copyOf(legs),
+            sum,
+            round2((1 / sum - 1) * 100),
+            System.currentTimeMillis(),
+            (System.nanoTime() - receivedAtNanos) / 1_000_000.0);
+    }
+
+    private static boolean isArbitrage(double impliedSum, double minProfitPercent) {
+        return impliedSum < 1 && (1 / impliedSum - 1) * 100 >= minProfitPercent;
+    }
+
+    /**
+     * Implied probability of American odds (1 / decimal odds)
+     */
+    static double impliedProbability(double americanOdds) {
+        return americanOdds > 0
+            ? 100 / (americanOdds + 100)
+            : -americanOdds / (-americanOdds + 100);
+    }
+
+    // ============================================
+    // HELPERS
+    // ============================================
+
+    private void notifyNew(Map<String, List<ArbitrageOpportunity>> previous,
+                           Map<String, List<ArbitrageOpportunity>> current, Set<String> changedGames) {
+        Set<String> known = new HashSet<>();
+        if (previous != null) {
+            for (List<ArbitrageOpportunity> list : previous.values()) {
+                for (ArbitrageOpportunity opportunity : list) known.add(opportunity.key());
+            }
+        }
+
+        for (Map.Entry<String, List<ArbitrageOpportunity>> entry : current.entrySet()) {
+            if (changedGames != null && !changedGames.contains(entry.getKey())) continue;
+            for (ArbitrageOpportunity opportunity : entry.getValue()) {
+                if (!known.contains(opportunity.key())) {
+                    notificationService.publish(notificationService.createArbitrageNotification(opportunity));
+                }
+            }
+        }
+    }
+
+    private void recordLatency(long nanos) {
+        scans.incrementAndGet();
+        totalLatencyNanos.addAndGet(nanos);
+        maxLatencyNanos.accumulateAndGet(nanos, Math::max);
+        lastLatencyNanos = nanos;
+    }
+
+    private static List<ArbitrageOpportunity> ranked(Iterable<List<ArbitrageOpportunity>> lists) {
+        List<ArbitrageOpportunity> all = new ArrayList<>();
+        for (List<ArbitrageOpportunity> list : lists) {
+            all.addAll(list);
+        }
+        all.sort(Comparator.comparingDouble(ArbitrageOpportunity::profitPercent).reversed());
+        return all;
+    }
+
+    private static double round2(double value) {
+        return Math.round(value * 100) / 100.0;
+    }
+}
@@ -0,0 +1,46 @@
+package com.coltwarren.sports_betting_analytics.service.odds;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+
+/**
+ * A set of best prices, one per outcome of a market, whose implied
+ * probabilities sum below 1: staking each leg in proportion to its implied
+ * probability returns the same profit whatever the result.
+ */
+public record ArbitrageOpportunity(
+        String sportKey,
+        String gameId,
+        String game,
+        @JsonProperty("commence_time") String commenceTime,
+        String market,
+        List<Leg> legs,
+        double impliedProbabilitySum,
+        double profitPercent,
+        long detectedAtMillis,
+        double detectionLatencyMillis) {
+
+    /**
+     * One side of the arbitrage. stakePercent is the share of the total stake
+     * to put on this leg.
+     */
+    public record Leg(
+            String selection,
+            Double point,
+            String book,
+            double odds,
+            double stakePercent) {
+    }
+
+    /**
+     * Identifies the same opportunity across polls, whichever books supply it
+     */
+    public String key() {
+        StringBuilder key = new StringBuilder(gameId).append('|').append(market);
+        for (Leg leg : legs) {
+            key.append('|').append(leg.selection()).append(leg.point() != null ? leg.point() : "");
+        }
+        return key.toString();
+    }
+}
@@ -0,0 +1,25 @@
+package com.coltwarren.sports_betting_analytics.service.odds;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.Map;
+
+/**
+ * One best-bets candidate: a selection and how far its price spreads across books.
+ *
+ * Serializes to the same JSON fields best-bets.html has always read.
+ */
+public record BestBet(
+        String game,
+        String sport,
+        @JsonProperty("commence_time") String commenceTime,
+        String betType,
+        String selection,
+        Double point,
+        String bestBook,
+        double bestOdds,
+        String worstBook,
+        double worstOdds,
+        double value,
+        Map<String, Double> allBooks) {
+}
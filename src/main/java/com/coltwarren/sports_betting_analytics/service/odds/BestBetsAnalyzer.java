@@ -1,126 +1,240 @@
 package com.coltwarren.sports_betting_analytics.service.odds;
 
-import com.coltwarren.sports_betting_analytics.model.odds.OddsResponse;
+import com.coltwarren.sports_betting_analytics.model.odds.OddsBook;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
+import java.time.Duration;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeoutException;
 
 @Service
-public class BestBetsAnalyzer {
+public class BestBetsAnalyzer implements OddsUpdateListener {
+    
+    private static final Logger log = LoggerFactory.getLogger(BestBetsAnalyzer.class);
+    
+    private static final double MIN_VALUE_POINTS = 10;
     
     private final OddsService oddsService;
     
+    // sportKey -> top bets for the odds snapshot they were computed from
+    private final Map<String, AnalyzedSlate> analyzedSlates = new ConcurrentHashMap<>();
+    
+    private static final class AnalyzedSlate {
+        private final OddsBook source;
+        private final int limit;
+        private final List<BestBet> topBets;
+        
+        AnalyzedSlate(OddsBook source, int limit, List<BestBet> topBets) {
+            this.source = source;
+            this.limit = limit;
+            this.topBets = topBets;
+        }
+    }
+    
+    // Heap entry; seq keeps ties in discovery order like the old stable sort
+    private record Candidate(BestBet bet, long seq) {
+    }
+    
+    // Worst candidate first: lowest value, then the most recently found
+    private static final Comparator<Candidate> WORST_FIRST = Comparator
+        .comparingDouble((Candidate c) -> c.bet().value())
+        .thenComparing(Comparator.comparingLong(Candidate::seq).reversed());
+    
     @Autowired
     public BestBetsAnalyzer(OddsService oddsService) {
         this.oddsService = oddsService;
     }
     
-    public List<Map<String, Object>> findBestBetsToday(String sport, int limit) {
+    public List<BestBet> findBestBetsToday(String sport, int limit) {
         String sportKey = oddsService.getSportKey(sport);
-        List<OddsResponse> allGames = oddsService.getLiveOdds(sportKey);
-        
-        List<Map<String, Object>> bestBets = new ArrayList<>();
+        return bestBets(sportKey, oddsService.getOddsBook(sportKey), limit);
+    }
+    
+    /**
+     * Non-blocking variant of findBestBetsToday
+     */
+    public Mono<List<BestBet>> findBestBetsTodayAsync(String sport, int limit) {
+        String sportKey = oddsService.getSportKey(sport);
+        return oddsService.getOddsBookAsync(sportKey)
+            .map(book -> bestBets(sportKey, book, limit));
+    }
+    
+    /**
+     * Scan every supported sport concurrently and merge into one global ranking.
+     * Each sport gets the same deadline (they all start together); a sport whose
+     * odds are not back in time is reported as timed out, and one whose fetch
+     * fails (with no earlier snapshot to serve) as failed. Both are left out.
+     */
+    public Mono<BestBetsScan> findBestBetsAllSportsAsync(int limit, Duration deadline) {
+        long startNanos = System.nanoTime();
+        List<String> completed = Collections.synchronizedList(new ArrayList<>());
+        List<String> timedOut = Collections.synchronizedList(new ArrayList<>());
+        List<String> failed = Collections.synchronizedList(new ArrayList<>());
         
-        for (OddsResponse game : allGames) {
-            // Analyze moneyline opportunities
-            analyzeBestOdds(game, "h2h", "MONEYLINE", bestBets);
-            
-            // Analyze spread opportunities
-            analyzeBestOdds(game, "spreads", "SPREAD", bestBets);
-            
-            // Analyze totals opportunities
-            analyzeBestOdds(game, "totals", "TOTALS", bestBets);
+        return Flux.fromIterable(oddsService.getSupportedSports())
+            .flatMap(sport -> {
+                String sportKey = oddsService.getSportKey(sport);
+                return oddsService.getOddsBookOrErrorAsync(sportKey)
+                    .timeout(deadline)
+                    .map(book -> {
+                        completed.add(sport);
+                        return bestBets(sportKey, book, limit);
+                    })
+                    .onErrorResume(e -> {
+                        if (e instanceof TimeoutException) {
+                            timedOut.add(sport);
+                        } else {
+                            log.warn("Best-bets scan left out {}: {}", sport, e.getMessage());
+                            failed.add(sport);
+                        }
+                        return Mono.empty();
+                    });
+            })
+            .collectList()
+            .map(perSport -> new BestBetsScan(
+                mergeRankings(perSport, limit),
+                List.copyOf(completed),
+                List.copyOf(timedOut),
+                List.copyOf(failed),
+                (System.nanoTime() - startNanos) / 1_000_000));
+    }
+    
+    /**
+     * Blocking variant of findBestBetsAllSportsAsync
+     */
+    public BestBetsScan findBestBetsAllSports(int limit, Duration deadline) {
+        return findBestBetsAllSportsAsync(limit, deadline).block();
+    }
+    
+    /**
+     * Merge per-sport top lists (each already at most {@code limit} long) into one
+     */
+    private static List<BestBet> mergeRankings(List<List<BestBet>> perSport, int limit) {
+        List<BestBet> merged = new ArrayList<>();
+        for (List<BestBet> bets : perSport) {
+            merged.addAll(bets);
+        }
+        merged.sort(Comparator.comparingDouble(BestBet::value).reversed());
+        return merged.size() <= limit ? merged : List.copyOf(merged.subList(0, limit));
+    }
+    
+    private List<BestBet> bestBets(String sportKey, OddsBook book, int limit) {
+        // Reuse the previous top list until the odds it came from change
+        // (or a caller asks for more than it holds)
+        AnalyzedSlate slate = analyzedSlates.get(sportKey);
+        if (slate == null || slate.source != book || slate.limit < limit) {
+            slate = new AnalyzedSlate(book, limit, rankBets(book, limit));
+            analyzedSlates.put(sportKey, slate);
         }
         
-        // Sort by value (biggest difference between best and worst odds)
-        bestBets.sort((a, b) -> {
-            Double valueA = (Double) a.get("value");
-            Double valueB = (Double) b.get("value");
-            return valueB.compareTo(valueA);
-        });
-        
-        return bestBets.stream().limit(limit).collect(Collectors.toList());
+        return slate.topBets.size() <= limit ? slate.topBets : slate.topBets.subList(0, limit);
     }
     
-    private void analyzeBestOdds(OddsResponse game, String marketKey, String betType, List<Map<String, Object>> bestBets) {
-        for (OddsResponse.Bookmaker bookmaker : game.getBookmakers()) {
-            for (OddsResponse.Market market : bookmaker.getMarkets()) {
-                if (market.getKey().equals(marketKey)) {
-                    for (OddsResponse.Outcome outcome : market.getOutcomes()) {
-                        
-                        // Find best and worst odds for this outcome across all books
-                        Map<String, Object> oddsComparison = findOddsRange(game, marketKey, outcome.getName());
-                        
-                        if (oddsComparison.get("value") != null) {
-                            Double value = (Double) oddsComparison.get("value");
-                            
-                            // Only include if there's significant value (10+ points difference)
-                            if (value >= 10) {
-                                Map<String, Object> bet = new HashMap<>();
-                                bet.put("game", game.getAway_team() + " @ " + game.getHome_team());
-                                bet.put("sport", game.getSport_title());
-                                bet.put("commence_time", game.getCommence_time());
-                                bet.put("betType", betType);
-                                bet.put("selection", outcome.getName());
-                                bet.put("point", outcome.getPoint());
-                                bet.put("bestBook", oddsComparison.get("bestBook"));
-                                bet.put("bestOdds", oddsComparison.get("bestOdds"));
-                                bet.put("worstBook", oddsComparison.get("worstBook"));
-                                bet.put("worstOdds", oddsComparison.get("worstOdds"));
-                                bet.put("value", value);
-                                bet.put("allBooks", oddsComparison.get("allBooks"));
-                                
-                                bestBets.add(bet);
-                            }
-                        }
-                    }
-                }
+    /**
+     * Only prices that actually moved invalidate a sport's ranking; an
+     * unchanged poll just re-points it at the new (identical) snapshot.
+     */
+    @Override
+    public void onOddsUpdate(OddsUpdate update) {
+        if (update.hasChanges()) {
+            analyzedSlates.remove(update.getSportKey());
+        } else {
+            AnalyzedSlate slate = analyzedSlates.get(update.getSportKey());
+            if (slate != null) {
+                analyzedSlates.put(update.getSportKey(), new AnalyzedSlate(update.getBook(), slate.limit, slate.topBets));
             }
         }
     }
     
-    private Map<String, Object> findOddsRange(OddsResponse game, String marketKey, String outcomeName) {
-        Map<String, Object> result = new HashMap<>();
+    /**
+     * Top {@code limit} (game, market, outcome, point) selections by the spread
+     * between their best and worst price across books, best first.
+     *
+     * Single pass per game: rows are grouped once, each selection is
+     * considered once no matter how many books quote it, and only
+     * selections that make the bounded top-K heap are materialized.
+     */
+    static List<BestBet> rankBets(OddsBook book, int limit) {
+        if (limit <= 0) {
+            return List.of();
+        }
         
-        Double bestOdds = Double.NEGATIVE_INFINITY;
-        Double worstOdds = Double.POSITIVE_INFINITY;
-        String bestBook = null;
-        String worstBook = null;
-        Map<String, Double> allBooks = new HashMap<>();
+        PriorityQueue<Candidate> heap = new PriorityQueue<>(Math.min(limit, 64) + 1, WORST_FIRST);
+        PriceGroups groups = new PriceGroups();
+        long seq = 0;
         
-        for (OddsResponse.Bookmaker bookmaker : game.getBookmakers()) {
-            for (OddsResponse.Market market : bookmaker.getMarkets()) {
-                if (market.getKey().equals(marketKey)) {
-                    for (OddsResponse.Outcome outcome : market.getOutcomes()) {
-                        if (outcome.getName().equals(outcomeName)) {
-                            Double price = outcome.getPrice();
-                            allBooks.put(bookmaker.getTitle(), price);
-                            
-                            if (price > bestOdds) {
-                                bestOdds = price;
-                                bestBook = bookmaker.getTitle();
-                            }
-                            if (price < worstOdds) {
-                                worstOdds = price;
-                                worstBook = bookmaker.getTitle();
-                            }
-                        }
-                    }
+        String[] betTypes = new String[book.marketCount()];
+        for (int market = 0; market < book.marketCount(); market++) {
+            betTypes[market] = betTypeFor(book.marketKeyAt(market));
+        }
+        
+        for (int game = 0; game < book.gameCount(); game++) {
+            groups.build(book, game);
+            
+            for (int group = 0; group < groups.size(); group++) {
+                String betType = betTypes[groups.market(group)];
+                double value = groups.bestPrice(group) - groups.worstPrice(group);
+                
+                // Only include if there's significant value (10+ points difference)
+                if (betType == null || value < MIN_VALUE_POINTS) {
+                    continue;
+                }
+                
+                // Skip before allocating anything if it can't make the list
+                if (heap.size() == limit && value <= heap.peek().bet().value()) {
+                    continue;
+                }
+                
+                heap.add(new Candidate(toBestBet(book, game, groups, group, betType, value), seq++));
+                if (heap.size() > limit) {
+                    heap.poll();
                 }
             }
         }
         
-        if (bestBook != null && worstBook != null) {
-            result.put("bestOdds", bestOdds);
-            result.put("worstOdds", worstOdds);
-            result.put("bestBook", bestBook);
-            result.put("worstBook", worstBook);
-            result.put("value", Math.abs(bestOdds - worstOdds));
-            result.put("allBooks", allBooks);
+        // Sort by value (biggest difference between best and worst odds)
+        BestBet[] ranked = new BestBet[heap.size()];
+        for (int i = ranked.length - 1; i >= 0; i--) {
+            ranked[i] = heap.poll().bet();
+        }
+        return List.of(ranked);
+    }
+    
+    private static BestBet toBestBet(OddsBook book, int game, PriceGroups groups, int group,
+                                     String betType, double value) {
+        Map<String, Double> allBooks = new HashMap<>();
+        for (int row = groups.firstRow(group); row != -1; row = groups.nextRow(row)) {
+            allBooks.put(book.bookTitle(row), book.price(row));
         }
         
-        return result;
+        return new BestBet(
+            book.awayTeam(game) + " @ " + book.homeTeam(game),
+            book.sportTitle(game),
+            book.commenceTime(game),
+            betType,
+            book.outcomeNameAt(groups.outcome(group)),
+            groups.hasPoint(group) ? groups.point(group) : null,
+            book.bookTitle(groups.bestRow(group)),
+            groups.bestPrice(group),
+            book.bookTitle(groups.worstRow(group)),
+            groups.worstPrice(group),
+            value,
+            allBooks
+        );
+    }
+    
+    private static String betTypeFor(String marketKey) {
+        return switch (marketKey) {
+            case "h2h" -> "MONEYLINE";
+            case "spreads" -> "SPREAD";
+            case "totals" -> "TOTALS";
+            default -> null;
+        };
     }
 }
@@ -0,0 +1,16 @@
+package com.coltwarren.sports_betting_analytics.service.odds;
+
+import java.util.List;
+
+/**
+ * Result of an all-sports best-bets scan. Sports that missed the deadline
+ * are listed in timedOutSports, and sports whose odds could not be fetched
+ * at all in failedSports; neither contributes bets.
+ */
+public record BestBetsScan(
+        List<BestBet> bets,
+        List<String> completedSports,
+        List<String> timedOutSports,
+        List<String> failedSports,
+        long elapsedMillis) {
+}
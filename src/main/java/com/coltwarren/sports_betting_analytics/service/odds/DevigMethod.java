@@ -0,0 +1,23 @@
+package com.coltwarren.sports_betting_analytics.service.odds;
+
+import java.util.Locale;
+
+/**
+ * How a book's margin is removed from its implied probabilities.
+ *
+ * - MULTIPLICATIVE: scale every probability by the same factor
+ * - POWER: raise every probability to the same exponent k (takes more margin off longshots)
+ * - SHIN: Shin's model, which prices in a share of informed bettors (also takes more off longshots)
+ */
+public enum DevigMethod {
+    MULTIPLICATIVE,
+    POWER,
+    SHIN;
+
+    public static DevigMethod parse(String value) {
+        if (value == null || value.isBlank()) {
+            return SHIN;
+        }
+        return valueOf(value.trim().toUpperCase(Locale.ROOT));
+    }
+}
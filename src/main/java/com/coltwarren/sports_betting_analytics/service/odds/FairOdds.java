@@ -0,0 +1,22 @@
+package com.coltwarren.sports_betting_analytics.service.odds;
+
+import java.util.Map;
+
+/**
+ * Cross-book consensus fair price for one selection: each book's
+ * probabilities are de-vigged separately, then averaged.
+ */
+public record FairOdds(
+        String sportKey,
+        String gameId,
+        String game,
+        String market,
+        String selection,
+        Double point,
+        DevigMethod method,
+        double fairProbability,
+        int fairOdds,
+        int books,
+        double averageHoldPercent,
+        Map<String, Double> fairProbabilityByBook) {
+}
@@ -0,0 +1,310 @@
+package com.coltwarren.sports_betting_analytics.service.odds;
+
+import com.coltwarren.sports_betting_analytics.model.odds.OddsBook;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * FairOddsEngine - No-vig fair probabilities from the cross-book consensus
+ *
+ * Every book that prices the whole market (both sides of a spread/total,
+ * every moneyline outcome) has its margin removed on its own; the fair
+ * probability is the average over those books. This answers "what is the
+ * true win probability?" from live prices in microseconds, where asking the
+ * AI takes seconds.
+ *
+ * @author Colt Warren
+ * @version 1.0
+ */
+@Service
+public class FairOddsEngine {
+
+    private static final int MAX_OUTCOMES = 3;
+    private static final int SOLVER_ITERATIONS = 60;
+
+    private final OddsService oddsService;
+    private final DevigMethod defaultMethod;
+    private final int minBooks;
+
+    @Autowired
+    public FairOddsEngine(OddsService oddsService,
+                          @Value("${odds.fair.method:SHIN}") String defaultMethod,
+                          @Value("${odds.fair.min-books:2}") int minBooks) {
+        this.oddsService = oddsService;
+        this.defaultMethod = DevigMethod.parse(defaultMethod);
+        this.minBooks = Math.max(1, minBooks);
+    }
+
+    /**
+     * Consensus fair odds for a bet as the user describes it.
+     *
+     * @param sport - "NFL", "NBA", ...
+     * @param event - "Chiefs vs Bills" (optional for moneyline/spread, needed for totals)
+     * @param selection - "Chiefs", "Chiefs -3.5", "Over 48.5"
+     * @param betType - "MONEYLINE", "SPREAD", "TOTAL_OVER", "TOTAL_UNDER"
+     * @param method - De-vig method, or null for the configured default
+     * @return Fair odds, or null if the market isn't on the board at enough books
+     */
+    public FairOdds findFairOdds(String sport, String event, String selection, String betType, DevigMethod method) {
+        String sportKey = oddsService.getSportKey(sport);
+        return findFairOdds(oddsService.getOddsBook(sportKey), event, selection, betType, method);
+    }
+
+    /**
+     * Non-blocking variant of findFairOdds; empty when there is no consensus
+     */
+    public Mono<FairOdds> findFairOddsAsync(String sport, String event, String selection, String betType,
+                                            DevigMethod method) {
+        String sportKey = oddsService.getSportKey(sport);
+        return oddsService.getOddsBookAsync(sportKey)
+            .flatMap(book -> Mono.justOrEmpty(findFairOdds(book, event, selection, betType, method)));
+    }
+
+    public DevigMethod getDefaultMethod() {
+        return defaultMethod;
+    }
+
+    public int getMinBooks() {
+        return minBooks;
+    }
+
+    private FairOdds findFairOdds(OddsBook book, String event, String selection, String betType,
+                                  DevigMethod method) {
+        int game = event != null && !event.isBlank()
+            ? SelectionMatcher.findGame(book, event)
+            : SelectionMatcher.findGameBySelection(book, selection);
+        if (game < 0) {
+            return null;
+        }
+
+        String marketKey = oddsService.getMarketKey(betType);
+        int market = book.marketIndex(marketKey);
+        String outcomeName = SelectionMatcher.resolveOutcome(book, game, betType, selection);
+        if (market == OddsBook.NO_MARKET || outcomeName == null) {
+            return null;
+        }
+
+        int outcome = outcomeIndex(book, outcomeName);
+        Double line = marketKey.equals("h2h") ? null : SelectionMatcher.extractLine(selection);
+        double point = line != null ? line : mainLine(book, game, market, outcome);
+        if (outcome < 0 || (!marketKey.equals("h2h") && Double.isNaN(point))) {
+            return null;
+        }
+
+        return consensus(book, game, market, outcome, point, method != null ? method : defaultMethod, minBooks);
+    }
+
+    // ============================================
+    // CONSENSUS
+    // ============================================
+
+    /**
+     * De-vig each book's copy of one market and average the fair probability of one outcome.
+     * Books that don't price every side of the market are skipped.
+     */
+    static FairOdds consensus(OddsBook book, int game, int market, int outcome, double point,
+                              DevigMethod method, int minBooks) {
+        String marketKey = book.marketKeyAt(market);
+        boolean h2h = marketKey.equals("h2h");
+        boolean spreads = marketKey.equals("spreads");
+
+        int books = book.bookCount();
+        double[] implied = new double[books * MAX_OUTCOMES];
+        int[] counts = new int[books];
+        int[] target = new int[books];
+        Arrays.fill(target, -1);
+        int expected = h2h ? h2hOutcomeCount(book, game, market) : 2;
+
+        for (int row = book.rowStart(game); row < book.rowEnd(game); row++) {
+            if (book.market(row) != market) continue;
+
+            boolean isTarget = book.outcome(row) == outcome && (h2h || book.point(row) == point);
+            boolean inMarket = h2h
+                || isTarget
+                || (spreads ? book.outcome(row) != outcome && book.point(row) == -point
+                            : book.outcome(row) != outcome && book.point(row) == point);
+            int b = book.book(row);
+            if (!inMarket || counts[b] == MAX_OUTCOMES) continue;
+
+            if (isTarget) target[b] = counts[b];
+            implied[b * MAX_OUTCOMES + counts[b]++] = impliedProbability(book.price(row));
+        }
+
+        double[] slice = new double[expected];
+        double[] fair = new double[expected];
+        double probabilitySum = 0;
+        double holdSum = 0;
+        int used = 0;
+        Map<String, Double> byBook = new LinkedHashMap<>();
+
+        for (int b = 0; b < books; b++) {
+            if (counts[b] != expected || target[b] < 0) continue;
+
+            System.arraycopy(implied, b * MAX_OUTCOMES, slice, 0, expected);
+            devig(slice, expected, method, fair);
+
+            double p = fair[target[b]];
+            probabilitySum += p;
+            holdSum += sum(slice, expected) - 1;
+            used++;
+            byBook.put(book.bookTitleAt(b), round4(p));
+        }
+
+        if (used < minBooks) {
+            return null;
+        }
+
+        double probability = probabilitySum / used;
+        return new FairOdds(
+            book.getSportKey(),
+            book.gameId(game),
+            book.awayTeam(game) + " @ " + book.homeTeam(game),
+            marketKey,
+            book.outcomeNameAt(outcome),
+            h2h ? null : point,
+            method,
+            round4(probability),
+            toAmerican(probability),
+            used,
+            round4(holdSum / used * 100),
+            byBook);
+    }
+
+    // ============================================
+    // DE-VIG METHODS
+    // ============================================
+
+    /**
+     * Remove the margin from {@code n} implied probabilities, writing fair probabilities to {@code out}
+     */
+    static void devig(double[] implied, int n, DevigMethod method, double[] out) {
+        double total = sum(implied, n);
+
+        // No margin to remove (or an arbitrage): plain normalisation is the only sensible answer
+        if (total <= 1 || method == DevigMethod.MULTIPLICATIVE) {
+            for (int i = 0; i < n; i++) out[i] = implied[i] / total;
+            return;
+        }
+
+        if (method == DevigMethod.POWER) {
+            // Find k with sum(p_i^k) = 1; the sum falls as k grows, so bisect
+            double low = 1;
+            double high = 16;
+            for (int iter = 0; iter < SOLVER_ITERATIONS; iter++) {
+                double k = (low + high) / 2;
+                double s = 0;
+                for (int i = 0; i < n; i++) s += Math.pow(implied[i], k);
+                if (s > 1) low = k; else high = k;
+            }
+            double k = (low + high) / 2;
+            for (int i = 0; i < n; i++) out[i] = Math.pow(implied[i], k);
+        } else {
+            // Shin: find the informed-money share z with sum(fair_i(z)) = 1
+            double low = 0;
+            double high = 0.99;
+            for (int iter = 0; iter < SOLVER_ITERATIONS; iter++) {
+                double z = (low + high) / 2;
+                if (shinSum(implied, n, total, z) > 1) low = z; else high = z;
+            }
+            double z = (low + high) / 2;
+            for (int i = 0; i < n; i++) out[i] = shin(implied[i], total, z);
+        }
+
+        // Remove the solver's leftover rounding so the outcomes sum to exactly 1
+        double fairTotal = sum(out, n);
+        for (int i = 0; i < n; i++) out[i] /= fairTotal;
+    }
+
+    private static double shinSum(double[] implied, int n, double total, double z) {
+        double s = 0;
+        for (int i = 0; i < n; i++) s += shin(implied[i], total, z);
+        return s;
+    }
+
+    private static double shin(double p, double total, double z) {
+        return (Math.sqrt(z * z + 4 * (1 - z) * p * p / total) - z) / (2 * (1 - z));
+    }
+
+    // ============================================
+    // HELPERS
+    // ============================================
+
+    static double impliedProbability(double americanOdds) {
+        return americanOdds > 0
+            ? 100 / (americanOdds + 100)
+            : -americanOdds / (-americanOdds + 100);
+    }
+
+    /**
+     * Fair probability as American odds (rounded to the nearest point)
+     */
+    static int toAmerican(double probability) {
+        if (probability <= 0 || probability >= 1) {
+            return 0;
+        }
+        return (int) Math.round(probability >= 0.5
+            ? -100 * probability / (1 - probability)
+            : 100 * (1 - probability) / probability);
+    }
+
+    private static int h2hOutcomeCount(OddsBook book, int game, int market) {
+        boolean[] seen = new boolean[book.outcomeCount()];
+        int count = 0;
+        for (int row = book.rowStart(game); row < book.rowEnd(game); row++) {
+            if (book.market(row) == market && !seen[book.outcome(row)]) {
+                seen[book.outcome(row)] = true;
+                count++;
+            }
+        }
+        return Math.min(count, MAX_OUTCOMES);
+    }
+
+    /**
+     * Most commonly quoted point for an outcome (the main line), or NaN
+     */
+    private static double mainLine(OddsBook book, int game, int market, int outcome) {
+        double best = Double.NaN;
+        int bestCount = 0;
+        for (int row = book.rowStart(game); row < book.rowEnd(game); row++) {
+            if (book.market(row) != market || book.outcome(row) != outcome || !book.hasPoint(row)) continue;
+
+            int count = 0;
+            for (int other = book.rowStart(game); other < book.rowEnd(game); other++) {
+                if (book.market(other) == market && book.outcome(other) == outcome
+                    && book.point(other) == book.point(row)) {
+                    count++;
+                }
+            }
+            if (count > bestCount) {
+                bestCount = count;
+                best = book.point(row);
+            }
+        }
+        return best;
+    }
+
+    private static int outcomeIndex(OddsBook book, String name) {
+        for (int o = 0; o < book.outcomeCount(); o++) {
+            if (book.outcomeNameAt(o).equals(name)) {
+                return o;
+            }
+        }
+        return -1;
+    }
+
+    private static double sum(double[] values, int n) {
+        double s = 0;
+        for (int i = 0; i < n; i++) s += values[i];
+        return s;
+    }
+
+    private static double round4(double value) {
+        return Math.round(value * 10000) / 10000.0;
+    }
+}
@@ -0,0 +1,27 @@
+package com.coltwarren.sports_betting_analytics.service.odds;
+
+import com.coltwarren.sports_betting_analytics.model.odds.OddsBook;
+import com.coltwarren.sports_betting_analytics.model.odds.OddsResponse;
+
+/**
+ * One game's odds inside a {@link SportShard}: the sport's current
+ * snapshot and the game's index in it. A game whose prices did not move
+ * keeps its version and timestamp across swaps.
+ *
+ * @param version - sport shard version in which this game last changed
+ * @param updatedAtMillis - when this game's prices last changed
+ */
+public record GameShard(OddsBook book, int game, long version, long updatedAtMillis) {
+
+    public String gameId() { return book.gameId(game); }
+    public String commenceTime() { return book.commenceTime(game); }
+    public String homeTeam() { return book.homeTeam(game); }
+    public String awayTeam() { return book.awayTeam(game); }
+    public int rowStart() { return book.rowStart(game); }
+    public int rowEnd() { return book.rowEnd(game); }
+    public int rowCount() { return rowEnd() - rowStart(); }
+
+    public OddsResponse toResponse() {
+        return book.toResponse(game);
+    }
+}
@@ -0,0 +1,150 @@
+package com.coltwarren.sports_betting_analytics.service.odds;
+
+import com.coltwarren.sports_betting_analytics.model.odds.OddsBook;
+import com.coltwarren.sports_betting_analytics.model.odds.OddsStringPool;
+import tools.jackson.core.JsonParser;
+import tools.jackson.core.JsonToken;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * Single-pass decoder for the Odds API /odds payload.
+ *
+ * Walks the JSON tokens once and writes straight into an {@link OddsBook},
+ * so no tree and no intermediate OddsResponse/Bookmaker/Market/Outcome
+ * objects are created. Unknown fields are skipped. The input is the whole
+ * response body as bytes: WebClient buffers it first, bounded by the
+ * odds-api client's max-in-memory-kb.
+ */
+public class OddsBookDecoder {
+    
+    private final JsonMapper jsonMapper = JsonMapper.builder().build();
+    private final OddsStringPool stringPool;
+    
+    public OddsBookDecoder(OddsStringPool stringPool) {
+        this.stringPool = stringPool;
+    }
+    
+    /**
+     * Decode one payload; the arrival time is stamped on the snapshot for latency reporting
+     */
+    public OddsBook decode(String sportKey, byte[] payload, long receivedAtNanos, long receivedAtMillis) {
+        OddsBook.Builder builder = new OddsBook.Builder(sportKey, stringPool)
+            .receivedAt(receivedAtNanos, receivedAtMillis);
+        
+        try (JsonParser parser = jsonMapper.createParser(payload)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new IllegalStateException("Expected a JSON array of games for " + sportKey);
+            }
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                readGame(parser, builder);
+            }
+        }
+        
+        return builder.build();
+    }
+    
+    private void readGame(JsonParser parser, OddsBook.Builder builder) {
+        // Rows are appended as bookmakers stream past, so the game is opened first
+        int game = builder.startGame(null, null, null, null, null);
+        
+        while (parser.nextToken() != JsonToken.END_OBJECT) {
+            String field = parser.currentName();
+            parser.nextToken();
+            
+            switch (field) {
+                case "id" -> builder.updateGame(game, parser.getValueAsString(), null, null, null, null);
+                case "sport_title" -> builder.updateGame(game, null, parser.getValueAsString(), null, null, null);
+                case "commence_time" -> builder.updateGame(game, null, null, parser.getValueAsString(), null, null);
+                case "home_team" -> builder.updateGame(game, null, null, null, parser.getValueAsString(), null);
+                case "away_team" -> builder.updateGame(game, null, null, null, null, parser.getValueAsString());
+                case "bookmakers" -> readBookmakers(parser, builder);
+                default -> parser.skipChildren();
+            }
+        }
+    }
+    
+    private void readBookmakers(JsonParser parser, OddsBook.Builder builder) {
+        if (parser.currentToken() != JsonToken.START_ARRAY) {
+            parser.skipChildren();
+            return;
+        }
+        
+        while (parser.nextToken() == JsonToken.START_OBJECT) {
+            String key = null;
+            String title = null;
+            
+            while (parser.nextToken() != JsonToken.END_OBJECT) {
+                String field = parser.currentName();
+                parser.nextToken();
+                
+                switch (field) {
+                    case "key" -> key = parser.getValueAsString();
+                    case "title" -> title = parser.getValueAsString();
+                    case "markets" -> {
+                        // The API sends key/title before markets; fall back to the title if not
+                        String bookKey = key != null ? key : title;
+                        readMarkets(parser, builder, builder.book(bookKey, title));
+                    }
+                    default -> parser.skipChildren();
+                }
+            }
+        }
+    }
+    
+    private void readMarkets(JsonParser parser, OddsBook.Builder builder, int book) {
+        if (parser.currentToken() != JsonToken.START_ARRAY) {
+            parser.skipChildren();
+            return;
+        }
+        
+        while (parser.nextToken() == JsonToken.START_OBJECT) {
+            int market = OddsBook.NO_MARKET;
+            
+            while (parser.nextToken() != JsonToken.END_OBJECT) {
+                String field = parser.currentName();
+                parser.nextToken();
+                
+                switch (field) {
+                    case "key" -> market = builder.market(parser.getValueAsString());
+                    case "outcomes" -> {
+                        if (market == OddsBook.NO_MARKET) {
+                            parser.skipChildren();
+                        } else {
+                            readOutcomes(parser, builder, book, market);
+                        }
+                    }
+                    default -> parser.skipChildren();
+                }
+            }
+        }
+    }
+    
+    private void readOutcomes(JsonParser parser, OddsBook.Builder builder, int book, int market) {
+        if (parser.currentToken() != JsonToken.START_ARRAY) {
+            parser.skipChildren();
+            return;
+        }
+        
+        while (parser.nextToken() == JsonToken.START_OBJECT) {
+            String name = null;
+            double price = Double.NaN;
+            double point = Double.NaN;
+            
+            while (parser.nextToken() != JsonToken.END_OBJECT) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                
+                switch (field) {
+                    case "name" -> name = parser.getValueAsString();
+                    case "price" -> price = value == JsonToken.VALUE_NULL ? Double.NaN : parser.getDoubleValue();
+                    case "point" -> point = value == JsonToken.VALUE_NULL ? Double.NaN : parser.getDoubleValue();
+                    default -> parser.skipChildren();
+                }
+            }
+            
+            if (name != null && !Double.isNaN(price)) {
+                builder.addRow(book, market, builder.outcome(name), price, point);
+            }
+        }
+    }
+}
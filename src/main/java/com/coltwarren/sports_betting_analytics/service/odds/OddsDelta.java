@@ -0,0 +1,63 @@
+package com.coltwarren.sports_betting_analytics.service.odds;
+
+/**
+ * A single changed price at the bookmaker/market/outcome level.
+ *
+ * previousPrice is null for a newly listed outcome, price is null for one
+ * that was pulled from the board.
+ */
+public class OddsDelta {
+    
+    private final String sportKey;
+    private final String gameId;
+    private final String game;
+    private final String bookmaker;
+    private final String marketKey;
+    private final String outcome;
+    private final Double previousPoint;
+    private final Double point;
+    private final Double previousPrice;
+    private final Double price;
+    
+    public OddsDelta(String sportKey, String gameId, String game, String bookmaker, String marketKey,
+                     String outcome, Double previousPoint, Double point, Double previousPrice, Double price) {
+        this.sportKey = sportKey;
+        this.gameId = gameId;
+        this.game = game;
+        this.bookmaker = bookmaker;
+        this.marketKey = marketKey;
+        this.outcome = outcome;
+        this.previousPoint = previousPoint;
+        this.point = point;
+        this.previousPrice = previousPrice;
+        this.price = price;
+    }
+    
+    public boolean isNewOutcome() { return previousPrice == null; }
+    public boolean isRemovedOutcome() { return price == null; }
+    
+    /**
+     * Absolute move in implied probability, in percentage points (0 for
+     * added/removed outcomes). Raw American odds jump across the -100/+100
+     * gap: -105 to +105 is 210 "points" but only about 2.4 percentage points.
+     */
+    public double getPriceMove() {
+        if (previousPrice == null || price == null) {
+            return 0;
+        }
+        double move = FairOddsEngine.impliedProbability(price) - FairOddsEngine.impliedProbability(previousPrice);
+        return Math.round(Math.abs(move) * 10000) / 100.0;
+    }
+    
+    // Getters
+    public String getSportKey() { return sportKey; }
+    public String getGameId() { return gameId; }
+    public String getGame() { return game; }
+    public String getBookmaker() { return bookmaker; }
+    public String getMarketKey() { return marketKey; }
+    public String getOutcome() { return outcome; }
+    public Double getPreviousPoint() { return previousPoint; }
+    public Double getPoint() { return point; }
+    public Double getPreviousPrice() { return previousPrice; }
+    public Double getPrice() { return price; }
+}
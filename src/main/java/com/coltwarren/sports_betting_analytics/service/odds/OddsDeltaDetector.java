@@ -0,0 +1,221 @@
+package com.coltwarren.sports_betting_analytics.service.odds;
+
+import com.coltwarren.sports_betting_analytics.model.odds.OddsBook;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.IntFunction;
+
+/**
+ * Diffs each new odds payload against the previous one for the same sport
+ * at the bookmaker/market/outcome level.
+ *
+ * The previous OddsBook itself is the remembered state, so prices and
+ * points stay in its primitive columns. Book, market and outcome
+ * dictionaries are translated between the two snapshots once per poll;
+ * inside a game, rows are matched on a packed long key (book, market,
+ * outcome) by binary search over a reused scratch array. Per poll this
+ * allocates a few small translation tables and one OddsDelta per change,
+ * not a key and boxed prices per row.
+ */
+public class OddsDeltaDetector {
+
+    // Packed row key: book (19 bits) | market (8) | outcome (20) | row offset inside the game (16)
+    private static final int OFFSET_BITS = 16;
+    private static final int OUTCOME_SHIFT = OFFSET_BITS;
+    private static final int MARKET_SHIFT = OUTCOME_SHIFT + 20;
+    private static final int BOOK_SHIFT = MARKET_SHIFT + 8;
+    private static final long OFFSET_MASK = (1L << OFFSET_BITS) - 1;
+
+    // sportKey -> the snapshot the next payload is compared against
+    private final Map<String, OddsBook> lastSeen = new ConcurrentHashMap<>();
+
+    // Scratch space for one previous game's rows, reused across games and polls
+    private long[] previousKeys = new long[256];
+    private boolean[] matched = new boolean[256];
+
+    /**
+     * Compare a payload to the previous one for this sport and remember it.
+     * The first payload for a sport reports every outcome as new.
+     */
+    public synchronized List<OddsDelta> diff(String sportKey, OddsBook book) {
+        OddsBook previous = lastSeen.get(sportKey);
+        List<OddsDelta> deltas = new ArrayList<>();
+
+        if (previous == null) {
+            for (int game = 0; game < book.gameCount(); game++) {
+                addAll(deltas, sportKey, book, game, false);
+            }
+            lastSeen.put(sportKey, book);
+            return deltas;
+        }
+
+        int[] bookMap = translate(book.bookCount(), previous.bookCount(), book::bookKeyAt, previous::bookKeyAt);
+        int[] marketMap = translate(book.marketCount(), previous.marketCount(), book::marketKeyAt, previous::marketKeyAt);
+        int[] outcomeMap = translate(book.outcomeCount(), previous.outcomeCount(),
+                                     book::outcomeNameAt, previous::outcomeNameAt);
+
+        Map<String, Integer> previousGames = new HashMap<>(previous.gameCount() * 4 / 3 + 1);
+        for (int game = 0; game < previous.gameCount(); game++) {
+            previousGames.put(previous.gameId(game), game);
+        }
+        boolean[] previousGameSeen = new boolean[previous.gameCount()];
+
+        for (int game = 0; game < book.gameCount(); game++) {
+            Integer before = previousGames.get(book.gameId(game));
+            if (before == null) {
+                addAll(deltas, sportKey, book, game, false);
+            } else {
+                previousGameSeen[before] = true;
+                diffGame(deltas, sportKey, previous, before, book, game, bookMap, marketMap, outcomeMap);
+            }
+        }
+
+        // Games we saw last time but not now have been pulled
+        for (int game = 0; game < previous.gameCount(); game++) {
+            if (!previousGameSeen[game]) {
+                addAll(deltas, sportKey, previous, game, true);
+            }
+        }
+
+        lastSeen.put(sportKey, book);
+        return deltas;
+    }
+
+    public void reset(String sportKey) {
+        lastSeen.remove(sportKey);
+    }
+
+    // ============================================
+    // DIFFING
+    // ============================================
+
+    private void diffGame(List<OddsDelta> deltas, String sportKey, OddsBook previous, int previousGame,
+                          OddsBook book, int game, int[] bookMap, int[] marketMap, int[] outcomeMap) {
+        int previousStart = previous.rowStart(previousGame);
+        int previousRows = previous.rowEnd(previousGame) - previousStart;
+        ensureScratch(previousRows);
+
+        for (int i = 0; i < previousRows; i++) {
+            int row = previousStart + i;
+            previousKeys[i] = key(previous.book(row), previous.market(row), previous.outcome(row)) | i;
+        }
+        Arrays.sort(previousKeys, 0, previousRows);
+        Arrays.fill(matched, 0, previousRows, false);
+
+        String label = null;
+        for (int row = book.rowStart(game); row < book.rowEnd(game); row++) {
+            int before = find(previousRows, bookMap[book.book(row)], marketMap[book.market(row)],
+                              outcomeMap[book.outcome(row)]);
+            if (before < 0) {
+                if (label == null) label = label(book, game);
+                deltas.add(delta(sportKey, book, game, label, row, Double.NaN, Double.NaN, false));
+                continue;
+            }
+
+            int previousRow = previousStart + before;
+            if (previous.price(previousRow) != book.price(row)
+                    || Double.compare(previous.point(previousRow), book.point(row)) != 0) {
+                if (label == null) label = label(book, game);
+                deltas.add(delta(sportKey, book, game, label, row,
+                                 previous.price(previousRow), previous.point(previousRow), true));
+            }
+        }
+
+        // Outcomes we saw last time but not now have been pulled
+        for (int i = 0; i < previousRows; i++) {
+            if (!matched[i]) {
+                if (label == null) label = label(book, game);
+                int row = previousStart + i;
+                deltas.add(new OddsDelta(sportKey, previous.gameId(previousGame), label, previous.bookTitle(row),
+                                         previous.marketKey(row), previous.outcomeName(row),
+                                         previous.pointOrNull(row), null, previous.price(row), null));
+            }
+        }
+    }
+
+    /**
+     * Offset of the first unmatched previous row with this key (and mark it matched), or -1
+     */
+    private int find(int previousRows, int book, int market, int outcome) {
+        if (book < 0 || market < 0 || outcome < 0) {
+            return -1;
+        }
+        long key = key(book, market, outcome);
+        int i = Arrays.binarySearch(previousKeys, 0, previousRows, key);
+        if (i < 0) {
+            i = -i - 1; // offsets are >= 0, so the first entry for the key sorts at or after the insertion point
+        }
+        for (; i < previousRows && (previousKeys[i] & ~OFFSET_MASK) == key; i++) {
+            int offset = (int) (previousKeys[i] & OFFSET_MASK);
+            if (!matched[offset]) {
+                matched[offset] = true;
+                return offset;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Every row of a game as newly listed, or as pulled
+     */
+    private static void addAll(List<OddsDelta> deltas, String sportKey, OddsBook book, int game, boolean removed) {
+        String label = label(book, game);
+        for (int row = book.rowStart(game); row < book.rowEnd(game); row++) {
+            deltas.add(removed
+                ? new OddsDelta(sportKey, book.gameId(game), label, book.bookTitle(row), book.marketKey(row),
+                                book.outcomeName(row), book.pointOrNull(row), null, book.price(row), null)
+                : delta(sportKey, book, game, label, row, Double.NaN, Double.NaN, false));
+        }
+    }
+
+    private static OddsDelta delta(String sportKey, OddsBook book, int game, String label, int row,
+                                   double previousPrice, double previousPoint, boolean existed) {
+        return new OddsDelta(sportKey, book.gameId(game), label, book.bookTitle(row), book.marketKey(row),
+                             book.outcomeName(row),
+                             existed && !Double.isNaN(previousPoint) ? previousPoint : null,
+                             book.pointOrNull(row),
+                             existed ? previousPrice : null,
+                             book.price(row));
+    }
+
+    // ============================================
+    // HELPERS
+    // ============================================
+
+    private static long key(int book, int market, int outcome) {
+        return ((long) book << BOOK_SHIFT) | ((long) market << MARKET_SHIFT) | ((long) outcome << OUTCOME_SHIFT);
+    }
+
+    private static String label(OddsBook book, int game) {
+        return book.awayTeam(game) + " @ " + book.homeTeam(game);
+    }
+
+    /**
+     * For each entry of the new snapshot's dictionary, its index in the previous one (or -1)
+     */
+    private static int[] translate(int count, int previousCount,
+                                   IntFunction<String> name, IntFunction<String> previousName) {
+        Map<String, Integer> previousIndex = new HashMap<>(previousCount * 4 / 3 + 1);
+        for (int i = 0; i < previousCount; i++) {
+            previousIndex.put(previousName.apply(i), i);
+        }
+        int[] map = new int[count];
+        for (int i = 0; i < count; i++) {
+            map[i] = previousIndex.getOrDefault(name.apply(i), -1);
+        }
+        return map;
+    }
+
+    private void ensureScratch(int rows) {
+        if (rows > previousKeys.length) {
+            int size = Math.max(rows, previousKeys.length * 2);
+            previousKeys = new long[size];
+            matched = new boolean[size];
+        }
+    }
+}
@@ -0,0 +1,251 @@
+package com.coltwarren.sports_betting_analytics.service.odds;
+
+import com.coltwarren.sports_betting_analytics.model.odds.OddsBook;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Decides when each sport's odds are fetched next.
+ *
+ * The interval follows the soonest game on the last payload:
+ *   - LIVE:  a game starts within the hour or is in play
+ *   - NEAR:  a game starts within 6 hours
+ *   - DAY:   a game starts within 24 hours
+ *   - FAR:   a game starts within the look-ahead window
+ *   - IDLE:  nothing in the window; only re-checked now and then
+ *
+ * All intervals are stretched by the same factor when the planned burn
+ * rate would spend the quota before its monthly reset, but never past the
+ * IDLE interval. A sport is due once its last fetch is older than its
+ * stretched interval, so a new stretch factor applies to every sport at once.
+ */
+@Service
+public class OddsFetchScheduler {
+
+    public enum Tier { LIVE, NEAR, DAY, FAR, IDLE }
+
+    // Games are treated as in play for this long after commence_time
+    private static final Duration IN_PLAY = Duration.ofHours(4);
+    private static final Duration LIVE_LEAD = Duration.ofHours(1);
+    private static final Duration NEAR_LEAD = Duration.ofHours(6);
+    private static final Duration DAY_LEAD = Duration.ofHours(24);
+
+    // Markets x regions in OddsService's request (h2h,spreads,totals x us)
+    private static final long DEFAULT_REQUEST_COST = 3;
+
+    // retryFast: the sport has never been fetched successfully, so the first failure retries at the LIVE interval
+    private record SportSchedule(String sport, String sportKey, Tier tier, String nextGame, int gamesInWindow,
+                                 Instant lastFetch, boolean retryFast) {
+    }
+
+    private final OddsService oddsService;
+    private final OddsQuotaTracker quotaTracker;
+    private final Duration window;
+    private final Map<Tier, Duration> intervals = new HashMap<>();
+
+    private final Map<String, SportSchedule> schedules = new ConcurrentHashMap<>();
+    private volatile double stretch = 1;
+
+    @Autowired
+    public OddsFetchScheduler(OddsService oddsService,
+                              OddsQuotaTracker quotaTracker,
+                              @Value("${odds.scheduler.window-hours:72}") long windowHours,
+                              @Value("${odds.scheduler.live-interval-seconds:30}") long liveSeconds,
+                              @Value("${odds.scheduler.near-interval-seconds:120}") long nearSeconds,
+                              @Value("${odds.scheduler.day-interval-seconds:600}") long daySeconds,
+                              @Value("${odds.scheduler.far-interval-seconds:1800}") long farSeconds,
+                              @Value("${odds.scheduler.idle-interval-seconds:10800}") long idleSeconds) {
+        this.oddsService = oddsService;
+        this.quotaTracker = quotaTracker;
+        this.window = Duration.ofHours(windowHours);
+        intervals.put(Tier.LIVE, Duration.ofSeconds(liveSeconds));
+        intervals.put(Tier.NEAR, Duration.ofSeconds(nearSeconds));
+        intervals.put(Tier.DAY, Duration.ofSeconds(daySeconds));
+        intervals.put(Tier.FAR, Duration.ofSeconds(farSeconds));
+        intervals.put(Tier.IDLE, Duration.ofSeconds(idleSeconds));
+    }
+
+    /**
+     * Sport keys whose next fetch is due; sports never fetched are always due
+     */
+    public List<String> dueSports(Instant now) {
+        List<String> due = new ArrayList<>();
+        for (String sport : oddsService.getSupportedSports()) {
+            String sportKey = oddsService.getSportKey(sport);
+            SportSchedule schedule = schedules.get(sportKey);
+            if (schedule == null || !now.isBefore(nextFetch(schedule))) {
+                due.add(sportKey);
+            }
+        }
+        return due;
+    }
+
+    /**
+     * Plan a sport's next fetch from the payload just received
+     */
+    public void recordFetch(String sportKey, OddsBook book, Instant now) {
+        Instant soonest = null;
+        int gamesInWindow = 0;
+
+        for (int game = 0; game < book.gameCount(); game++) {
+            Instant commence = parseCommence(book.commenceTime(game));
+            if (commence == null || commence.isBefore(now.minus(IN_PLAY)) || commence.isAfter(now.plus(window))) {
+                continue;
+            }
+            gamesInWindow++;
+            if (soonest == null || commence.isBefore(soonest)) {
+                soonest = commence;
+            }
+        }
+
+        Tier tier = tierFor(soonest, now);
+        schedules.put(sportKey, new SportSchedule(sportName(sportKey), sportKey, tier,
+            soonest != null ? soonest.toString() : null, gamesInWindow, now, false));
+
+        updateStretch(now);
+    }
+
+    /**
+     * A failed fetch is retried at the sport's current interval, never in a tight loop
+     */
+    public void recordFailure(String sportKey, Instant now) {
+        SportSchedule previous = schedules.get(sportKey);
+        Tier tier = previous != null ? previous.tier() : Tier.IDLE;
+        schedules.put(sportKey, new SportSchedule(sportName(sportKey), sportKey, tier,
+            previous != null ? previous.nextGame() : null, previous != null ? previous.gamesInWindow() : 0,
+            now, previous == null));
+    }
+
+    /**
+     * Planned schedule per sport plus the quota it is expected to burn
+     */
+    public Map<String, Object> getSchedule() {
+        Instant now = Instant.now();
+
+        List<Map<String, Object>> sports = new ArrayList<>();
+        for (String sport : oddsService.getSupportedSports()) {
+            SportSchedule schedule = schedules.get(oddsService.getSportKey(sport));
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("sport", sport);
+            entry.put("sportKey", oddsService.getSportKey(sport));
+            if (schedule == null) {
+                entry.put("tier", "UNKNOWN");
+                entry.put("nextFetch", "now");
+            } else {
+                entry.put("tier", schedule.tier());
+                entry.put("intervalSeconds", stretched(schedule.tier()).toSeconds());
+                entry.put("nextGame", schedule.nextGame());
+                entry.put("gamesInWindow", schedule.gamesInWindow());
+                entry.put("lastFetch", schedule.lastFetch().toString());
+                entry.put("nextFetch", nextFetch(schedule).toString());
+            }
+            sports.add(entry);
+        }
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("sports", sports);
+        result.put("plannedPerHour", Math.round(plannedPerHour(1) * 10) / 10.0);
+        result.put("stretchFactor", Math.round(stretch * 100) / 100.0);
+        result.put("windowHours", window.toHours());
+        result.put("quota", quotaTracker.getStats(now));
+        return result;
+    }
+
+    // ============================================
+    // PLANNING
+    // ============================================
+
+    private static Tier tierFor(Instant soonest, Instant now) {
+        if (soonest == null) {
+            return Tier.IDLE;
+        }
+        Duration until = Duration.between(now, soonest);
+        if (until.compareTo(LIVE_LEAD) <= 0) return Tier.LIVE;
+        if (until.compareTo(NEAR_LEAD) <= 0) return Tier.NEAR;
+        if (until.compareTo(DAY_LEAD) <= 0) return Tier.DAY;
+        return Tier.FAR;
+    }
+
+    private Duration stretched(Tier tier) {
+        return stretched(tier, stretch);
+    }
+
+    /**
+     * A tier's interval multiplied by {@code factor}, capped at the IDLE interval
+     */
+    private Duration stretched(Tier tier, double factor) {
+        long idleMillis = intervals.get(Tier.IDLE).toMillis();
+        return Duration.ofMillis(Math.min((long) (intervals.get(tier).toMillis() * factor), idleMillis));
+    }
+
+    private Instant nextFetch(SportSchedule schedule) {
+        return schedule.lastFetch().plus(schedule.retryFast() ? intervals.get(Tier.LIVE) : stretched(schedule.tier()));
+    }
+
+    /**
+     * Quota units per hour the current plan spends, with every interval stretched by {@code factor}
+     */
+    private double plannedPerHour(double factor) {
+        long cost = quotaTracker.getLastCost() > 0 ? quotaTracker.getLastCost() : DEFAULT_REQUEST_COST;
+        double perHour = 0;
+        for (SportSchedule schedule : schedules.values()) {
+            perHour += 3600.0 / Math.max(1, stretched(schedule.tier(), factor).toSeconds()) * cost;
+        }
+        return perHour;
+    }
+
+    /**
+     * Slow every sport down evenly when the plan outruns what the quota allows until reset
+     */
+    private void updateStretch(Instant now) {
+        double allowed = quotaTracker.getAllowedPerHour(now);
+        if (allowed < 0 || plannedPerHour(1) <= allowed) {
+            stretch = 1;
+            return;
+        }
+
+        // Past this factor every tier sits at the IDLE interval; out of quota (allowed == 0) goes straight there
+        double maxStretch = (double) intervals.get(Tier.IDLE).toSeconds() / intervals.get(Tier.LIVE).toSeconds();
+        if (allowed == 0 || plannedPerHour(maxStretch) > allowed) {
+            stretch = maxStretch;
+            return;
+        }
+
+        // Capped tiers stop slowing down, so the factor is not simply planned / allowed; bisect for it
+        double low = 1;
+        double high = maxStretch;
+        for (int iter = 0; iter < 40; iter++) {
+            double factor = (low + high) / 2;
+            if (plannedPerHour(factor) > allowed) low = factor; else high = factor;
+        }
+        stretch = high;
+    }
+
+    private String sportName(String sportKey) {
+        for (String sport : oddsService.getSupportedSports()) {
+            if (oddsService.getSportKey(sport).equals(sportKey)) {
+                return sport;
+            }
+        }
+        return sportKey;
+    }
+
+    private static Instant parseCommence(String commenceTime) {
+        try {
+            return commenceTime != null ? Instant.parse(commenceTime) : null;
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+}
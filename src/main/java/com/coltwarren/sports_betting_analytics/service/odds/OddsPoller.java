@@ -0,0 +1,111 @@
+package com.coltwarren.sports_betting_analytics.service.odds;
+
+import com.coltwarren.sports_betting_analytics.model.odds.OddsBook;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Background odds ingestion.
+ *
+ * Ticks on a short fixed delay and fetches only the sports the
+ * {@link OddsFetchScheduler} says are due, so sports with games about to
+ * start are polled often and quiet sports barely cost any quota. Each
+ * payload refreshes the shared odds cache, is diffed against the previous
+ * one, is swapped into the {@link OddsShardStore} readers use, and the
+ * changed prices go to every {@link OddsUpdateListener}.
+ * Listeners also see unchanged polls (empty deltas) so they can tell
+ * "no change" from "no data". A failed fetch is not ingested: the shard
+ * keeps its old timestamp (so readers fall back to the cache once it
+ * ages out) and the scheduler backs the sport off.
+ */
+@Service
+public class OddsPoller {
+    
+    private static final Logger log = LoggerFactory.getLogger(OddsPoller.class);
+    
+    private final OddsService oddsService;
+    private final OddsFetchScheduler scheduler;
+    private final OddsShardStore shardStore;
+    private final List<OddsUpdateListener> listeners;
+    private final OddsDeltaDetector deltaDetector = new OddsDeltaDetector();
+    private final boolean enabled;
+    
+    @Autowired
+    public OddsPoller(OddsService oddsService,
+                      OddsFetchScheduler scheduler,
+                      OddsShardStore shardStore,
+                      List<OddsUpdateListener> listeners,
+                      @Value("${odds.poller.enabled:true}") boolean enabled) {
+        this.oddsService = oddsService;
+        this.scheduler = scheduler;
+        this.shardStore = shardStore;
+        this.listeners = listeners;
+        this.enabled = enabled;
+    }
+    
+    @Scheduled(fixedDelayString = "${odds.poller.tick-ms:5000}",
+               initialDelayString = "${odds.poller.initial-delay-ms:5000}")
+    public void pollDueSports() {
+        if (!enabled) {
+            return;
+        }
+        
+        List<String> due = scheduler.dueSports(Instant.now());
+        if (due.isEmpty()) {
+            return;
+        }
+        
+        // Fire every due sport's fetch at once, then process them as they land
+        Map<String, CompletableFuture<OddsBook>> fetches = new LinkedHashMap<>();
+        for (String sportKey : due) {
+            fetches.put(sportKey, oddsService.refreshOddsBookAsync(sportKey));
+        }
+        
+        for (Map.Entry<String, CompletableFuture<OddsBook>> entry : fetches.entrySet()) {
+            try {
+                OddsBook book = entry.getValue().join();
+                scheduler.recordFetch(entry.getKey(), book, Instant.now());
+                ingest(entry.getKey(), book);
+            } catch (Exception e) {
+                scheduler.recordFailure(entry.getKey(), Instant.now());
+                log.warn("Error polling odds for {}: {}", entry.getKey(), e.getMessage());
+            }
+        }
+    }
+    
+    /**
+     * Diff one payload, swap it into the shard store and publish the deltas.
+     * The update is stamped with the payload's arrival time, so listener latency
+     * includes decoding and the wait behind sports ingested before it.
+     */
+    public OddsUpdate ingest(String sportKey, OddsBook book) {
+        List<OddsDelta> deltas = deltaDetector.diff(sportKey, book);
+        OddsUpdate update = new OddsUpdate(sportKey, book, deltas,
+                                           book.getReceivedAtNanos(), book.getReceivedAtMillis());
+        
+        // Readers see the new snapshot no later than the listeners do
+        shardStore.apply(update);
+        publish(update);
+        return update;
+    }
+    
+    private void publish(OddsUpdate update) {
+        for (OddsUpdateListener listener : listeners) {
+            try {
+                listener.onOddsUpdate(update);
+            } catch (Exception e) {
+                log.error("Odds listener {} failed", listener.getClass().getSimpleName(), e);
+            }
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package com.coltwarren.sports_betting_analytics.service.odds;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Odds API quota as reported by the API itself.
+ *
+ * Every response carries x-requests-remaining, x-requests-used and
+ * x-requests-last (the cost of that call). The tracker keeps the latest
+ * values and a short window of samples to work out the current burn rate
+ * and how many requests per hour are left until the monthly reset.
+ */
+@Service
+public class OddsQuotaTracker {
+
+    public static final String REMAINING_HEADER = "x-requests-remaining";
+    public static final String USED_HEADER = "x-requests-used";
+    public static final String LAST_COST_HEADER = "x-requests-last";
+
+    private record Sample(long atMillis, long used) {
+    }
+
+    private final Duration burnWindow;
+    private final int resetDayOfMonth;
+    private final long reserve;
+
+    private final Deque<Sample> samples = new ArrayDeque<>();
+    private long remaining = -1;
+    private long used = -1;
+    private long lastCost = -1;
+    private long observedAtMillis;
+
+    @Autowired
+    public OddsQuotaTracker(@Value("${odds.quota.burn-window-minutes:60}") long burnWindowMinutes,
+                            @Value("${odds.quota.reset-day-of-month:1}") int resetDayOfMonth,
+                            @Value("${odds.quota.reserve:50}") long reserve) {
+        this.burnWindow = Duration.ofMinutes(Math.max(1, burnWindowMinutes));
+        this.resetDayOfMonth = Math.min(28, Math.max(1, resetDayOfMonth));
+        this.reserve = Math.max(0, reserve);
+    }
+
+    /**
+     * Record the quota headers of one Odds API response (missing headers are ignored)
+     */
+    public void record(HttpHeaders headers) {
+        long newRemaining = parse(headers.getFirst(REMAINING_HEADER));
+        long newUsed = parse(headers.getFirst(USED_HEADER));
+        long newCost = parse(headers.getFirst(LAST_COST_HEADER));
+        if (newRemaining < 0 && newUsed < 0) {
+            return;
+        }
+        record(newRemaining, newUsed, newCost, System.currentTimeMillis());
+    }
+
+    synchronized void record(long newRemaining, long newUsed, long newCost, long atMillis) {
+        if (newRemaining >= 0) remaining = newRemaining;
+        if (newCost >= 0) lastCost = newCost;
+        observedAtMillis = atMillis;
+
+        if (newUsed >= 0) {
+            // Usage going down means the monthly quota was reset; start a new window
+            if (newUsed < used) {
+                samples.clear();
+            }
+            used = newUsed;
+            samples.addLast(new Sample(atMillis, newUsed));
+        }
+
+        while (samples.size() > 2 && samples.peekFirst().atMillis() < atMillis - burnWindow.toMillis()) {
+            samples.removeFirst();
+        }
+    }
+
+    /**
+     * Requests remaining, or -1 before the first response
+     */
+    public synchronized long getRemaining() {
+        return remaining;
+    }
+
+    /**
+     * Cost of the most recent odds call in quota units, or -1 if unknown
+     */
+    public synchronized long getLastCost() {
+        return lastCost;
+    }
+
+    /**
+     * Quota units spent per hour over the burn window, or 0 without enough samples
+     */
+    public synchronized double getBurnRatePerHour() {
+        if (samples.size() < 2) {
+            return 0;
+        }
+        Sample first = samples.peekFirst();
+        Sample last = samples.peekLast();
+        double hours = (last.atMillis() - first.atMillis()) / 3_600_000.0;
+        return hours > 0 ? (last.used() - first.used()) / hours : 0;
+    }
+
+    /**
+     * Quota units per hour that can be spent until the next reset without dipping into the reserve,
+     * or -1 while the remaining quota is unknown
+     */
+    public synchronized double getAllowedPerHour(Instant now) {
+        if (remaining < 0) {
+            return -1;
+        }
+        double hours = Math.max(1.0 / 60, Duration.between(now, nextReset(now)).toSeconds() / 3600.0);
+        return Math.max(0, remaining - reserve) / hours;
+    }
+
+    /**
+     * Start of the next quota period (the configured day of the month, UTC)
+     */
+    public Instant nextReset(Instant now) {
+        ZonedDateTime utc = now.atZone(ZoneOffset.UTC);
+        ZonedDateTime reset = utc.withDayOfMonth(resetDayOfMonth).toLocalDate().atStartOfDay(ZoneOffset.UTC);
+        if (!reset.isAfter(utc)) {
+            reset = reset.plusMonths(1);
+        }
+        return reset.toInstant();
+    }
+
+    public synchronized Map<String, Object> getStats(Instant now) {
+        double burnRate = getBurnRatePerHour();
+
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("remaining", remaining);
+        stats.put("used", used);
+        stats.put("lastCost", lastCost);
+        stats.put("reserve", reserve);
+        stats.put("observedAt", observedAtMillis > 0 ? Instant.ofEpochMilli(observedAtMillis).toString() : null);
+        stats.put("nextReset", nextReset(now).toString());
+        stats.put("burnRatePerHour", Math.round(burnRate * 10) / 10.0);
+        stats.put("allowedPerHour", Math.round(getAllowedPerHour(now) * 10) / 10.0);
+
+        // When the quota runs out at the current burn rate
+        if (remaining >= 0 && burnRate > 0) {
+            long seconds = (long) (Math.max(0, remaining - reserve) / burnRate * 3600);
+            stats.put("projectedExhaustion", now.plusSeconds(seconds).toString());
+        }
+        return stats;
+    }
+
+    private static long parse(String header) {
+        if (header == null) {
+            return -1;
+        }
+        try {
+            // Lenient: a decimal value ("499.0") must not switch tracking off
+            return (long) Double.parseDouble(header.trim());
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+}
@@ -1,103 +1,210 @@
 package com.coltwarren.sports_betting_analytics.service.odds;
 
+import com.coltwarren.sports_betting_analytics.config.OutboundHttpClients;
+import com.coltwarren.sports_betting_analytics.model.odds.OddsBook;
 import com.coltwarren.sports_betting_analytics.model.odds.OddsResponse;
+import com.coltwarren.sports_betting_analytics.model.odds.OddsStringPool;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
 import reactor.core.publisher.Mono;
 
+import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Service
 public class OddsService {
     
+    private static final Logger log = LoggerFactory.getLogger(OddsService.class);
+    
+    private static final List<String> SUPPORTED_SPORTS = List.of("NFL", "NBA", "MLB", "NHL", "NCAAF", "NCAAB");
+    
     private final WebClient webClient;
     private final String apiKey;
+    private final OddsBookDecoder decoder;
+    private final OddsSnapshotCache<OddsBook> oddsCache;
+    private final OddsQuotaTracker quotaTracker;
+    private final OddsShardStore shardStore;
+    private final long shardMaxAgeMillis;
+    private final Map<String, TeamIndex> teamIndexes = new ConcurrentHashMap<>();
     
     public OddsService(
             @Value("${odds.api.url}") String apiUrl,
-            @Value("${odds.api.key}") String apiKey) {
+            @Value("${odds.api.key}") String apiKey,
+            @Value("${odds.cache.ttl-seconds:30}") long cacheTtlSeconds,
+            OddsQuotaTracker quotaTracker,
+            OddsShardStore shardStore,
+            OutboundHttpClients httpClients) {
         this.apiKey = apiKey;
-        this.webClient = WebClient.builder()
+        this.quotaTracker = quotaTracker;
+        this.shardStore = shardStore;
+        this.shardMaxAgeMillis = Duration.ofSeconds(cacheTtlSeconds).toMillis();
+        this.webClient = httpClients.builder("odds-api")
             .baseUrl(apiUrl)
             .build();
+        this.decoder = new OddsBookDecoder(new OddsStringPool());
+        this.oddsCache = new OddsSnapshotCache<>(this::fetchOddsBook, Duration.ofSeconds(cacheTtlSeconds));
     }
     
-    public List<OddsResponse> getLiveOdds(String sportKey) {
+    /**
+     * Get the compact odds book for a sport. A shard the poller refreshed
+     * within the cache TTL is served without touching the API; anything
+     * else (never polled, or polled on a slow tier) comes from the shared
+     * snapshot cache, so a whole page of users costs at most one Odds API
+     * call per TTL interval.
+     */
+    public OddsBook getOddsBook(String sportKey) {
+        SportShard shard = freshShard(sportKey);
+        if (shard != null) {
+            return shard.book();
+        }
         try {
-            String url = String.format("/sports/%s/odds?apiKey=%s&regions=us&markets=h2h,spreads,totals&oddsFormat=american", 
-                                      sportKey, apiKey);
-            
-            Mono<List<OddsResponse>> response = webClient.get()
-                .uri(url)
-                .retrieve()
-                .bodyToMono(new ParameterizedTypeReference<List<OddsResponse>>() {});
-            
-            return response.block();
-            
+            return oddsCache.get(sportKey).join();
         } catch (Exception e) {
-            System.err.println("Error fetching odds: " + e.getMessage());
-            return new ArrayList<>();
+            log.warn("Error fetching odds for {}: {}", sportKey, e.getMessage());
+            return OddsBook.empty(sportKey);
         }
     }
     
-    public Map<String, Object> findBestOdds(String sportKey, String teamName, String marketType) {
-        List<OddsResponse> allGames = getLiveOdds(sportKey);
+    /**
+     * Non-blocking variant of getOddsBook
+     */
+    public Mono<OddsBook> getOddsBookAsync(String sportKey) {
+        return getOddsBookOrErrorAsync(sportKey)
+            .onErrorResume(e -> {
+                log.warn("Error fetching odds for {}: {}", sportKey, e.getMessage());
+                return Mono.just(OddsBook.empty(sportKey));
+            });
+    }
+    
+    /**
+     * Like getOddsBookAsync, but a fetch that fails with no earlier snapshot
+     * to fall back on signals the error instead of an empty book
+     */
+    public Mono<OddsBook> getOddsBookOrErrorAsync(String sportKey) {
+        SportShard shard = freshShard(sportKey);
+        if (shard != null) {
+            return Mono.just(shard.book());
+        }
+        // suppressCancel: a subscriber timing out must not cancel the shared in-flight fetch
+        return Mono.fromFuture(() -> oddsCache.get(sportKey), true);
+    }
+    
+    /**
+     * Bypass the TTL and fetch a fresh snapshot (shares any in-flight fetch).
+     * Fails if the fetch fails, rather than handing back the previous snapshot
+     * as if it were new.
+     */
+    public CompletableFuture<OddsBook> refreshOddsBookAsync(String sportKey) {
+        return oddsCache.refreshOrError(sportKey);
+    }
+    
+    /**
+     * Get live odds in the Odds API's nested shape (for the raw JSON endpoint)
+     */
+    public List<OddsResponse> getLiveOdds(String sportKey) {
+        return getOddsBook(sportKey).toResponses();
+    }
+    
+    /**
+     * Non-blocking variant of getLiveOdds for reactive endpoints
+     */
+    public Mono<List<OddsResponse>> getLiveOddsAsync(String sportKey) {
+        return getOddsBookAsync(sportKey).map(OddsBook::toResponses);
+    }
+    
+    /**
+     * One game in the Odds API's shape, or null if it is not on the board
+     */
+    public OddsResponse getGameOdds(String sportKey, String gameId) {
+        SportShard sport = freshShard(sportKey);
+        GameShard shard = sport != null ? sport.game(gameId) : null;
+        if (shard != null) {
+            return shard.toResponse();
+        }
+        OddsBook book = getOddsBook(sportKey);
+        int game = book.indexOfGame(gameId);
+        return game >= 0 ? book.toResponse(game) : null;
+    }
+    
+    /**
+     * The poller's shard for a sport, or null if there is none or it is older than the cache TTL
+     */
+    private SportShard freshShard(String sportKey) {
+        SportShard shard = shardStore.sport(sportKey);
+        if (shard == null || System.currentTimeMillis() - shard.updatedAtMillis() > shardMaxAgeMillis) {
+            return null;
+        }
+        return shard;
+    }
+
+    private CompletableFuture<OddsBook> fetchOddsBook(String sportKey) {
+        String url = String.format("/sports/%s/odds?apiKey=%s&regions=us&markets=h2h,spreads,totals&oddsFormat=american", 
+                                  sportKey, apiKey);
         
-        Map<String, Object> result = new HashMap<>();
-        result.put("found", false);
+        // Buffer the body once as bytes and decode it straight into the compact book; the headers carry the quota.
+        // The arrival time is taken as soon as the entity lands, before decoding, and travels on the book.
+        Mono<OddsBook> response = webClient.get()
+            .uri(url)
+            .retrieve()
+            .toEntity(byte[].class)
+            .map(entity -> {
+                long receivedAtNanos = System.nanoTime();
+                long receivedAtMillis = System.currentTimeMillis();
+                quotaTracker.record(entity.getHeaders());
+                byte[] payload = entity.getBody();
+                return payload != null
+                    ? decoder.decode(sportKey, payload, receivedAtNanos, receivedAtMillis)
+                    : OddsBook.empty(sportKey);
+            });
         
-        for (OddsResponse game : allGames) {
-            if (game.getHome_team().equalsIgnoreCase(teamName) || 
-                game.getAway_team().equalsIgnoreCase(teamName)) {
-                
-                result.put("found", true);
-                result.put("game", String.format("%s vs %s", game.getAway_team(), game.getHome_team()));
-                result.put("commence_time", game.getCommence_time());
-                
-                Map<String, Map<String, Object>> bookmakerOdds = new HashMap<>();
-                
-                for (OddsResponse.Bookmaker bookmaker : game.getBookmakers()) {
-                    for (OddsResponse.Market market : bookmaker.getMarkets()) {
-                        if (market.getKey().equals(marketType)) {
-                            for (OddsResponse.Outcome outcome : market.getOutcomes()) {
-                                if (outcome.getName().equalsIgnoreCase(teamName)) {
-                                    Map<String, Object> oddsData = new HashMap<>();
-                                    oddsData.put("price", outcome.getPrice());
-                                    if (outcome.getPoint() != null) {
-                                        oddsData.put("point", outcome.getPoint());
-                                    }
-                                    bookmakerOdds.put(bookmaker.getTitle(), oddsData);
-                                }
-                            }
-                        }
-                    }
-                }
-                
-                result.put("bookmakers", bookmakerOdds);
-                
-                if (!bookmakerOdds.isEmpty()) {
-                    String bestBook = null;
-                    Double bestOdds = Double.NEGATIVE_INFINITY;
-                    
-                    for (Map.Entry<String, Map<String, Object>> entry : bookmakerOdds.entrySet()) {
-                        Double price = (Double) entry.getValue().get("price");
-                        if (price > bestOdds) {
-                            bestOdds = price;
-                            bestBook = entry.getKey();
-                        }
-                    }
-                    
-                    result.put("bestBook", bestBook);
-                    result.put("bestOdds", bestOdds);
-                }
-                
-                break;
-            }
+        return response.toFuture();
+    }
+    
+    public Map<String, Object> findBestOdds(String sportKey, String teamName, String marketType) {
+        return findBestOdds(getOddsBook(sportKey), teamName, marketType);
+    }
+    
+    /**
+     * Non-blocking variant of findBestOdds
+     */
+    public Mono<Map<String, Object>> findBestOddsAsync(String sportKey, String teamName, String marketType) {
+        return getOddsBookAsync(sportKey)
+            .map(book -> findBestOdds(book, teamName, marketType));
+    }
+    
+    private Map<String, Object> findBestOdds(OddsBook book, String teamName, String marketType) {
+        return teamIndex(book).findBestOdds(teamName, marketType);
+    }
+    
+    /**
+     * Teams (and aliases such as "Chiefs" or "Kansas City") starting with a prefix, for autocomplete
+     */
+    public List<String> suggestTeams(String sportKey, String prefix, int limit) {
+        return teamIndex(getOddsBook(sportKey)).suggest(prefix, limit);
+    }
+    
+    /**
+     * Team index for a snapshot, rebuilt only when the cache hands out a new snapshot
+     */
+    private TeamIndex teamIndex(OddsBook book) {
+        TeamIndex index = teamIndexes.get(book.getSportKey());
+        if (index == null || index.getSource() != book) {
+            index = TeamIndex.build(book);
+            teamIndexes.put(book.getSportKey(), index);
         }
-        
-        return result;
+        return index;
+    }
+    
+    /**
+     * Sports with a mapped Odds API key (see getSportKey)
+     */
+    public List<String> getSupportedSports() {
+        return SUPPORTED_SPORTS;
     }
     
     public String getSportKey(String sport) {
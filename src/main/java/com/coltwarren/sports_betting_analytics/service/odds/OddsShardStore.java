@@ -0,0 +1,131 @@
+package com.coltwarren.sports_betting_analytics.service.odds;
+
+import com.coltwarren.sports_betting_analytics.model.odds.OddsBook;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Latest polled odds, sharded by sport and then by game.
+ *
+ * Every shard is immutable. The poller builds the next {@link SportShard}
+ * off to the side and swaps it in with one map write, so readers never
+ * take a lock and never see half an update; they keep scanning whatever
+ * shard they already hold. Games whose prices did not move keep their
+ * previous {@link GameShard} version and timestamp, so per-game caches
+ * keyed on the version survive polls that touched other games. Their
+ * GameShard is re-pointed at the new snapshot, though, so one unchanged
+ * game never keeps a whole old OddsBook reachable.
+ *
+ * Reads never trigger a fetch. A sport the poller has not ingested yet
+ * has no shard, and callers fall back to the odds cache (as they do when
+ * the shard is older than the cache TTL).
+ */
+@Service
+public class OddsShardStore {
+
+    private final Map<String, SportShard> sports = new ConcurrentHashMap<>();
+
+    private final AtomicLong swaps = new AtomicLong();
+    private final AtomicLong gamesCarried = new AtomicLong();
+    private final AtomicLong gamesReplaced = new AtomicLong();
+
+    // ============================================
+    // READS (lock-free)
+    // ============================================
+
+    /**
+     * Current shard for a sport, or null if it has not been polled yet
+     */
+    public SportShard sport(String sportKey) {
+        return sports.get(sportKey);
+    }
+
+    /**
+     * Current odds for one game, or null if the game is not on the board
+     */
+    public GameShard game(String sportKey, String gameId) {
+        SportShard shard = sports.get(sportKey);
+        return shard != null ? shard.game(gameId) : null;
+    }
+
+    public List<GameShard> games(String sportKey) {
+        SportShard shard = sports.get(sportKey);
+        return shard != null ? List.copyOf(shard.games()) : List.of();
+    }
+
+    // ============================================
+    // WRITES
+    // ============================================
+
+    /**
+     * Build the sport's next shard from a poll and swap it in.
+     * Concurrent writers for the same sport are serialized; other sports and all readers are unaffected.
+     */
+    public SportShard apply(OddsUpdate update) {
+        SportShard next = sports.compute(update.getSportKey(), (sportKey, previous) -> nextShard(previous, update));
+        swaps.incrementAndGet();
+        return next;
+    }
+
+    private SportShard nextShard(SportShard previous, OddsUpdate update) {
+        OddsBook book = update.getBook();
+        long version = previous != null ? previous.version() + 1 : 1;
+        long now = update.getReceivedAtMillis();
+        Set<String> changed = update.getChangedGameIds();
+
+        Map<String, GameShard> games = new LinkedHashMap<>(Math.max(16, book.gameCount() * 4 / 3 + 1));
+        int carried = 0;
+        for (int game = 0; game < book.gameCount(); game++) {
+            String gameId = book.gameId(game);
+            GameShard before = previous != null ? previous.game(gameId) : null;
+
+            if (before != null && !changed.contains(gameId) && sameGame(before, book, game)) {
+                games.put(gameId, new GameShard(book, game, before.version(), before.updatedAtMillis()));
+                carried++;
+            } else {
+                games.put(gameId, new GameShard(book, game, version, now));
+            }
+        }
+        // Games missing from the poll (finished or pulled) are simply not carried over
+
+        gamesCarried.addAndGet(carried);
+        gamesReplaced.addAndGet(book.gameCount() - carried);
+        return new SportShard(update.getSportKey(), book, Collections.unmodifiableMap(games), version, now);
+    }
+
+    /**
+     * The delta detector only compares prices; a rescheduled game gets a new shard too
+     */
+    private static boolean sameGame(GameShard before, OddsBook book, int game) {
+        return before.rowCount() == book.rowEnd(game) - book.rowStart(game)
+            && Objects.equals(before.commenceTime(), book.commenceTime(game))
+            && Objects.equals(before.homeTeam(), book.homeTeam(game))
+            && Objects.equals(before.awayTeam(), book.awayTeam(game));
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        Map<String, Object> bySport = new LinkedHashMap<>();
+        sports.forEach((sportKey, shard) -> {
+            Map<String, Object> sport = new LinkedHashMap<>();
+            sport.put("version", shard.version());
+            sport.put("games", shard.gameCount());
+            sport.put("updatedAt", Instant.ofEpochMilli(shard.updatedAtMillis()).toString());
+            bySport.put(sportKey, sport);
+        });
+        stats.put("sports", bySport);
+        stats.put("swaps", swaps.get());
+        stats.put("gamesCarried", gamesCarried.get());
+        stats.put("gamesReplaced", gamesReplaced.get());
+        return stats;
+    }
+}
@@ -0,0 +1,175 @@
+package com.coltwarren.sports_betting_analytics.service.odds;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Per-key snapshot cache with single-flight refresh.
+ *
+ * - Fresh snapshots (younger than the TTL) are served straight from memory
+ * - Stale snapshots are served immediately while one background refresh runs
+ * - A miss with no snapshot waits on the in-flight fetch; concurrent misses share it
+ *
+ * A failed refresh keeps the previous snapshot, so a flaky upstream never
+ * empties a page that already had data. After a failure, get() does not
+ * call the upstream again for that key until a backoff has passed (the TTL,
+ * doubling with each consecutive failure up to MAX_BACKOFF_FACTOR times
+ * it); meanwhile it serves the stale snapshot, or the last error if there
+ * is none. refresh() always goes upstream; refreshOrError() does too but
+ * fails instead of falling back, for callers that must tell a new payload
+ * from an old one.
+ */
+public class OddsSnapshotCache<T> {
+
+    public static final class Snapshot<T> {
+        private final T value;
+        private final long fetchedAtMillis;
+
+        Snapshot(T value, long fetchedAtMillis) {
+            this.value = value;
+            this.fetchedAtMillis = fetchedAtMillis;
+        }
+
+        public T getValue() { return value; }
+        public long getFetchedAtMillis() { return fetchedAtMillis; }
+    }
+
+    private record Failure(Throwable error, long failedAtMillis, int consecutive) {
+    }
+
+    static final int MAX_BACKOFF_FACTOR = 16;
+
+    private final Function<String, CompletableFuture<T>> loader;
+    private final long ttlMillis;
+    private final Clock clock;
+
+    private final Map<String, Snapshot<T>> snapshots = new ConcurrentHashMap<>();
+    private final Map<String, CompletableFuture<T>> inFlight = new ConcurrentHashMap<>();
+    private final Map<String, Failure> failures = new ConcurrentHashMap<>();
+
+    public OddsSnapshotCache(Function<String, CompletableFuture<T>> loader, Duration ttl) {
+        this(loader, ttl, Clock.systemUTC());
+    }
+
+    public OddsSnapshotCache(Function<String, CompletableFuture<T>> loader, Duration ttl, Clock clock) {
+        this.loader = loader;
+        this.ttlMillis = ttl.toMillis();
+        this.clock = clock;
+    }
+
+    /**
+     * Get the value for a key, refreshing according to the TTL.
+     * Only the very first caller for a key ever waits on the upstream.
+     */
+    public CompletableFuture<T> get(String key) {
+        Snapshot<T> snapshot = snapshots.get(key);
+        Failure failure = failures.get(key);
+        boolean backingOff = failure != null && clock.millis() < retryAtMillis(failure);
+
+        if (snapshot == null) {
+            return backingOff ? CompletableFuture.failedFuture(failure.error()) : refresh(key);
+        }
+
+        if (isStale(snapshot) && !backingOff) {
+            // Stale-while-revalidate: answer now, refresh in the background
+            refresh(key);
+        }
+
+        return CompletableFuture.completedFuture(snapshot.getValue());
+    }
+
+    /**
+     * Force a refresh. Joins the in-flight fetch if one is already running.
+     * A failed fetch completes with the previous snapshot if there is one.
+     */
+    public CompletableFuture<T> refresh(String key) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        refreshOrError(key).whenComplete((value, error) -> {
+            Snapshot<T> previous = snapshots.get(key);
+            if (error == null) {
+                result.complete(value);
+            } else if (previous != null) {
+                result.complete(previous.getValue());
+            } else {
+                result.completeExceptionally(error);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Force a refresh like refresh(), but a failed fetch fails the future
+     * even when a previous snapshot exists. The snapshot and backoff are
+     * updated either way.
+     */
+    public CompletableFuture<T> refreshOrError(String key) {
+        CompletableFuture<T> created = new CompletableFuture<>();
+        CompletableFuture<T> existing = inFlight.putIfAbsent(key, created);
+        if (existing != null) {
+            return existing;
+        }
+
+        CompletableFuture<T> upstream;
+        try {
+            upstream = loader.apply(key);
+        } catch (RuntimeException e) {
+            upstream = CompletableFuture.failedFuture(e);
+        }
+
+        upstream.whenComplete((value, error) -> {
+            if (error == null && value != null) {
+                // Publish before leaving in-flight, so no caller sees neither and starts a second fetch
+                snapshots.put(key, new Snapshot<>(value, clock.millis()));
+                failures.remove(key);
+                inFlight.remove(key, created);
+                created.complete(value);
+                return;
+            }
+
+            Throwable cause = error != null ? error : new IllegalStateException("Loader returned no value for " + key);
+            failures.merge(key, new Failure(cause, clock.millis(), 1),
+                (previous, latest) -> new Failure(cause, latest.failedAtMillis(), previous.consecutive() + 1));
+            inFlight.remove(key, created);
+            created.completeExceptionally(cause);
+        });
+
+        return created;
+    }
+
+    /**
+     * Store a value fetched elsewhere (e.g. by a poller) as the current snapshot.
+     */
+    public void put(String key, T value) {
+        snapshots.put(key, new Snapshot<>(value, clock.millis()));
+        failures.remove(key);
+    }
+
+    public Snapshot<T> peek(String key) {
+        return snapshots.get(key);
+    }
+
+    public boolean isStale(Snapshot<T> snapshot) {
+        return clock.millis() - snapshot.getFetchedAtMillis() >= ttlMillis;
+    }
+
+    public void invalidate(String key) {
+        snapshots.remove(key);
+    }
+
+    /**
+     * When get() may next call the upstream for a key, or 0 if it is not backing off
+     */
+    public long getRetryAtMillis(String key) {
+        Failure failure = failures.get(key);
+        return failure == null ? 0 : retryAtMillis(failure);
+    }
+
+    private long retryAtMillis(Failure failure) {
+        long factor = 1L << Math.min(failure.consecutive() - 1, Integer.numberOfTrailingZeros(MAX_BACKOFF_FACTOR));
+        return failure.failedAtMillis() + ttlMillis * factor;
+    }
+}
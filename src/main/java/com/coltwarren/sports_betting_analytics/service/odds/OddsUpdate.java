@@ -0,0 +1,47 @@
+package com.coltwarren.sports_betting_analytics.service.odds;
+
+import com.coltwarren.sports_betting_analytics.model.odds.OddsBook;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * One ingested odds payload for a sport: the full snapshot plus only the prices that changed.
+ */
+public class OddsUpdate {
+    
+    private final String sportKey;
+    private final OddsBook book;
+    private final List<OddsDelta> deltas;
+    // When the payload came off the wire, before decoding (see OddsBook.getReceivedAtNanos)
+    private final long receivedAtNanos;
+    private final long receivedAtMillis;
+    
+    public OddsUpdate(String sportKey, OddsBook book, List<OddsDelta> deltas,
+                      long receivedAtNanos, long receivedAtMillis) {
+        this.sportKey = sportKey;
+        this.book = book;
+        this.deltas = deltas;
+        this.receivedAtNanos = receivedAtNanos;
+        this.receivedAtMillis = receivedAtMillis;
+    }
+    
+    public boolean hasChanges() {
+        return !deltas.isEmpty();
+    }
+    
+    /**
+     * IDs of the games touched by this update, so consumers only redo those
+     */
+    public Set<String> getChangedGameIds() {
+        return deltas.stream().map(OddsDelta::getGameId).collect(Collectors.toSet());
+    }
+    
+    // Getters
+    public String getSportKey() { return sportKey; }
+    public OddsBook getBook() { return book; }
+    public List<OddsDelta> getDeltas() { return deltas; }
+    public long getReceivedAtNanos() { return receivedAtNanos; }
+    public long getReceivedAtMillis() { return receivedAtMillis; }
+}
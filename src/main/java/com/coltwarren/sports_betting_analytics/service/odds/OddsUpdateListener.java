@@ -0,0 +1,10 @@
+package com.coltwarren.sports_betting_analytics.service.odds;
+
+/**
+ * Downstream consumer of polled odds. Every bean implementing this is
+ * handed each update by {@link OddsPoller}.
+ */
+public interface OddsUpdateListener {
+    
+    void onOddsUpdate(OddsUpdate update);
+}
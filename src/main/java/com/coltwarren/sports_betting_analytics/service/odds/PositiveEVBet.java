@@ -0,0 +1,25 @@
+package com.coltwarren.sports_betting_analytics.service.odds;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * One outcome priced against the no-vig consensus: the best available
+ * price and its expected value at the consensus fair probability.
+ */
+public record PositiveEVBet(
+        @JsonIgnore String key,
+        String sportKey,
+        String gameId,
+        String game,
+        @JsonProperty("commence_time") String commenceTime,
+        String market,
+        String selection,
+        Double point,
+        String bestBook,
+        double bestOdds,
+        double fairProbability,
+        int fairOdds,
+        double expectedValue,
+        int books) {
+}
@@ -0,0 +1,246 @@
+package com.coltwarren.sports_betting_analytics.service.odds;
+
+import com.coltwarren.sports_betting_analytics.model.odds.OddsBook;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * PositiveEVScanner - Keeps every outcome's edge against the no-vig consensus
+ *
+ * Unlike the "value points" spread in {@link BestBetsAnalyzer}, expected
+ * value at the fair probability is comparable between favourites and
+ * underdogs. Edges are kept up to date from the odds poller: only the
+ * (game, market) pairs whose prices changed are re-priced, and the +EV
+ * ones live in a sorted set, so reading the top k is O(k).
+ */
+@Service
+public class PositiveEVScanner implements OddsUpdateListener {
+
+    // Highest EV first; key breaks ties so distinct outcomes never collide
+    private static final Comparator<PositiveEVBet> BEST_FIRST = Comparator
+        .comparingDouble(PositiveEVBet::expectedValue).reversed()
+        .thenComparing(PositiveEVBet::key);
+
+    private final OddsService oddsService;
+    private final FairOddsEngine fairOddsEngine;
+    private final double minExpectedValue;
+
+    // Every priced outcome by key, and the keys priced for each game
+    private final Map<String, PositiveEVBet> entries = new ConcurrentHashMap<>();
+    private final Map<String, Set<String>> keysByGame = new ConcurrentHashMap<>();
+
+    // Only +EV outcomes, ranked; overall and per sport
+    private final NavigableSet<PositiveEVBet> ranking = new ConcurrentSkipListSet<>(BEST_FIRST);
+    private final Map<String, NavigableSet<PositiveEVBet>> rankingBySport = new ConcurrentHashMap<>();
+
+    private final Set<String> scannedSports = ConcurrentHashMap.newKeySet();
+
+    @Autowired
+    public PositiveEVScanner(OddsService oddsService,
+                             FairOddsEngine fairOddsEngine,
+                             @Value("${odds.positive-ev.min-percent:0}") double minExpectedValue) {
+        this.oddsService = oddsService;
+        this.fairOddsEngine = fairOddsEngine;
+        this.minExpectedValue = minExpectedValue;
+    }
+
+    /**
+     * Writers are serialized; readers only touch the concurrent ranking sets
+     */
+    @Override
+    public synchronized void onOddsUpdate(OddsUpdate update) {
+        OddsBook book = update.getBook();
+
+        if (scannedSports.add(update.getSportKey())) {
+            // First payload for this sport: price everything once
+            repriceAll(book);
+            return;
+        }
+
+        if (!update.hasChanges()) {
+            return;
+        }
+
+        // gameId -> markets whose prices moved
+        Map<String, Set<String>> touched = new HashMap<>();
+        for (OddsDelta delta : update.getDeltas()) {
+            touched.computeIfAbsent(delta.getGameId(), id -> new HashSet<>()).add(delta.getMarketKey());
+        }
+
+        Set<String> remaining = new HashSet<>(touched.keySet());
+        for (int game = 0; game < book.gameCount(); game++) {
+            Set<String> markets = touched.get(book.gameId(game));
+            if (markets != null) {
+                repriceGame(book, game, markets);
+                remaining.remove(book.gameId(game));
+            }
+        }
+
+        // Games that dropped off the board
+        for (String gameId : remaining) {
+            removeGame(gameId);
+        }
+    }
+
+    /**
+     * Top +EV outcomes, best first
+     *
+     * @param sport - "NFL", "NBA", ... or null for every sport
+     */
+    public List<PositiveEVBet> getTopBets(String sport, int limit) {
+        NavigableSet<PositiveEVBet> source = ranking;
+        if (sport != null) {
+            String sportKey = oddsService.getSportKey(sport);
+            if (!scannedSports.contains(sportKey)) {
+                // Nothing polled yet: price the cached snapshot once
+                OddsBook book = oddsService.getOddsBook(sportKey);
+                synchronized (this) {
+                    if (scannedSports.add(sportKey)) {
+                        repriceAll(book);
+                    }
+                }
+            }
+            source = rankingBySport.getOrDefault(sportKey, new ConcurrentSkipListSet<>(BEST_FIRST));
+        }
+
+        List<PositiveEVBet> top = new ArrayList<>(Math.min(limit, 64));
+        Iterator<PositiveEVBet> iterator = source.iterator();
+        while (iterator.hasNext() && top.size() < limit) {
+            top.add(iterator.next());
+        }
+        return top;
+    }
+
+    public int getTrackedOutcomeCount() {
+        return entries.size();
+    }
+
+    // ============================================
+    // PRICING
+    // ============================================
+
+    private void repriceAll(OddsBook book) {
+        for (int game = 0; game < book.gameCount(); game++) {
+            repriceGame(book, game, null);
+        }
+    }
+
+    /**
+     * Re-price one game's outcomes, limited to {@code markets} when given
+     */
+    private void repriceGame(OddsBook book, int game, Set<String> markets) {
+        String gameId = book.gameId(game);
+        Set<String> previousKeys = keysByGame.getOrDefault(gameId, Set.of());
+        Set<String> currentKeys = new HashSet<>();
+
+        // Keep outcomes of markets we are not re-pricing
+        for (String key : previousKeys) {
+            PositiveEVBet entry = entries.get(key);
+            if (entry != null && markets != null && !markets.contains(entry.market())) {
+                currentKeys.add(key);
+            }
+        }
+
+        PriceGroups groups = new PriceGroups().build(book, game);
+        DevigMethod method = fairOddsEngine.getDefaultMethod();
+        int minBooks = fairOddsEngine.getMinBooks();
+
+        for (int group = 0; group < groups.size(); group++) {
+            String market = book.marketKeyAt(groups.market(group));
+            if (markets != null && !markets.contains(market)) {
+                continue;
+            }
+
+            FairOdds fair = FairOddsEngine.consensus(book, game, groups.market(group), groups.outcome(group),
+                groups.point(group), method, minBooks);
+            if (fair == null) {
+                continue;
+            }
+
+            double bestOdds = groups.bestPrice(group);
+            double expectedValue = (fair.fairProbability() * americanToDecimal(bestOdds) - 1) * 100;
+            Double point = groups.hasPoint(group) ? groups.point(group) : null;
+            String key = gameId + '|' + market + '|' + fair.selection() + '|' + (point != null ? point : "");
+
+            put(new PositiveEVBet(
+                key,
+                book.getSportKey(),
+                gameId,
+                fair.game(),
+                book.commenceTime(game),
+                market,
+                fair.selection(),
+                point,
+                book.bookTitle(groups.bestRow(group)),
+                bestOdds,
+                fair.fairProbability(),
+                fair.fairOdds(),
+                Math.round(expectedValue * 100) / 100.0,
+                fair.books()));
+            currentKeys.add(key);
+        }
+
+        // Outcomes no longer quoted
+        for (String key : previousKeys) {
+            if (!currentKeys.contains(key)) {
+                remove(key);
+            }
+        }
+
+        if (currentKeys.isEmpty()) {
+            keysByGame.remove(gameId);
+        } else {
+            keysByGame.put(gameId, currentKeys);
+        }
+    }
+
+    private void put(PositiveEVBet entry) {
+        PositiveEVBet previous = entries.put(entry.key(), entry);
+        NavigableSet<PositiveEVBet> sportRanking =
+            rankingBySport.computeIfAbsent(entry.sportKey(), k -> new ConcurrentSkipListSet<>(BEST_FIRST));
+
+        if (previous != null) {
+            ranking.remove(previous);
+            rankingBySport.getOrDefault(previous.sportKey(), sportRanking).remove(previous);
+        }
+        if (entry.expectedValue() > minExpectedValue) {
+            ranking.add(entry);
+            sportRanking.add(entry);
+        }
+    }
+
+    private void remove(String key) {
+        PositiveEVBet previous = entries.remove(key);
+        if (previous != null) {
+            ranking.remove(previous);
+            NavigableSet<PositiveEVBet> sportRanking = rankingBySport.get(previous.sportKey());
+            if (sportRanking != null) {
+                sportRanking.remove(previous);
+            }
+        }
+    }
+
+    private void removeGame(String gameId) {
+        Set<String> keys = keysByGame.remove(gameId);
+        if (keys != null) {
+            keys.forEach(this::remove);
+        }
+    }
+
+    private static double americanToDecimal(double americanOdds) {
+        return americanOdds > 0 ? americanOdds / 100 + 1 : 100 / -americanOdds + 1;
+    }
+}
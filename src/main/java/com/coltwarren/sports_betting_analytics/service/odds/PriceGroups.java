@@ -0,0 +1,145 @@
+package com.coltwarren.sports_betting_analytics.service.odds;
+
+import com.coltwarren.sports_betting_analytics.model.odds.OddsBook;
+
+import java.util.Arrays;
+
+/**
+ * Single-pass grouping of one game's prices by (market, outcome, point).
+ *
+ * One walk over the game's rows keeps the best and worst price per group and
+ * chains every row of a group together, so "all books for this selection" is
+ * a walk of that chain instead of a rescan of every bookmaker.
+ *
+ * Instances are reusable (call {@link #build} per game) and not thread-safe.
+ */
+public final class PriceGroups {
+
+    private static final int NO_ROW = -1;
+
+    private OddsBook book;
+    private int size;
+
+    // Per group
+    private int[] firstRow = new int[32];
+    private int[] lastRow = new int[32];
+    private int[] bestRow = new int[32];
+    private int[] worstRow = new int[32];
+    private int[] rowCount = new int[32];
+
+    // Per row of the book: next row in the same group
+    private int[] nextRow = new int[0];
+
+    // Open-addressed (group key -> group index) table, cleared per game
+    private long[] tableKeys = new long[64];
+    private int[] tableValues = new int[64];
+    private boolean[] tableUsed = new boolean[64];
+
+    /**
+     * Group every row of one game
+     */
+    public PriceGroups build(OddsBook book, int game) {
+        this.book = book;
+        this.size = 0;
+        if (nextRow.length < book.rowCount()) {
+            nextRow = new int[book.rowCount()];
+        }
+
+        int start = book.rowStart(game);
+        int end = book.rowEnd(game);
+        ensureTableCapacity(end - start);
+
+        for (int row = start; row < end; row++) {
+            int group = findOrAddGroup(groupKey(book, row), row);
+
+            if (rowCount[group] > 0) {
+                nextRow[lastRow[group]] = row;
+                if (book.price(row) > book.price(bestRow[group])) bestRow[group] = row;
+                if (book.price(row) < book.price(worstRow[group])) worstRow[group] = row;
+            }
+            nextRow[row] = NO_ROW;
+            lastRow[group] = row;
+            rowCount[group]++;
+        }
+
+        return this;
+    }
+
+    public int size() { return size; }
+    public int market(int group) { return book.market(firstRow[group]); }
+    public int outcome(int group) { return book.outcome(firstRow[group]); }
+    public double point(int group) { return book.point(firstRow[group]); }
+    public boolean hasPoint(int group) { return book.hasPoint(firstRow[group]); }
+    public int rowCount(int group) { return rowCount[group]; }
+    public int bestRow(int group) { return bestRow[group]; }
+    public int worstRow(int group) { return worstRow[group]; }
+    public double bestPrice(int group) { return book.price(bestRow[group]); }
+    public double worstPrice(int group) { return book.price(worstRow[group]); }
+
+    /**
+     * First row of a group; follow with {@link #nextRow} until it returns -1
+     */
+    public int firstRow(int group) { return firstRow[group]; }
+    public int nextRow(int row) { return nextRow[row]; }
+
+    /**
+     * Group key: market (8 bits) | outcome (24 bits) | point as float bits (32 bits).
+     * Points are half or quarter lines, so the float form is exact.
+     */
+    public static long groupKey(OddsBook book, int row) {
+        float point = book.hasPoint(row) ? (float) book.point(row) : Float.NaN;
+        return ((long) (book.market(row) & 0xFF) << 56)
+             | ((long) (book.outcome(row) & 0xFFFFFF) << 32)
+             | (Float.floatToIntBits(point) & 0xFFFFFFFFL);
+    }
+
+    private int findOrAddGroup(long key, int row) {
+        int mask = tableKeys.length - 1;
+        int slot = mix(key) & mask;
+
+        while (tableUsed[slot]) {
+            if (tableKeys[slot] == key) {
+                return tableValues[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        if (size == firstRow.length) {
+            int capacity = size * 2;
+            firstRow = Arrays.copyOf(firstRow, capacity);
+            lastRow = Arrays.copyOf(lastRow, capacity);
+            bestRow = Arrays.copyOf(bestRow, capacity);
+            worstRow = Arrays.copyOf(worstRow, capacity);
+            rowCount = Arrays.copyOf(rowCount, capacity);
+        }
+
+        int group = size++;
+        firstRow[group] = row;
+        lastRow[group] = row;
+        bestRow[group] = row;
+        worstRow[group] = row;
+        rowCount[group] = 0;
+
+        tableUsed[slot] = true;
+        tableKeys[slot] = key;
+        tableValues[slot] = group;
+        return group;
+    }
+
+    private void ensureTableCapacity(int rows) {
+        // Keep load factor under 0.5 even if every row is its own group
+        int needed = Integer.highestOneBit(Math.max(rows, 16) * 2 - 1) << 1;
+        if (tableKeys.length < needed) {
+            tableKeys = new long[needed];
+            tableValues = new int[needed];
+            tableUsed = new boolean[needed];
+        } else {
+            Arrays.fill(tableUsed, false);
+        }
+    }
+
+    private static int mix(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
@@ -0,0 +1,119 @@
+package com.coltwarren.sports_betting_analytics.service.odds;
+
+import com.coltwarren.sports_betting_analytics.model.odds.OddsBook;
+
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Maps hand-entered bet text ("Chiefs vs Bills", "Chiefs -3.5", "Over 48.5")
+ * onto games and outcome names as the odds feed spells them.
+ */
+public final class SelectionMatcher {
+
+    // First signed number in a selection that is not part of a word ("76ers -3.5" -> -3.5)
+    private static final Pattern LINE_PATTERN = Pattern.compile("(?<![\\w.])[+-]?\\d+(?:\\.\\d+)?(?![\\w.])");
+
+    private SelectionMatcher() {
+    }
+
+    /**
+     * Game whose two teams match an event name, or -1
+     */
+    public static int findGame(OddsBook book, String eventName) {
+        String[] teams = parseTeamsFromEvent(eventName);
+        if (teams.length < 2) {
+            return -1;
+        }
+
+        for (int game = 0; game < book.gameCount(); game++) {
+            String home = book.homeTeam(game);
+            String away = book.awayTeam(game);
+            if ((sameTeam(teams[0], home) && sameTeam(teams[1], away))
+                || (sameTeam(teams[0], away) && sameTeam(teams[1], home))) {
+                return game;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * First game where the selection names exactly one of the teams, or -1
+     */
+    public static int findGameBySelection(OddsBook book, String selection) {
+        for (int game = 0; game < book.gameCount(); game++) {
+            if (resolveTeam(book, game, selection) != null) {
+                return game;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Outcome name as the feed spells it: a team for moneyline/spread, Over/Under for totals
+     */
+    public static String resolveOutcome(OddsBook book, int game, String betType, String selection) {
+        String type = betType.toUpperCase(Locale.ROOT);
+        String lower = selection.toLowerCase(Locale.ROOT);
+
+        if (type.equals("TOTAL_OVER") || (type.startsWith("TOTAL") && lower.startsWith("over"))) {
+            return "Over";
+        }
+        if (type.equals("TOTAL_UNDER") || (type.startsWith("TOTAL") && lower.startsWith("under"))) {
+            return "Under";
+        }
+        return resolveTeam(book, game, selection);
+    }
+
+    /**
+     * Signed line in a selection ("Chiefs -3.5" -> -3.5), or null
+     */
+    public static Double extractLine(String selection) {
+        Matcher matcher = LINE_PATTERN.matcher(selection);
+        return matcher.find() ? Double.parseDouble(matcher.group()) : null;
+    }
+
+    public static String[] parseTeamsFromEvent(String eventName) {
+        // Same formats AutoSettleService accepts: "Team1 vs Team2", "Team1 @ Team2", "Team1 - Team2"
+        if (eventName.contains(" vs ")) {
+            return eventName.split(" vs ");
+        } else if (eventName.contains(" @ ")) {
+            return eventName.split(" @ ");
+        } else if (eventName.contains(" - ")) {
+            return eventName.split(" - ");
+        }
+        return new String[]{eventName};
+    }
+
+    private static String resolveTeam(OddsBook book, int game, String selection) {
+        String lower = selection.toLowerCase(Locale.ROOT);
+        String home = book.homeTeam(game);
+        String away = book.awayTeam(game);
+
+        boolean homeNamed = lower.contains(home.toLowerCase(Locale.ROOT));
+        boolean awayNamed = lower.contains(away.toLowerCase(Locale.ROOT));
+        if (homeNamed != awayNamed) {
+            return homeNamed ? home : away;
+        }
+
+        // Fall back to nicknames ("Chiefs -3.5")
+        boolean homeNick = lower.contains(nickname(home));
+        boolean awayNick = lower.contains(nickname(away));
+        if (homeNick != awayNick) {
+            return homeNick ? home : away;
+        }
+        return null;
+    }
+
+    private static boolean sameTeam(String eventTeam, String feedTeam) {
+        String a = eventTeam.trim().toLowerCase(Locale.ROOT);
+        String b = feedTeam.toLowerCase(Locale.ROOT);
+        return !a.isEmpty() && (a.equals(b) || b.contains(a) || a.contains(b) || a.contains(nickname(feedTeam)));
+    }
+
+    private static String nickname(String team) {
+        String lower = team.toLowerCase(Locale.ROOT);
+        return lower.substring(lower.lastIndexOf(' ') + 1);
+    }
+}
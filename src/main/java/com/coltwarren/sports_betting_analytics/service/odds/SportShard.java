@@ -0,0 +1,27 @@
+package com.coltwarren.sports_betting_analytics.service.odds;
+
+import com.coltwarren.sports_betting_analytics.model.odds.OddsBook;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Immutable view of one sport's odds: the latest full snapshot plus its
+ * games keyed by id, in feed order. Readers hold on to whichever shard
+ * they got for as long as they like; writers only ever replace it.
+ */
+public record SportShard(String sportKey, OddsBook book, Map<String, GameShard> gamesById,
+                         long version, long updatedAtMillis) {
+
+    public GameShard game(String gameId) {
+        return gamesById.get(gameId);
+    }
+
+    public Collection<GameShard> games() {
+        return gamesById.values();
+    }
+
+    public int gameCount() {
+        return gamesById.size();
+    }
+}
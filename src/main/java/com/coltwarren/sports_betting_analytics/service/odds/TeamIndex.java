@@ -0,0 +1,233 @@
+package com.coltwarren.sports_betting_analytics.service.odds;
+
+import com.coltwarren.sports_betting_analytics.model.odds.OddsBook;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+
+/**
+ * Team lookup over one odds snapshot.
+ *
+ * Built once per snapshot in a single pass over its rows:
+ *   - normalized team names and aliases ("chiefs", "kansas city") -> team
+ *   - per team and market, the per-book prices and best book, already in
+ *     the response shape of {@link OddsService#findBestOdds}
+ *   - a sorted key set for prefix (autocomplete) search
+ *
+ * Immutable once built, so it is shared by all readers of the snapshot.
+ */
+public final class TeamIndex {
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern NON_ALPHANUMERIC = Pattern.compile("[^a-z0-9 ]+");
+    private static final Pattern SPACES = Pattern.compile("\\s+");
+
+    private final OddsBook source;
+
+    // normalized full name -> team as the feed spells it
+    private final Map<String, String> teams = new HashMap<>();
+    // normalized alias -> teams sharing it ("new york" -> Giants, Jets)
+    private final Map<String, List<String>> aliases = new HashMap<>();
+    // every name and alias, sorted for prefix search
+    private final TreeMap<String, Set<String>> searchKeys = new TreeMap<>();
+
+    // team -> base result (game info) and team -> market -> full result
+    private final Map<String, Map<String, Object>> gameResults = new HashMap<>();
+    private final Map<String, Map<String, Map<String, Object>>> marketResults = new HashMap<>();
+
+    private TeamIndex(OddsBook source) {
+        this.source = source;
+    }
+
+    public static TeamIndex build(OddsBook book) {
+        TeamIndex index = new TeamIndex(book);
+
+        // First game per team wins, as the old linear scan did
+        Map<String, Integer> gameOfTeam = new HashMap<>();
+        for (int game = 0; game < book.gameCount(); game++) {
+            index.addTeam(book.homeTeam(game), game, gameOfTeam);
+            index.addTeam(book.awayTeam(game), game, gameOfTeam);
+        }
+
+        // One pass over the rows: collect each team's prices per market
+        for (int game = 0; game < book.gameCount(); game++) {
+            String home = book.homeTeam(game);
+            String away = book.awayTeam(game);
+
+            for (int row = book.rowStart(game); row < book.rowEnd(game); row++) {
+                String outcome = book.outcomeName(row);
+                String team = outcome.equalsIgnoreCase(home) ? home : outcome.equalsIgnoreCase(away) ? away : null;
+                if (team == null || gameOfTeam.get(team) != game) {
+                    continue;
+                }
+                index.addPrice(team, book.marketKey(row), book.bookTitle(row), book.price(row), book.pointOrNull(row));
+            }
+        }
+
+        index.seal();
+        return index;
+    }
+
+    public OddsBook getSource() {
+        return source;
+    }
+
+    /**
+     * Team as the feed spells it, from a full name or an unambiguous alias; null if unknown
+     */
+    public String resolveTeam(String query) {
+        if (query == null) {
+            return null;
+        }
+        String key = normalize(query);
+        String team = teams.get(key);
+        if (team != null) {
+            return team;
+        }
+        List<String> matches = aliases.get(key);
+        return matches != null && matches.size() == 1 ? matches.get(0) : null;
+    }
+
+    /**
+     * Per-book prices and the best book for a team in one market (see OddsService#findBestOdds)
+     */
+    public Map<String, Object> findBestOdds(String teamName, String marketKey) {
+        String team = resolveTeam(teamName);
+        if (team == null) {
+            Map<String, Object> notFound = new HashMap<>();
+            notFound.put("found", false);
+            return notFound;
+        }
+
+        Map<String, Object> result = marketResults.getOrDefault(team, Map.of()).get(marketKey);
+        return result != null ? result : gameResults.get(team);
+    }
+
+    /**
+     * Teams whose name or alias starts with the prefix, alphabetically by matching key
+     */
+    public List<String> suggest(String prefix, int limit) {
+        String key = normalize(prefix);
+        Set<String> result = new LinkedHashSet<>();
+        if (key.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        for (Set<String> matches : searchKeys.subMap(key, true, key + Character.MAX_VALUE, false).values()) {
+            for (String team : matches) {
+                result.add(team);
+                if (result.size() == limit) {
+                    return List.copyOf(result);
+                }
+            }
+        }
+        return List.copyOf(result);
+    }
+
+    public int teamCount() {
+        return teams.size();
+    }
+
+    /**
+     * Lowercase, strip accents and punctuation, collapse spaces ("St. Louis" -> "st louis")
+     */
+    static String normalize(String name) {
+        String decomposed = DIACRITICS.matcher(Normalizer.normalize(name, Normalizer.Form.NFD)).replaceAll("");
+        String cleaned = NON_ALPHANUMERIC.matcher(decomposed.toLowerCase(Locale.ROOT)).replaceAll(" ");
+        return SPACES.matcher(cleaned).replaceAll(" ").trim();
+    }
+
+    // ============================================
+    // BUILDING
+    // ============================================
+
+    private void addTeam(String team, int game, Map<String, Integer> gameOfTeam) {
+        if (team == null || gameOfTeam.containsKey(team)) {
+            return;
+        }
+        gameOfTeam.put(team, game);
+
+        String key = normalize(team);
+        teams.put(key, team);
+        addSearchKey(key, team);
+
+        // Aliases: nickname ("chiefs"), two-word nickname ("red sox"), location ("kansas city")
+        String[] words = key.split(" ");
+        if (words.length > 1) {
+            addAlias(words[words.length - 1], team);
+            addAlias(String.join(" ", Arrays.copyOf(words, words.length - 1)), team);
+        }
+        if (words.length > 2) {
+            addAlias(words[words.length - 2] + " " + words[words.length - 1], team);
+            addAlias(String.join(" ", Arrays.copyOf(words, words.length - 2)), team);
+        }
+
+        Map<String, Object> base = new HashMap<>();
+        base.put("found", true);
+        base.put("game", String.format("%s vs %s", source.awayTeam(game), source.homeTeam(game)));
+        base.put("commence_time", source.commenceTime(game));
+        base.put("bookmakers", Map.of());
+        gameResults.put(team, base);
+    }
+
+    private void addAlias(String alias, String team) {
+        List<String> shared = aliases.computeIfAbsent(alias, k -> new ArrayList<>(1));
+        if (!shared.contains(team)) {
+            shared.add(team);
+        }
+        addSearchKey(alias, team);
+    }
+
+    private void addSearchKey(String key, String team) {
+        searchKeys.computeIfAbsent(key, k -> new LinkedHashSet<>()).add(team);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void addPrice(String team, String marketKey, String bookTitle, double price, Double point) {
+        Map<String, Object> result = marketResults
+            .computeIfAbsent(team, t -> new HashMap<>())
+            .computeIfAbsent(marketKey, m -> {
+                Map<String, Object> fresh = new HashMap<>(gameResults.get(team));
+                fresh.put("bookmakers", new HashMap<String, Map<String, Object>>());
+                return fresh;
+            });
+
+        Map<String, Object> oddsData = new HashMap<>();
+        oddsData.put("price", price);
+        if (point != null) {
+            oddsData.put("point", point);
+        }
+        ((Map<String, Map<String, Object>>) result.get("bookmakers")).put(bookTitle, oddsData);
+
+        Double bestOdds = (Double) result.get("bestOdds");
+        if (bestOdds == null || price > bestOdds) {
+            result.put("bestBook", bookTitle);
+            result.put("bestOdds", price);
+        }
+    }
+
+    /**
+     * Freeze every precomputed response so readers can share them
+     */
+    @SuppressWarnings("unchecked")
+    private void seal() {
+        gameResults.replaceAll((team, result) -> Collections.unmodifiableMap(result));
+        for (Map<String, Map<String, Object>> byMarket : marketResults.values()) {
+            byMarket.replaceAll((market, result) -> {
+                result.put("bookmakers", Collections.unmodifiableMap(
+                    (Map<String, Map<String, Object>>) result.get("bookmakers")));
+                return Collections.unmodifiableMap(result);
+            });
+        }
+    }
+}
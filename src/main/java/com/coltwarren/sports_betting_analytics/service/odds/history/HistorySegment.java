@@ -0,0 +1,147 @@
+package com.coltwarren.sports_betting_analytics.service.odds.history;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * One memory-mapped segment file of fixed-size price ticks.
+ *
+ * Layout (little endian):
+ *   header  32 bytes: magic, version, tickCount, capacity, minTimestamp, maxTimestamp
+ *   tick    32 bytes: timestamp (long), seriesId (int), flags (int), price (double), point (double)
+ *
+ * A single writer appends; readers only look at ticks below the published
+ * count, so reads need no locks.
+ */
+final class HistorySegment {
+
+    static final int MAGIC = 0x4F444853; // "ODHS"
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 32;
+    static final int TICK_BYTES = 32;
+
+    static final int FLAG_REMOVED = 1;
+
+    private static final int COUNT_OFFSET = 8;
+    private static final int CAPACITY_OFFSET = 12;
+    private static final int MIN_TS_OFFSET = 16;
+    private static final int MAX_TS_OFFSET = 24;
+
+    private final long sequence;
+    private final Path path;
+    private final MappedByteBuffer buffer;
+    private final int capacity;
+    private volatile int count;
+    private volatile long minTimestamp;
+    private volatile long maxTimestamp;
+
+    private HistorySegment(long sequence, Path path, MappedByteBuffer buffer) {
+        this.sequence = sequence;
+        this.path = path;
+        this.buffer = buffer;
+        this.buffer.order(ByteOrder.LITTLE_ENDIAN);
+
+        if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+            throw new IllegalStateException("Not an odds history segment: " + path);
+        }
+        this.capacity = buffer.getInt(CAPACITY_OFFSET);
+        this.count = buffer.getInt(COUNT_OFFSET);
+        this.minTimestamp = buffer.getLong(MIN_TS_OFFSET);
+        this.maxTimestamp = buffer.getLong(MAX_TS_OFFSET);
+    }
+
+    /**
+     * Create a new, empty segment sized for {@code capacity} ticks
+     */
+    static HistorySegment create(long sequence, Path path, int capacity) {
+        long size = HEADER_BYTES + (long) capacity * TICK_BYTES;
+        try (FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            buffer.putInt(0, MAGIC);
+            buffer.putInt(4, VERSION);
+            buffer.putInt(COUNT_OFFSET, 0);
+            buffer.putInt(CAPACITY_OFFSET, capacity);
+            buffer.putLong(MIN_TS_OFFSET, Long.MAX_VALUE);
+            buffer.putLong(MAX_TS_OFFSET, Long.MIN_VALUE);
+            return new HistorySegment(sequence, path, buffer);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to create history segment " + path, e);
+        }
+    }
+
+    /**
+     * Map an existing segment. Sealed segments are mapped read-only.
+     */
+    static HistorySegment open(long sequence, Path path, boolean writable) {
+        StandardOpenOption[] options = writable
+            ? new StandardOpenOption[] { StandardOpenOption.READ, StandardOpenOption.WRITE }
+            : new StandardOpenOption[] { StandardOpenOption.READ };
+        try (FileChannel channel = FileChannel.open(path, options)) {
+            FileChannel.MapMode mode = writable ? FileChannel.MapMode.READ_WRITE : FileChannel.MapMode.READ_ONLY;
+            return new HistorySegment(sequence, path, channel.map(mode, 0, Files.size(path)));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open history segment " + path, e);
+        }
+    }
+
+    /**
+     * Append one tick; returns its index, or -1 if the segment is full
+     */
+    int append(long timestamp, int seriesId, int flags, double price, double point) {
+        int index = count;
+        if (index >= capacity) {
+            return -1;
+        }
+
+        int offset = offset(index);
+        buffer.putLong(offset, timestamp);
+        buffer.putInt(offset + 8, seriesId);
+        buffer.putInt(offset + 12, flags);
+        buffer.putDouble(offset + 16, price);
+        buffer.putDouble(offset + 24, point);
+
+        if (timestamp < minTimestamp) {
+            minTimestamp = timestamp;
+            buffer.putLong(MIN_TS_OFFSET, timestamp);
+        }
+        if (timestamp > maxTimestamp) {
+            maxTimestamp = timestamp;
+            buffer.putLong(MAX_TS_OFFSET, timestamp);
+        }
+
+        // Publish only after the tick itself is written
+        buffer.putInt(COUNT_OFFSET, index + 1);
+        count = index + 1;
+        return index;
+    }
+
+    long timestamp(int index) { return buffer.getLong(offset(index)); }
+    int seriesId(int index) { return buffer.getInt(offset(index) + 8); }
+    int flags(int index) { return buffer.getInt(offset(index) + 12); }
+    double price(int index) { return buffer.getDouble(offset(index) + 16); }
+    double point(int index) { return buffer.getDouble(offset(index) + 24); }
+
+    long sequence() { return sequence; }
+    Path path() { return path; }
+    int count() { return count; }
+    int capacity() { return capacity; }
+    boolean isFull() { return count >= capacity; }
+    long minTimestamp() { return minTimestamp; }
+    long maxTimestamp() { return maxTimestamp; }
+
+    void force() {
+        buffer.force();
+    }
+
+    private static int offset(int index) {
+        return HEADER_BYTES + index * TICK_BYTES;
+    }
+}
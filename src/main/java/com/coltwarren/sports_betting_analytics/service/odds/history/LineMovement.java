@@ -0,0 +1,13 @@
+package com.coltwarren.sports_betting_analytics.service.odds.history;
+
+/**
+ * How an outcome's price at one book has moved since it was first recorded.
+ */
+public record LineMovement(
+        String bookmaker,
+        PriceTick open,
+        PriceTick current,
+        double priceChange,
+        Double pointChange,
+        int ticks) {
+}
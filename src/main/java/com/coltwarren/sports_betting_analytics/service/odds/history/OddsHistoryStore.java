@@ -0,0 +1,211 @@
+package com.coltwarren.sports_betting_analytics.service.odds.history;
+
+import com.coltwarren.sports_betting_analytics.service.odds.OddsDelta;
+import com.coltwarren.sports_betting_analytics.service.odds.OddsUpdate;
+import com.coltwarren.sports_betting_analytics.service.odds.OddsUpdateListener;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * OddsHistoryStore - Append-only price history for line-movement analysis
+ *
+ * Every changed price from the poller is appended as a fixed-size tick to a
+ * memory-mapped segment file per sport. Point-in-time lookups ("what was
+ * DraftKings' price at kickoff?") and open-to-current line movement are
+ * answered from an in-memory per-series index without touching the database.
+ *
+ * Old segments are dropped after the retention window, and a nightly
+ * compaction rewrites the day's segments without repeated or expired
+ * ticks, as sealed segments that retention can drop in turn.
+ *
+ * @author Colt Warren
+ * @version 1.0
+ */
+@Service
+public class OddsHistoryStore implements OddsUpdateListener {
+
+    private static final Logger log = LoggerFactory.getLogger(OddsHistoryStore.class);
+
+    // Segment offsets are ints, so one segment can hold at most this many ticks
+    private static final int MAX_TICKS_PER_SEGMENT =
+        (Integer.MAX_VALUE - HistorySegment.HEADER_BYTES) / HistorySegment.TICK_BYTES;
+
+    private final boolean enabled;
+    private final Path baseDirectory;
+    private final int ticksPerSegment;
+    private final Duration retention;
+
+    private final Map<String, SportHistory> sports = new ConcurrentHashMap<>();
+
+    @Autowired
+    public OddsHistoryStore(@Value("${odds.history.enabled:true}") boolean enabled,
+                            @Value("${odds.history.dir:data/odds-history}") String directory,
+                            @Value("${odds.history.ticks-per-segment:1000000}") int ticksPerSegment,
+                            @Value("${odds.history.retention-days:30}") long retentionDays) {
+        this.enabled = enabled;
+        this.baseDirectory = Paths.get(directory);
+        this.ticksPerSegment = Math.max(1, Math.min(ticksPerSegment, MAX_TICKS_PER_SEGMENT));
+        this.retention = Duration.ofDays(retentionDays);
+    }
+
+    // ============================================
+    // INGESTION
+    // ============================================
+
+    @Override
+    public void onOddsUpdate(OddsUpdate update) {
+        if (!enabled || !update.hasChanges()) {
+            return;
+        }
+
+        SportHistory history = sport(update.getSportKey());
+        long timestamp = update.getReceivedAtMillis();
+
+        for (OddsDelta delta : update.getDeltas()) {
+            boolean removed = delta.isRemovedOutcome();
+            Double price = removed ? delta.getPreviousPrice() : delta.getPrice();
+            Double point = removed ? delta.getPreviousPoint() : delta.getPoint();
+            if (price == null) continue;
+
+            history.append(timestamp, delta.getGameId(), delta.getBookmaker(), delta.getMarketKey(),
+                delta.getOutcome(), price, point != null ? point : Double.NaN, removed);
+        }
+    }
+
+    // ============================================
+    // QUERIES
+    // ============================================
+
+    /**
+     * Price quoted by one book at a point in time, or null if it had none yet
+     */
+    public PriceTick priceAt(String sportKey, String gameId, String bookmaker,
+                             String market, String outcome, Instant at) {
+        SportHistory history = existingSport(sportKey);
+        return history == null ? null : history.priceAt(gameId, bookmaker, market, outcome, at.toEpochMilli());
+    }
+
+    /**
+     * Every book's price for one outcome at a point in time (e.g. the closing line at commence time)
+     */
+    public Map<String, PriceTick> pricesAt(String sportKey, String gameId, String market,
+                                           String outcome, Instant at) {
+        SportHistory history = existingSport(sportKey);
+        return history == null ? Map.of() : history.pricesAt(gameId, market, outcome, at.toEpochMilli());
+    }
+
+    /**
+     * Opening vs current price per book for one outcome
+     */
+    public List<LineMovement> getLineMovement(String sportKey, String gameId, String market, String outcome) {
+        SportHistory history = existingSport(sportKey);
+        return history == null ? List.of() : history.lineMovement(gameId, market, outcome);
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("directory", baseDirectory.toAbsolutePath().toString());
+
+        Map<String, Object> perSport = new LinkedHashMap<>();
+        for (Map.Entry<String, SportHistory> entry : sports.entrySet()) {
+            Map<String, Object> sport = new HashMap<>();
+            sport.put("segments", entry.getValue().segmentCount());
+            sport.put("series", entry.getValue().seriesCount());
+            perSport.put(entry.getKey(), sport);
+        }
+        stats.put("sports", perSport);
+        return stats;
+    }
+
+    // ============================================
+    // MAINTENANCE
+    // ============================================
+
+    @Scheduled(cron = "${odds.history.maintenance-cron:0 30 4 * * *}")
+    public void runMaintenance() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            enforceRetention();
+            compact();
+        } catch (Exception e) {
+            log.error("Error maintaining odds history", e);
+        }
+    }
+
+    /**
+     * Delete sealed segments older than the retention window; returns segments deleted per sport
+     */
+    public Map<String, Integer> enforceRetention() {
+        long cutoff = retentionCutoffMillis();
+        Map<String, Integer> deleted = new LinkedHashMap<>();
+        sports.forEach((sportKey, history) -> deleted.put(sportKey, history.enforceRetention(cutoff)));
+        return deleted;
+    }
+
+    /**
+     * Rewrite segments written since the last compaction without repeated ticks or
+     * ticks past the retention window; returns ticks dropped per sport
+     */
+    public Map<String, Integer> compact() {
+        long cutoff = retentionCutoffMillis();
+        Map<String, Integer> dropped = new LinkedHashMap<>();
+        sports.forEach((sportKey, history) -> dropped.put(sportKey, history.compact(cutoff)));
+        return dropped;
+    }
+
+    private long retentionCutoffMillis() {
+        return System.currentTimeMillis() - retention.toMillis();
+    }
+
+    @PreDestroy
+    public void close() {
+        for (Map.Entry<String, SportHistory> entry : sports.entrySet()) {
+            try {
+                entry.getValue().close();
+            } catch (Exception e) {
+                log.warn("Error closing odds history for {}: {}", entry.getKey(), e.getMessage());
+            }
+        }
+    }
+
+    // ============================================
+    // HELPERS
+    // ============================================
+
+    private SportHistory sport(String sportKey) {
+        return sports.computeIfAbsent(sportKey,
+            key -> new SportHistory(baseDirectory.resolve(key), ticksPerSegment));
+    }
+
+    /**
+     * Open a sport's history on first read too, so lookups work right after a restart
+     */
+    private SportHistory existingSport(String sportKey) {
+        if (!enabled || sportKey == null) {
+            return null;
+        }
+        SportHistory history = sports.get(sportKey);
+        if (history == null && baseDirectory.resolve(sportKey).toFile().isDirectory()) {
+            history = sport(sportKey);
+        }
+        return history;
+    }
+}
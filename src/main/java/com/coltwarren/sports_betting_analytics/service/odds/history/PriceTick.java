@@ -0,0 +1,8 @@
+package com.coltwarren.sports_betting_analytics.service.odds.history;
+
+/**
+ * One recorded price for an outcome at a book. {@code removed} marks the
+ * moment the book pulled the outcome from the board.
+ */
+public record PriceTick(long timestamp, double price, Double point, boolean removed) {
+}
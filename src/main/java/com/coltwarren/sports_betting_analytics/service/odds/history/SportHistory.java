@@ -0,0 +1,591 @@
+package com.coltwarren.sports_betting_analytics.service.odds.history;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Stream;
+
+/**
+ * Append-only price history for one sport.
+ *
+ * On disk: a series dictionary (series.dict, one "id TAB game TAB book TAB market TAB outcome"
+ * line per series) plus numbered segment files (seg-N.dat). In memory: per series,
+ * the timestamps and segment locations of its ticks, so a point-in-time
+ * lookup is a binary search followed by one read from the mapped segment.
+ *
+ * The segment map and the index are published together as one immutable
+ * {@link State}. A reader takes the state once and resolves every location
+ * against that state's segments, so retention and compaction (which
+ * publish a new state, then delete files) never hand it a tick from a
+ * different segment. Segment sequence numbers only grow and are never
+ * reused.
+ *
+ * Compaction rewrites only what was written since the previous one into
+ * sealed segments of at most ticksPerSegment ticks, so every segment covers
+ * a bounded stretch of time and retention can expire it as a whole. The
+ * last sequence compaction produced is kept in a small marker file.
+ */
+final class SportHistory {
+
+    private static final Logger log = LoggerFactory.getLogger(SportHistory.class);
+
+    private static final String DICT_FILE = "series.dict";
+    private static final String SEGMENT_PREFIX = "seg-";
+    private static final String SEGMENT_SUFFIX = ".dat";
+    private static final String COMPACT_SUFFIX = ".compact";
+    private static final String COMPACTED_FILE = "compacted";
+
+    /**
+     * Tick timestamps and locations (segment sequence << 32 | tick index) of one series
+     */
+    static final class SeriesTicks {
+        private long[] timestamps = new long[8];
+        private long[] locations = new long[8];
+        private int size;
+
+        synchronized boolean add(long timestamp, long location) {
+            // Out-of-order ticks can only come from an interrupted compaction; skip them
+            if (size > 0 && timestamp < timestamps[size - 1]) {
+                return false;
+            }
+            if (size == timestamps.length) {
+                timestamps = Arrays.copyOf(timestamps, size * 2);
+                locations = Arrays.copyOf(locations, size * 2);
+            }
+            timestamps[size] = timestamp;
+            locations[size] = location;
+            size++;
+            return true;
+        }
+
+        /**
+         * Location of the last tick at or before the timestamp, or -1
+         */
+        synchronized long floor(long timestamp) {
+            int low = 0;
+            int high = size - 1;
+            int found = -1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                if (timestamps[mid] <= timestamp) {
+                    found = mid;
+                    low = mid + 1;
+                } else {
+                    high = mid - 1;
+                }
+            }
+            return found < 0 ? -1 : locations[found];
+        }
+
+        synchronized long first() { return size == 0 ? -1 : locations[0]; }
+        synchronized long last() { return size == 0 ? -1 : locations[size - 1]; }
+        synchronized int size() { return size; }
+    }
+
+    private final Path directory;
+    private final int ticksPerSegment;
+
+    private final Map<String, Integer> seriesIds = new ConcurrentHashMap<>();
+    private final List<String[]> seriesNames = new CopyOnWriteArrayList<>();
+    // game|market|outcome -> series ids (one per book)
+    private final Map<String, List<Integer>> seriesByOutcome = new ConcurrentHashMap<>();
+    private final BufferedWriter dictWriter;
+
+    /**
+     * Segments by sequence plus the index whose locations point into them.
+     * Replaced as a whole; appends only add ticks to the current index.
+     */
+    private record State(NavigableMap<Long, HistorySegment> segments, Map<Integer, SeriesTicks> index) {
+    }
+
+    private volatile State state;
+    private HistorySegment active;
+    // Segments up to this sequence were written by compaction and are not rewritten again
+    private long compactedThrough = -1;
+
+    SportHistory(Path directory, int ticksPerSegment) {
+        this.directory = directory;
+        this.ticksPerSegment = ticksPerSegment;
+
+        try {
+            Files.createDirectories(directory);
+            loadDictionary();
+            loadCompactedThrough();
+            this.dictWriter = Files.newBufferedWriter(directory.resolve(DICT_FILE), StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open odds history in " + directory, e);
+        }
+
+        NavigableMap<Long, HistorySegment> segments = loadSegments();
+        this.state = new State(segments, buildIndex(segments));
+    }
+
+    // ============================================
+    // WRITES
+    // ============================================
+
+    synchronized void append(long timestamp, String gameId, String bookmaker, String market, String outcome,
+                             double price, double point, boolean removed) {
+        int seriesId = seriesId(gameId, bookmaker, market, outcome);
+        int flags = removed ? HistorySegment.FLAG_REMOVED : 0;
+
+        int tick = active.append(timestamp, seriesId, flags, price, point);
+        if (tick < 0) {
+            roll();
+            tick = active.append(timestamp, seriesId, flags, price, point);
+        }
+
+        state.index().computeIfAbsent(seriesId, id -> new SeriesTicks())
+                     .add(timestamp, location(active.sequence(), tick));
+    }
+
+    synchronized void flush() {
+        active.force();
+        try {
+            dictWriter.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    synchronized void close() {
+        flush();
+        try {
+            dictWriter.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // ============================================
+    // READS (lock-free apart from the per-series monitor)
+    // ============================================
+
+    PriceTick priceAt(String gameId, String bookmaker, String market, String outcome, long timestamp) {
+        Integer seriesId = seriesIds.get(seriesKey(gameId, bookmaker, market, outcome));
+        if (seriesId == null) {
+            return null;
+        }
+        State current = state;
+        SeriesTicks ticks = current.index().get(seriesId);
+        return ticks == null ? null : read(current, ticks.floor(timestamp));
+    }
+
+    /**
+     * Price at every book for one outcome at a point in time (books with no tick yet are left out)
+     */
+    Map<String, PriceTick> pricesAt(String gameId, String market, String outcome, long timestamp) {
+        State current = state;
+        Map<String, PriceTick> result = new LinkedHashMap<>();
+        for (Integer seriesId : seriesByOutcome.getOrDefault(outcomeKey(gameId, market, outcome), List.of())) {
+            SeriesTicks ticks = current.index().get(seriesId);
+            PriceTick tick = ticks == null ? null : read(current, ticks.floor(timestamp));
+            if (tick != null) {
+                result.put(seriesNames.get(seriesId)[1], tick);
+            }
+        }
+        return result;
+    }
+
+    List<LineMovement> lineMovement(String gameId, String market, String outcome) {
+        State snapshot = state;
+        List<LineMovement> result = new ArrayList<>();
+        for (Integer seriesId : seriesByOutcome.getOrDefault(outcomeKey(gameId, market, outcome), List.of())) {
+            SeriesTicks ticks = snapshot.index().get(seriesId);
+            if (ticks == null) continue;
+
+            PriceTick open = read(snapshot, ticks.first());
+            PriceTick current = read(snapshot, ticks.last());
+            if (open == null || current == null) continue;
+
+            Double pointChange = open.point() != null && current.point() != null
+                ? current.point() - open.point() : null;
+            result.add(new LineMovement(seriesNames.get(seriesId)[1], open, current,
+                current.price() - open.price(), pointChange, ticks.size()));
+        }
+        return result;
+    }
+
+    int segmentCount() { return state.segments().size(); }
+    int seriesCount() { return seriesNames.size(); }
+
+    // ============================================
+    // RETENTION & COMPACTION
+    // ============================================
+
+    /**
+     * Delete sealed segments whose newest tick is older than the cutoff
+     */
+    synchronized int enforceRetention(long cutoffMillis) {
+        List<HistorySegment> expired = new ArrayList<>();
+        for (HistorySegment segment : sealedSegments()) {
+            if (segment.count() > 0 && segment.maxTimestamp() < cutoffMillis) {
+                expired.add(segment);
+            }
+        }
+        if (expired.isEmpty()) {
+            return 0;
+        }
+
+        NavigableMap<Long, HistorySegment> segments = new TreeMap<>(state.segments());
+        expired.forEach(segment -> segments.remove(segment.sequence()));
+        publish(segments);
+
+        expired.forEach(segment -> deleteQuietly(segment.path()));
+        return expired.size();
+    }
+
+    /**
+     * Rewrite the segments written since the last compaction (the active one
+     * included) as sealed segments of at most ticksPerSegment ticks, dropping
+     * ticks older than the cutoff and ticks that repeat the previous
+     * price/point/flags of the same series (e.g. after a restart the poller
+     * reports every outcome as new again). Earlier compacted segments are only
+     * read, to seed each series' previous tick, and are left to retention.
+     * The output takes the next sequence numbers and a fresh active segment
+     * the one after them, so no location is ever reused.
+     *
+     * @return ticks dropped
+     */
+    synchronized int compact(long cutoffMillis) {
+        NavigableMap<Long, HistorySegment> current = state.segments();
+        List<HistorySegment> compacted = new ArrayList<>(current.headMap(compactedThrough, true).values());
+        List<HistorySegment> merged = new ArrayList<>(current.tailMap(compactedThrough, false).values());
+        int total = merged.stream().mapToInt(HistorySegment::count).sum();
+        if (total == 0) {
+            return 0;
+        }
+
+        int series = seriesNames.size();
+        int kept = 0;
+        TickFilter counter = new TickFilter(series, cutoffMillis, compacted);
+        for (HistorySegment segment : merged) {
+            for (int i = 0; i < segment.count(); i++) {
+                if (counter.keep(segment, i)) kept++;
+            }
+        }
+
+        // Sized exactly, so every output segment is sealed as soon as it is written
+        TickFilter filter = new TickFilter(series, cutoffMillis, compacted);
+        List<HistorySegment> outputs = new ArrayList<>();
+        long sequence = active.sequence();
+        HistorySegment output = null;
+        int written = 0;
+        for (HistorySegment segment : merged) {
+            for (int i = 0; i < segment.count(); i++) {
+                if (!filter.keep(segment, i)) continue;
+                if (output == null || output.isFull()) {
+                    if (output != null) outputs.add(install(output));
+                    sequence++;
+                    Path compactPath = directory.resolve(SEGMENT_PREFIX + sequence + COMPACT_SUFFIX);
+                    deleteQuietly(compactPath);
+                    output = HistorySegment.create(sequence, compactPath, Math.min(ticksPerSegment, kept - written));
+                }
+                output.append(segment.timestamp(i), segment.seriesId(i), segment.flags(i),
+                              segment.price(i), segment.point(i));
+                written++;
+            }
+        }
+        if (output != null) outputs.add(install(output));
+        active.force();
+
+        long nextSequence = sequence + 1;
+        active = HistorySegment.create(nextSequence, segmentPath(nextSequence), ticksPerSegment);
+
+        NavigableMap<Long, HistorySegment> segments = new TreeMap<>(current.headMap(compactedThrough, true));
+        outputs.forEach(segment -> segments.put(segment.sequence(), segment));
+        segments.put(nextSequence, active);
+        publish(segments);
+
+        compactedThrough = sequence;
+        saveCompactedThrough();
+
+        // Readers still on the old state keep the old buffers mapped until they drop it
+        merged.forEach(segment -> deleteQuietly(segment.path()));
+        return total - kept;
+    }
+
+    // ============================================
+    // INTERNALS
+    // ============================================
+
+    /**
+     * Decides which ticks compaction keeps, remembering each series' last kept tick
+     */
+    private static final class TickFilter {
+        private final long cutoffMillis;
+        private final double[] lastPrice;
+        private final double[] lastPoint;
+        private final int[] lastFlags;
+        private final long[] lastTimestamp;
+        private final boolean[] seen;
+
+        TickFilter(int series, long cutoffMillis, List<HistorySegment> earlier) {
+            this.cutoffMillis = cutoffMillis;
+            this.lastPrice = new double[series];
+            this.lastPoint = new double[series];
+            this.lastFlags = new int[series];
+            this.lastTimestamp = new long[series];
+            this.seen = new boolean[series];
+            for (HistorySegment segment : earlier) {
+                for (int i = 0; i < segment.count(); i++) {
+                    int id = segment.seriesId(i);
+                    if (id < series) remember(segment, i, id);
+                }
+            }
+        }
+
+        boolean keep(HistorySegment segment, int i) {
+            int id = segment.seriesId(i);
+            if (id >= seen.length || segment.timestamp(i) < cutoffMillis) {
+                return false;
+            }
+            if (seen[id]) {
+                // Out-of-order ticks can only come from an interrupted compaction
+                if (segment.timestamp(i) < lastTimestamp[id]) {
+                    return false;
+                }
+                if (Double.compare(lastPrice[id], segment.price(i)) == 0
+                        && Double.compare(lastPoint[id], segment.point(i)) == 0
+                        && lastFlags[id] == segment.flags(i)) {
+                    return false;
+                }
+            }
+            remember(segment, i, id);
+            return true;
+        }
+
+        private void remember(HistorySegment segment, int i, int id) {
+            seen[id] = true;
+            lastPrice[id] = segment.price(i);
+            lastPoint[id] = segment.point(i);
+            lastFlags[id] = segment.flags(i);
+            lastTimestamp[id] = segment.timestamp(i);
+        }
+    }
+
+    /**
+     * Flush a compaction output and install it under its own name, mapped read-only
+     */
+    private HistorySegment install(HistorySegment output) {
+        output.force();
+        Path target = segmentPath(output.sequence());
+        try {
+            Files.move(output.path(), target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to install compacted segment " + target, e);
+        }
+        return HistorySegment.open(output.sequence(), target, false);
+    }
+
+    private List<HistorySegment> sealedSegments() {
+        List<HistorySegment> sealed = new ArrayList<>();
+        for (HistorySegment segment : state.segments().values()) {
+            if (segment != active) {
+                sealed.add(segment);
+            }
+        }
+        return sealed;
+    }
+
+    private void roll() {
+        active.force();
+        long next = active.sequence() + 1;
+        active = HistorySegment.create(next, segmentPath(next), ticksPerSegment);
+
+        // The index is unchanged: existing locations still resolve to the same segments
+        NavigableMap<Long, HistorySegment> segments = new TreeMap<>(state.segments());
+        segments.put(next, active);
+        state = new State(Collections.unmodifiableNavigableMap(segments), state.index());
+    }
+
+    /**
+     * Swap in a new segment set together with an index built from it
+     */
+    private void publish(NavigableMap<Long, HistorySegment> segments) {
+        state = new State(Collections.unmodifiableNavigableMap(segments), buildIndex(segments));
+    }
+
+    private int seriesId(String gameId, String bookmaker, String market, String outcome) {
+        String key = seriesKey(gameId, bookmaker, market, outcome);
+        Integer existing = seriesIds.get(key);
+        if (existing != null) {
+            return existing;
+        }
+
+        int id = seriesNames.size();
+        String[] names = { clean(gameId), clean(bookmaker), clean(market), clean(outcome) };
+        registerSeries(id, names);
+
+        try {
+            dictWriter.write(id + "\t" + String.join("\t", names));
+            dictWriter.newLine();
+            dictWriter.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write odds history dictionary", e);
+        }
+        return id;
+    }
+
+    private void registerSeries(int id, String[] names) {
+        seriesNames.add(names);
+        seriesIds.put(seriesKey(names[0], names[1], names[2], names[3]), id);
+        seriesByOutcome.computeIfAbsent(outcomeKey(names[0], names[2], names[3]), k -> new CopyOnWriteArrayList<>())
+                       .add(id);
+    }
+
+    private void loadDictionary() throws IOException {
+        Path dict = directory.resolve(DICT_FILE);
+        if (!Files.exists(dict)) {
+            return;
+        }
+        try (BufferedReader reader = Files.newBufferedReader(dict, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] parts = line.split("\t", -1);
+                // A torn last line from a crash is simply ignored
+                if (parts.length != 5 || Integer.parseInt(parts[0]) != seriesNames.size()) {
+                    continue;
+                }
+                registerSeries(seriesNames.size(), Arrays.copyOfRange(parts, 1, 5));
+            }
+        }
+    }
+
+    private void loadCompactedThrough() throws IOException {
+        Path marker = directory.resolve(COMPACTED_FILE);
+        if (Files.exists(marker)) {
+            compactedThrough = Long.parseLong(Files.readString(marker, StandardCharsets.UTF_8).trim());
+        }
+    }
+
+    private void saveCompactedThrough() {
+        Path marker = directory.resolve(COMPACTED_FILE);
+        Path temp = directory.resolve(COMPACTED_FILE + COMPACT_SUFFIX);
+        try {
+            Files.writeString(temp, Long.toString(compactedThrough), StandardCharsets.UTF_8);
+            Files.move(temp, marker, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            // Only costs a larger rewrite on the next compaction
+            log.warn("Failed to record compaction in {}: {}", marker, e.getMessage());
+        }
+    }
+
+    private NavigableMap<Long, HistorySegment> loadSegments() {
+        List<Long> sequences = new ArrayList<>();
+        List<Path> unfinished = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.forEach(path -> {
+                String name = path.getFileName().toString();
+                if (name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX)) {
+                    sequences.add(Long.parseLong(
+                        name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length())));
+                } else if (name.startsWith(SEGMENT_PREFIX) && name.endsWith(COMPACT_SUFFIX)) {
+                    unfinished.add(path); // compaction interrupted before the move
+                }
+            });
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to list odds history in " + directory, e);
+        }
+        unfinished.forEach(SportHistory::deleteQuietly);
+        sequences.sort(Long::compare);
+
+        NavigableMap<Long, HistorySegment> segments = new TreeMap<>();
+        for (int i = 0; i < sequences.size(); i++) {
+            long sequence = sequences.get(i);
+            boolean last = i == sequences.size() - 1;
+            segments.put(sequence, HistorySegment.open(sequence, segmentPath(sequence), last));
+        }
+
+        HistorySegment newest = segments.isEmpty() ? null : segments.lastEntry().getValue();
+        if (newest == null || newest.isFull()) {
+            long next = newest == null ? 0 : newest.sequence() + 1;
+            newest = HistorySegment.create(next, segmentPath(next), ticksPerSegment);
+            segments.put(next, newest);
+        }
+        active = newest;
+        return Collections.unmodifiableNavigableMap(segments);
+    }
+
+    private Map<Integer, SeriesTicks> buildIndex(NavigableMap<Long, HistorySegment> segments) {
+        Map<Integer, SeriesTicks> rebuilt = new ConcurrentHashMap<>(Math.max(16, seriesNames.size() * 2));
+        Map<Integer, SeriesTicks> local = new HashMap<>();
+
+        for (HistorySegment segment : segments.values()) {
+            for (int i = 0; i < segment.count(); i++) {
+                int id = segment.seriesId(i);
+                if (id >= seriesNames.size()) continue; // dictionary line lost in a crash
+                local.computeIfAbsent(id, k -> new SeriesTicks())
+                     .add(segment.timestamp(i), location(segment.sequence(), i));
+            }
+        }
+
+        rebuilt.putAll(local);
+        return rebuilt;
+    }
+
+    private static PriceTick read(State state, long location) {
+        if (location < 0) {
+            return null;
+        }
+        HistorySegment segment = state.segments().get(location >>> 32);
+        if (segment == null) {
+            return null;
+        }
+        int tick = (int) location;
+        double point = segment.point(tick);
+        return new PriceTick(segment.timestamp(tick), segment.price(tick),
+            Double.isNaN(point) ? null : point,
+            (segment.flags(tick) & HistorySegment.FLAG_REMOVED) != 0);
+    }
+
+    private Path segmentPath(long sequence) {
+        return directory.resolve(SEGMENT_PREFIX + sequence + SEGMENT_SUFFIX);
+    }
+
+    private static long location(long sequence, int tick) {
+        return (sequence << 32) | (tick & 0xFFFFFFFFL);
+    }
+
+    private static String seriesKey(String gameId, String bookmaker, String market, String outcome) {
+        return clean(gameId) + '\t' + clean(bookmaker) + '\t' + clean(market) + '\t' + clean(outcome);
+    }
+
+    private static String outcomeKey(String gameId, String market, String outcome) {
+        return clean(gameId) + '\t' + clean(market) + '\t' + clean(outcome);
+    }
+
+    private static String clean(String value) {
+        if (value == null) return "";
+        return value.indexOf('\t') < 0 && value.indexOf('\n') < 0 ? value : value.replaceAll("[\t\r\n]", " ");
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Failed to delete {}: {}", path, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package com.coltwarren.sports_betting_analytics.service.replay;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Records upstream responses to {@code <dir>/<dependency>.jsonl}.
+ *
+ * Installed as a WebClient filter on every outbound client while
+ * {@code http.record.enabled=true}. Each response body is buffered once,
+ * handed back to the caller unchanged, and written with its arrival time
+ * by a single background writer so file I/O never runs on a Netty thread.
+ * {@link ReplayStore} serves the files back.
+ */
+@Service
+public class ExchangeRecorder {
+
+    private static final Logger log = LoggerFactory.getLogger(ExchangeRecorder.class);
+
+    // Query parameters that carry credentials never reach the file
+    private static final List<String> SECRET_PARAMS = List.of("apikey", "api_key", "key");
+
+    private final JsonMapper jsonMapper = JsonMapper.builder().build();
+    private final boolean enabled;
+    private final Path directory;
+
+    private final ExecutorService writerThread = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "exchange-recorder");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Map<String, BufferedWriter> writers = new ConcurrentHashMap<>();
+    private final AtomicLong recorded = new AtomicLong();
+
+    @Autowired
+    public ExchangeRecorder(@Value("${http.record.enabled:false}") boolean enabled,
+                            @Value("${http.record.dir:data/recordings}") String directory) {
+        this.enabled = enabled;
+        this.directory = Path.of(directory);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * WebClient filter that records every response of one dependency
+     */
+    public ExchangeFilterFunction filter(String dependency) {
+        return (request, next) -> next.exchange(request)
+            .flatMap(response -> response.bodyToMono(byte[].class)
+                .defaultIfEmpty(new byte[0])
+                .map(body -> {
+                    record(dependency, request.method().name(), request.url(), response, body);
+                    return response.mutate().body(new String(body, StandardCharsets.UTF_8)).build();
+                }));
+    }
+
+    public long getRecordedCount() {
+        return recorded.get();
+    }
+
+    /**
+     * Path plus query with credentials removed and parameters sorted, so a
+     * replayed request finds its recording regardless of parameter order
+     */
+    public static String canonicalPath(String rawPath, String rawQuery) {
+        if (rawQuery == null || rawQuery.isEmpty()) {
+            return rawPath;
+        }
+        String query = Arrays.stream(rawQuery.split("&"))
+            .filter(param -> !SECRET_PARAMS.contains(param.split("=", 2)[0].toLowerCase(Locale.ROOT)))
+            .sorted()
+            .collect(Collectors.joining("&"));
+        return query.isEmpty() ? rawPath : rawPath + "?" + query;
+    }
+
+    @PreDestroy
+    public void close() {
+        writerThread.shutdown();
+        try {
+            writerThread.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        for (BufferedWriter writer : writers.values()) {
+            try {
+                writer.close();
+            } catch (IOException e) {
+                log.warn("Error closing recording: {}", e.getMessage());
+            }
+        }
+    }
+
+    // ============================================
+    // WRITING
+    // ============================================
+
+    private void record(String dependency, String method, URI url, ClientResponse response, byte[] body) {
+        Map<String, String> headers = new HashMap<>();
+        response.headers().asHttpHeaders().forEach((name, values) -> {
+            String lower = name.toLowerCase(Locale.ROOT);
+            if (lower.startsWith("x-requests-") || lower.equals(HttpHeaders.CONTENT_TYPE.toLowerCase(Locale.ROOT))) {
+                headers.put(lower, values.get(0));
+            }
+        });
+
+        RecordedExchange exchange = new RecordedExchange(
+            System.currentTimeMillis(),
+            dependency,
+            method,
+            canonicalPath(url.getRawPath(), url.getRawQuery()),
+            response.statusCode().value(),
+            headers,
+            new String(body, StandardCharsets.UTF_8));
+
+        writerThread.execute(() -> write(exchange));
+    }
+
+    private void write(RecordedExchange exchange) {
+        try {
+            BufferedWriter writer = writers.computeIfAbsent(exchange.dependency(), this::openWriter);
+            writer.write(jsonMapper.writeValueAsString(exchange));
+            writer.newLine();
+            writer.flush();
+            recorded.incrementAndGet();
+        } catch (Exception e) {
+            log.warn("Error recording {} response: {}", exchange.dependency(), e.getMessage());
+        }
+    }
+
+    private BufferedWriter openWriter(String dependency) {
+        try {
+            Files.createDirectories(directory);
+            return Files.newBufferedWriter(directory.resolve(dependency + ".jsonl"), StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot open recording for " + dependency, e);
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.coltwarren.sports_betting_analytics.service.replay;
+
+import java.util.Map;
+
+/**
+ * One upstream response as written to a recording (one JSON line)
+ *
+ * @param recordedAt - epoch millis when the response arrived
+ * @param path - request path and canonical query, API keys removed
+ * @param headers - content type and quota headers
+ * @param body - response body (the feeds are all UTF-8 JSON)
+ */
+public record RecordedExchange(
+    long recordedAt,
+    String dependency,
+    String method,
+    String path,
+    int status,
+    Map<String, String> headers,
+    String body
+) {
+}
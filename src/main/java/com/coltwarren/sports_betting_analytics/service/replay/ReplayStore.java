@@ -0,0 +1,220 @@
+package com.coltwarren.sports_betting_analytics.service.replay;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Serves recorded upstream responses back on a virtual clock.
+ *
+ * The clock starts at the earliest recorded timestamp when replay is
+ * (re)started and runs at {@code speed} times real time. A request gets
+ * the latest response recorded for its path at or before the virtual
+ * time, so odds move and games finish in the same order and spacing they
+ * did live, just faster.
+ */
+@Service
+public class ReplayStore {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplayStore.class);
+
+    private final JsonMapper jsonMapper = JsonMapper.builder().build();
+    private final boolean enabled;
+    private final Path directory;
+
+    // dependency -> recorded path -> responses in time order
+    private volatile Map<String, Map<String, List<RecordedExchange>>> recordings = Map.of();
+    // dependency -> requested path -> recorded path it resolved to
+    private final Map<String, Map<String, String>> resolvedPaths = new ConcurrentHashMap<>();
+
+    private volatile long recordingStart;
+    private volatile long recordingEnd;
+    private volatile long startedAtMillis;
+    private volatile double speed;
+
+    @Autowired
+    public ReplayStore(@Value("${replay.enabled:false}") boolean enabled,
+                       @Value("${replay.dir:data/recordings}") String directory,
+                       @Value("${replay.speed:1.0}") double speed) {
+        this.enabled = enabled;
+        this.directory = Path.of(directory);
+        this.speed = speed;
+        if (enabled) {
+            restart(speed);
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Reload the recordings and restart the virtual clock at their first timestamp
+     */
+    public synchronized Map<String, Object> restart(double newSpeed) {
+        this.speed = newSpeed > 0 ? newSpeed : 1;
+        load();
+        resolvedPaths.clear();
+        startedAtMillis = System.currentTimeMillis();
+        return getStatus();
+    }
+
+    /**
+     * Recorded response for a request at the current virtual time, or null if the path was never recorded
+     *
+     * @param path - path below the dependency with the raw query ("/sports/basketball_nba/odds?regions=us")
+     */
+    public RecordedExchange find(String dependency, String method, String path) {
+        Map<String, List<RecordedExchange>> byPath = recordings.get(dependency);
+        if (byPath == null) {
+            return null;
+        }
+
+        String recordedPath = resolvedPaths
+            .computeIfAbsent(dependency, d -> new ConcurrentHashMap<>())
+            .computeIfAbsent(method + " " + path, k -> resolve(byPath, method, path));
+        if (recordedPath.isEmpty()) {
+            return null;
+        }
+        return latestAtOrBefore(byPath.get(recordedPath), virtualNow());
+    }
+
+    /**
+     * Current virtual time in epoch millis
+     */
+    public long virtualNow() {
+        long elapsed = System.currentTimeMillis() - startedAtMillis;
+        return recordingStart + (long) (elapsed * speed);
+    }
+
+    public Map<String, Object> getStatus() {
+        Map<String, Object> status = new HashMap<>();
+        status.put("enabled", enabled);
+        status.put("speed", speed);
+
+        Map<String, Integer> responses = new HashMap<>();
+        recordings.forEach((dependency, byPath) ->
+            responses.put(dependency, byPath.values().stream().mapToInt(List::size).sum()));
+        status.put("responses", responses);
+
+        if (recordingEnd > 0) {
+            long now = virtualNow();
+            status.put("recordingStart", Instant.ofEpochMilli(recordingStart).toString());
+            status.put("recordingEnd", Instant.ofEpochMilli(recordingEnd).toString());
+            status.put("virtualNow", Instant.ofEpochMilli(now).toString());
+            status.put("finished", now > recordingEnd);
+        }
+        return status;
+    }
+
+    // ============================================
+    // LOOKUP
+    // ============================================
+
+    /**
+     * The stand-in URL lacks the real API's base path ("/v4", "/apis/site/v2/sports"),
+     * so a request matches the recorded path it is a suffix of
+     */
+    private static String resolve(Map<String, List<RecordedExchange>> byPath, String method, String path) {
+        String canonical = canonical(path);
+        for (Map.Entry<String, List<RecordedExchange>> entry : byPath.entrySet()) {
+            if (entry.getKey().endsWith(canonical) && entry.getValue().get(0).method().equals(method)) {
+                return entry.getKey();
+            }
+        }
+        return "";
+    }
+
+    private static String canonical(String path) {
+        int query = path.indexOf('?');
+        return query < 0
+            ? path
+            : ExchangeRecorder.canonicalPath(path.substring(0, query), path.substring(query + 1));
+    }
+
+    private static RecordedExchange latestAtOrBefore(List<RecordedExchange> exchanges, long at) {
+        int low = 0;
+        int high = exchanges.size() - 1;
+        int found = 0; // before the first recording: serve the first one
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (exchanges.get(mid).recordedAt() <= at) {
+                found = mid;
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return exchanges.get(found);
+    }
+
+    // ============================================
+    // LOADING
+    // ============================================
+
+    private void load() {
+        Map<String, Map<String, List<RecordedExchange>>> loaded = new HashMap<>();
+        long start = Long.MAX_VALUE;
+        long end = 0;
+
+        if (Files.isDirectory(directory)) {
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*.jsonl")) {
+                for (Path file : files) {
+                    for (RecordedExchange exchange : readFile(file)) {
+                        loaded.computeIfAbsent(exchange.dependency(), d -> new HashMap<>())
+                            .computeIfAbsent(exchange.path(), p -> new ArrayList<>())
+                            .add(exchange);
+                        start = Math.min(start, exchange.recordedAt());
+                        end = Math.max(end, exchange.recordedAt());
+                    }
+                }
+            } catch (IOException e) {
+                log.error("Error loading recordings from {}", directory, e);
+            }
+        }
+
+        for (Map<String, List<RecordedExchange>> byPath : loaded.values()) {
+            byPath.values().forEach(list -> list.sort(Comparator.comparingLong(RecordedExchange::recordedAt)));
+        }
+
+        recordings = loaded;
+        recordingStart = start == Long.MAX_VALUE ? System.currentTimeMillis() : start;
+        recordingEnd = end;
+    }
+
+    private List<RecordedExchange> readFile(Path file) {
+        List<RecordedExchange> exchanges = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) continue;
+                try {
+                    exchanges.add(jsonMapper.readValue(line, RecordedExchange.class));
+                } catch (Exception e) {
+                    // A line cut short by a crash while recording; keep the rest
+                    log.warn("Skipping bad recording line in {}: {}", file, e.getMessage());
+                }
+            }
+        } catch (IOException e) {
+            log.error("Error reading recording {}", file, e);
+        }
+        return exchanges;
+    }
+}
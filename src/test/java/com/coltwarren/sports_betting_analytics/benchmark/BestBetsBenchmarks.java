@@ -0,0 +1,55 @@
+package com.coltwarren.sports_betting_analytics.benchmark;
+
+import com.coltwarren.sports_betting_analytics.model.odds.OddsBook;
+import com.coltwarren.sports_betting_analytics.model.odds.OddsResponse;
+import com.coltwarren.sports_betting_analytics.service.odds.BestBet;
+import com.coltwarren.sports_betting_analytics.service.odds.BestBetsEngines;
+import com.coltwarren.sports_betting_analytics.service.odds.SyntheticOddsBooks;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Best-bets ranking: the single-pass engine against the per-outcome rescan
+ * it replaced, on the same synthetic h2h/spreads/totals slates.
+ *
+ * The rescan gets its slate already in the Odds API's nested shape, so only
+ * the scan and sort are compared, not the conversion.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BestBetsBenchmarks {
+
+    private static final int LIMIT = 10;
+
+    @Param({"16", "64"})
+    public int games;
+
+    @Param({"15", "20", "30"})
+    public int books;
+
+    private OddsBook book;
+    private List<OddsResponse> responses;
+
+    @Setup
+    public void setUp() {
+        book = SyntheticOddsBooks.build(games, books, 1);
+        responses = book.toResponses();
+    }
+
+    @Benchmark
+    public List<BestBet> rankBets_singlePass() {
+        return BestBetsEngines.singlePass(book, LIMIT);
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> rankBets_perOutcomeRescan() {
+        return BestBetsEngines.perOutcomeRescan(responses, LIMIT);
+    }
+}
@@ -0,0 +1,64 @@
+package com.coltwarren.sports_betting_analytics.benchmark;
+
+import com.coltwarren.sports_betting_analytics.model.Bet;
+import com.coltwarren.sports_betting_analytics.service.AdvancedEVCalculator;
+import com.coltwarren.sports_betting_analytics.service.BankrollService;
+import com.coltwarren.sports_betting_analytics.service.KellyCriterionService;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-bet math: Kelly sizing, simple EV and CLV.
+ * The bankroll is a constant so only the math (and its allocations) is measured.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BetMathBenchmarks {
+
+    private static final BigDecimal BANKROLL = new BigDecimal("1000.00");
+
+    @Param({"-110", "150"})
+    public int odds;
+
+    private KellyCriterionService kellyService;
+    private AdvancedEVCalculator evCalculator;
+    private Bet bet;
+
+    @Setup
+    public void setUp() {
+        BankrollService bankrollService = new BankrollService(null, null) {
+            @Override
+            public BigDecimal getCurrentBankroll() {
+                return BANKROLL;
+            }
+        };
+        kellyService = new KellyCriterionService(bankrollService, null);
+        evCalculator = new AdvancedEVCalculator(null, kellyService, null);
+
+        bet = new Bet("NFL", "Chiefs vs Bills", "MONEYLINE", "Chiefs",
+            new BigDecimal("100.00"), BigDecimal.valueOf(odds), "DRAFTKINGS");
+        bet.setClosingOdds(BigDecimal.valueOf(odds - 10));
+    }
+
+    @Benchmark
+    public Map<String, Object> calculateKelly() {
+        return kellyService.calculateKelly(odds, 0.55, true);
+    }
+
+    @Benchmark
+    public Map<String, Object> calculateSimpleEV() {
+        return evCalculator.calculateSimpleEV(odds, 0.55);
+    }
+
+    @Benchmark
+    public Double calculateCLV() {
+        return bet.calculateCLV();
+    }
+}
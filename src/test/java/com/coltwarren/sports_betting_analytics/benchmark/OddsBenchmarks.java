@@ -0,0 +1,94 @@
+package com.coltwarren.sports_betting_analytics.benchmark;
+
+import com.coltwarren.sports_betting_analytics.config.OutboundHttpClients;
+import com.coltwarren.sports_betting_analytics.model.odds.OddsBook;
+import com.coltwarren.sports_betting_analytics.service.odds.BestBet;
+import com.coltwarren.sports_betting_analytics.service.odds.BestBetsAnalyzer;
+import com.coltwarren.sports_betting_analytics.service.odds.OddsQuotaTracker;
+import com.coltwarren.sports_betting_analytics.service.odds.OddsService;
+import com.coltwarren.sports_betting_analytics.service.odds.OddsShardStore;
+import com.coltwarren.sports_betting_analytics.service.odds.SyntheticOddsBooks;
+import com.coltwarren.sports_betting_analytics.service.replay.ExchangeRecorder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.core.env.StandardEnvironment;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Odds hot paths on synthetic slates of increasing size.
+ *
+ * "cached" calls see the same snapshot every time (the steady state between
+ * polls); "newSnapshot" calls alternate between two snapshots, so every call
+ * pays the per-snapshot work (ranking, team index) the way the first request
+ * after a poll does.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class OddsBenchmarks {
+
+    private static final String SPORT = "NFL";
+    private static final String SPORT_KEY = "americanfootball_nfl";
+
+    @Param({"16", "64", "256"})
+    public int games;
+
+    @Param({"10", "30"})
+    public int books;
+
+    private OddsBook[] snapshots;
+    private int current;
+    private String team;
+
+    private OddsService oddsService;
+    private BestBetsAnalyzer bestBetsAnalyzer;
+
+    @Setup
+    public void setUp() {
+        snapshots = new OddsBook[] {
+            SyntheticOddsBooks.build(games, books, 1),
+            SyntheticOddsBooks.build(games, books, 2)
+        };
+        team = "Home Team " + (games - 1); // last game: worst case for a linear scan
+
+        // Serves the synthetic snapshot instead of calling the Odds API
+        oddsService = new OddsService("http://localhost", "benchmark", 3600,
+                new OddsQuotaTracker(60, 1, 0), new OddsShardStore(),
+                new OutboundHttpClients(new StandardEnvironment(), new ExchangeRecorder(false, "target/recordings"),
+                    new SimpleMeterRegistry())) {
+            @Override
+            public OddsBook getOddsBook(String sportKey) {
+                return snapshots[current];
+            }
+        };
+        bestBetsAnalyzer = new BestBetsAnalyzer(oddsService);
+    }
+
+    @Benchmark
+    public List<BestBet> findBestBetsToday_cached() {
+        return bestBetsAnalyzer.findBestBetsToday(SPORT, 10);
+    }
+
+    @Benchmark
+    public List<BestBet> findBestBetsToday_newSnapshot() {
+        current ^= 1;
+        return bestBetsAnalyzer.findBestBetsToday(SPORT, 10);
+    }
+
+    @Benchmark
+    public Map<String, Object> findBestOdds_cached() {
+        return oddsService.findBestOdds(SPORT_KEY, team, "h2h");
+    }
+
+    @Benchmark
+    public Map<String, Object> findBestOdds_newSnapshot() {
+        current ^= 1;
+        return oddsService.findBestOdds(SPORT_KEY, team, "h2h");
+    }
+}
@@ -0,0 +1,178 @@
+package com.coltwarren.sports_betting_analytics.repository;
+
+import com.coltwarren.sports_betting_analytics.model.Bet;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Loads 20,000 synthetic bets into embedded H2 and checks with EXPLAIN that
+ * BetRepository's hot queries are answered from the indexes declared on
+ * {@link Bet} rather than a full scan. The SQL mirrors what Hibernate
+ * generates for each repository method, with literals for the parameters.
+ *
+ * H2 only reports "index sorted" when ORDER BY matches the leading index
+ * columns, so it can show that for the unfiltered page but not for the
+ * status/sport/book pages. Those filter on one value of the leading column,
+ * which MySQL reads in (placed_at, id) order without a filesort; that is
+ * why the settled page runs one query per status rather than IN (...).
+ */
+@DataJpaTest(properties = {
+    "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+    "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class BetRepositoryIndexTest {
+
+    private static final int BETS = 20_000;
+    private static final String[] SPORTS = {"NFL", "NBA", "MLB", "NHL", "NCAAF", "NCAAB"};
+    private static final String[] BOOKS = {"FANDUEL", "DRAFTKINGS", "BETMGM", "CAESARS", "BET365", "FANATICS"};
+    private static final String[] BET_TYPES = {"MONEYLINE", "SPREAD", "TOTAL_OVER", "TOTAL_UNDER"};
+    private static final LocalDateTime FIRST_BET = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    // Keyset seek predicate and order, as in BetRepository.findPage*Before
+    private static final String AFTER_CURSOR =
+        "(placed_at < TIMESTAMP '2024-06-01 00:00:00' " +
+        "OR (placed_at = TIMESTAMP '2024-06-01 00:00:00' AND id < 7300)) " +
+        "ORDER BY placed_at DESC, id DESC FETCH FIRST 51 ROWS ONLY";
+
+    @Autowired
+    private BetRepository betRepository;
+
+    @Autowired
+    private DataSource dataSource;
+
+    /**
+     * Committed once for the whole class (outside the per-test transaction)
+     */
+    @BeforeAll
+    void loadBets() throws SQLException {
+        Random random = new Random(42);
+        List<Bet> bets = new ArrayList<>(BETS);
+
+        for (int i = 0; i < BETS; i++) {
+            Bet bet = new Bet(SPORTS[random.nextInt(SPORTS.length)], "Away " + i + " @ Home " + i,
+                              BET_TYPES[random.nextInt(BET_TYPES.length)], "Home " + i,
+                              BigDecimal.valueOf(10 + random.nextInt(90)),
+                              BigDecimal.valueOf(random.nextBoolean() ? -110 : 150),
+                              BOOKS[random.nextInt(BOOKS.length)]);
+            bet.setPlacedAt(FIRST_BET.plusMinutes(30L * i));
+
+            // Mostly settled history with a few percent still pending, like a real account
+            int roll = random.nextInt(100);
+            if (roll < 45) {
+                bet.markAsWon();
+            } else if (roll < 90) {
+                bet.markAsLost();
+            } else if (roll < 95) {
+                bet.markAsPush();
+            }
+            bets.add(bet);
+        }
+
+        betRepository.saveAll(bets);
+        execute("ANALYZE");
+    }
+
+    @AfterAll
+    void deleteBets() {
+        betRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void findByStatusUsesStatusIndex() throws SQLException {
+        assertUsesIndex("idx_bets_status_placed_at",
+            "SELECT * FROM bets WHERE status = 'PENDING'");
+    }
+
+    @Test
+    void pendingWithoutClosingOddsUsesStatusIndex() throws SQLException {
+        assertUsesIndex("idx_bets_status_placed_at",
+            "SELECT * FROM bets WHERE status = 'PENDING' AND closing_odds IS NULL " +
+            "AND (event_start_time IS NULL OR event_start_time <= TIMESTAMP '2024-06-01 00:00:00')");
+    }
+
+    @Test
+    void settledPageSeeksEachStatusOnStatusIndex() throws SQLException {
+        // BetService runs one query per settled status and merges them; each is a single-status seek
+        for (String status : new String[] {"WON", "LOST", "PUSH"}) {
+            assertUsesIndex("idx_bets_status_placed_at",
+                "SELECT * FROM bets WHERE status = '" + status + "' AND " + AFTER_CURSOR);
+        }
+    }
+
+    @Test
+    void sportPageUsesSportIndex() throws SQLException {
+        assertUsesIndex("idx_bets_sport_placed_at",
+            "SELECT * FROM bets WHERE sport = 'NBA' AND " + AFTER_CURSOR);
+    }
+
+    @Test
+    void sportsbookPageUsesSportsbookIndex() throws SQLException {
+        assertUsesIndex("idx_bets_book_placed_at",
+            "SELECT * FROM bets WHERE sportsbook_name = 'FANDUEL' AND " + AFTER_CURSOR);
+    }
+
+    @Test
+    void unfilteredPageReadsPlacedAtIndexInOrder() throws SQLException {
+        String sql = "SELECT * FROM bets WHERE " + AFTER_CURSOR;
+        assertUsesIndex("idx_bets_placed_at", sql);
+        assertTrue(explain(sql).contains("index sorted"), "Page is sorted after the scan:\n" + explain(sql));
+    }
+
+    @Test
+    void dateRangeUsesPlacedAtIndex() throws SQLException {
+        assertUsesIndex("idx_bets_placed_at",
+            "SELECT * FROM bets WHERE placed_at BETWEEN TIMESTAMP '2024-03-01 00:00:00' " +
+            "AND TIMESTAMP '2024-03-08 00:00:00'");
+    }
+
+    @Test
+    void findByBetTypeUsesBetTypeIndex() throws SQLException {
+        assertUsesIndex("idx_bets_bet_type",
+            "SELECT * FROM bets WHERE bet_type = 'TOTAL_UNDER'");
+    }
+
+    // ============================================
+    // HELPERS
+    // ============================================
+
+    private void assertUsesIndex(String index, String sql) throws SQLException {
+        String plan = explain(sql);
+        assertTrue(plan.toUpperCase().contains(index.toUpperCase()), "Expected " + index + " in plan:\n" + plan);
+        assertFalse(plan.contains("tableScan"), "Full table scan in plan:\n" + plan);
+    }
+
+    private String explain(String sql) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet plan = statement.executeQuery("EXPLAIN " + sql)) {
+            plan.next();
+            return plan.getString(1);
+        }
+    }
+
+    private void execute(String sql) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+}
@@ -0,0 +1,219 @@
+package com.coltwarren.sports_betting_analytics.service;
+
+import com.coltwarren.sports_betting_analytics.model.Bet;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Row parsing and validation of BetImportService, without a database:
+ * CSV splitting, header names, and the checks that keep one bad row from
+ * failing a whole chunk.
+ */
+class BetImportServiceTest {
+
+    // ============================================
+    // CSV
+    // ============================================
+
+    @Test
+    void splitsPlainFields() {
+        assertEquals(List.of("NFL", "Chiefs @ Bills", "MONEYLINE"), BetImportService.parseCsvLine("NFL,Chiefs @ Bills,MONEYLINE"));
+    }
+
+    @Test
+    void keepsEmptyFields() {
+        assertEquals(List.of("a", "", "", "d", ""), BetImportService.parseCsvLine("a,,,d,"));
+    }
+
+    @Test
+    void handlesQuotedCommasAndEscapedQuotes() {
+        assertEquals(List.of("Chiefs, Bills", "He said \"over\"", "x"),
+            BetImportService.parseCsvLine("\"Chiefs, Bills\",\"He said \"\"over\"\"\",x"));
+    }
+
+    @Test
+    void rejectsUnterminatedQuote() {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+            () -> BetImportService.parseCsvLine("NFL,\"Chiefs @ Bills"));
+        assertEquals("Unterminated quoted field", e.getMessage());
+    }
+
+    @Test
+    void mapsHeaderNames() {
+        assertEquals("eventName", BetImportService.fieldName("event_name"));
+        assertEquals("eventName", BetImportService.fieldName(" Event Name "));
+        assertEquals("eventName", BetImportService.fieldName("eventName"));
+        assertEquals("sportsbookName", BetImportService.fieldName("Sportsbook"));
+        assertEquals("sportsbookName", BetImportService.fieldName("book"));
+        assertEquals("closingOdds", BetImportService.fieldName("CLOSING_ODDS"));
+        assertEquals("stake", BetImportService.fieldName("Stake"));
+    }
+
+    @Test
+    void stripsByteOrderMarkFromHeader() throws IOException {
+        // Every row fails validation, so nothing reaches the (absent) database
+        String csv = "\uFEFFsport,event_name,bet_type,selection,stake,odds,sportsbook,placed_at\n" +
+                     "NFL,Chiefs @ Bills,MONEYLINE,Chiefs,100,-110,FanDuel,yesterday\n";
+        BetImportService service = new BetImportService(null, null, null, 10, 10);
+
+        Map<String, Object> result = service.importBets(
+            new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), "csv");
+
+        assertEquals(1L, result.get("rowsRead"));
+        assertEquals(1L, result.get("failed"));
+        // With the BOM left in, the first column would not be "sport" and the row would fail on that instead
+        assertEquals("placedAt is not a date-time: yesterday", firstError(result));
+    }
+
+    // ============================================
+    // ROW VALIDATION
+    // ============================================
+
+    @Test
+    void buildsSettledBet() {
+        Map<String, String> fields = validRow();
+        fields.put("status", "won");
+        fields.put("placedAt", "2025-01-05 19:30:00");
+        fields.put("settledAt", "2025-01-06");
+        fields.put("closingOdds", "-125");
+
+        Bet bet = BetImportService.toBet(fields);
+
+        assertEquals("WON", bet.getStatus());
+        assertEquals(LocalDateTime.of(2025, 1, 5, 19, 30), bet.getPlacedAt());
+        assertEquals(LocalDateTime.of(2025, 1, 6, 0, 0), bet.getSettledAt());
+        assertEquals(0, new BigDecimal("-125").compareTo(bet.getClosingOdds()));
+        assertTrue(bet.getBeatClosingLine());
+        assertEquals(0, new BigDecimal("91").compareTo(bet.getProfitLoss()));
+    }
+
+    @Test
+    void defaultsToPending() {
+        Bet bet = BetImportService.toBet(validRow());
+        assertEquals("PENDING", bet.getStatus());
+        assertNull(bet.getSettledAt());
+    }
+
+    @Test
+    void rejectsBadDates() {
+        Map<String, String> fields = validRow();
+        fields.put("placedAt", "2025-13-01");
+        assertEquals("placedAt is not a date-time: 2025-13-01", rejection(fields));
+
+        fields = validRow();
+        fields.put("eventStartTime", "01/05/2025 7pm");
+        assertEquals("eventStartTime is not a date-time: 01/05/2025 7pm", rejection(fields));
+    }
+
+    @Test
+    void rejectsNonNumericAndZeroValues() {
+        Map<String, String> fields = validRow();
+        fields.put("stake", "ten");
+        assertEquals("stake is not a number: ten", rejection(fields));
+
+        fields = validRow();
+        fields.put("odds", "0");
+        assertEquals("Odds must be non-zero American odds", rejection(fields));
+
+        fields = validRow();
+        fields.put("stake", "-5");
+        assertEquals("Stake must be greater than zero", rejection(fields));
+    }
+
+    @Test
+    void rejectsOddsOutsideTheColumn() {
+        Map<String, String> fields = validRow();
+        fields.put("odds", "9999.99");
+        BetImportService.toBet(fields);
+
+        fields.put("odds", "10000");
+        assertEquals("odds must be between -9999.99 and 9999.99: 10000", rejection(fields));
+
+        fields.put("odds", "-25000");
+        assertEquals("odds must be between -9999.99 and 9999.99: -25000", rejection(fields));
+
+        fields = validRow();
+        fields.put("closingOdds", "12000");
+        assertEquals("closingOdds must be between -9999.99 and 9999.99: 12000", rejection(fields));
+    }
+
+    @Test
+    void rejectsStakeOutsideTheColumn() {
+        Map<String, String> fields = validRow();
+        fields.put("stake", "123456789");
+        assertEquals("stake must be between -99999999.99 and 99999999.99: 123456789", rejection(fields));
+    }
+
+    @Test
+    void rejectsExtraDecimalPlaces() {
+        Map<String, String> fields = validRow();
+        fields.put("stake", "10.005");
+        assertEquals("stake has more than 2 decimal places: 10.005", rejection(fields));
+
+        // Trailing zeros are not extra precision
+        fields.put("stake", "10.500");
+        assertEquals(0, new BigDecimal("10.5").compareTo(BetImportService.toBet(fields).getStake()));
+    }
+
+    @Test
+    void rejectsPayoutOutsideTheColumn() {
+        // Both inputs fit their columns, but the payout does not fit DECIMAL(10,2)
+        Map<String, String> fields = validRow();
+        fields.put("stake", "50000000");
+        fields.put("odds", "9000");
+        assertTrue(rejection(fields).startsWith("Potential payout "));
+    }
+
+    @Test
+    void rejectsLongText() {
+        Map<String, String> fields = validRow();
+        fields.put("sport", "N".repeat(51));
+        assertEquals("sport is longer than 50 characters", rejection(fields));
+    }
+
+    @Test
+    void rejectsUnknownStatus() {
+        Map<String, String> fields = validRow();
+        fields.put("status", "CASHED_OUT");
+        assertEquals("Unknown status: CASHED_OUT", rejection(fields));
+    }
+
+    // ============================================
+    // HELPERS
+    // ============================================
+
+    private static Map<String, String> validRow() {
+        Map<String, String> fields = new HashMap<>();
+        fields.put("sport", "NFL");
+        fields.put("eventName", "Chiefs @ Bills");
+        fields.put("betType", "MONEYLINE");
+        fields.put("selection", "Chiefs");
+        fields.put("stake", "100");
+        fields.put("odds", "-110");
+        fields.put("sportsbookName", "FanDuel");
+        return fields;
+    }
+
+    private static String rejection(Map<String, String> fields) {
+        return assertThrows(IllegalArgumentException.class, () -> BetImportService.toBet(fields)).getMessage();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static String firstError(Map<String, Object> result) {
+        List<Map<String, Object>> errors = (List<Map<String, Object>>) result.get("errors");
+        return (String) errors.get(0).get("message");
+    }
+}
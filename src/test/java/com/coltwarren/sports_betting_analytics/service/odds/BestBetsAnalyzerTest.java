@@ -0,0 +1,73 @@
+package com.coltwarren.sports_betting_analytics.service.odds;
+
+import com.coltwarren.sports_betting_analytics.model.odds.OddsBook;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks the single-pass BestBetsAnalyzer engine against the previous
+ * per-outcome rescan on a 16-game, 20-book slate with all three markets.
+ * Timing lives in the JMH BestBetsBenchmarks, not here.
+ */
+class BestBetsAnalyzerTest {
+    
+    private static final int GAMES = 16;
+    private static final int BOOKS = 20;
+    
+    @Test
+    void emitsEachSelectionOnce() {
+        OddsBook book = SyntheticOddsBooks.build(GAMES, BOOKS, 42);
+        List<BestBet> bets = BestBetsAnalyzer.rankBets(book, Integer.MAX_VALUE);
+        
+        assertFalse(bets.isEmpty());
+        
+        Set<String> selections = new HashSet<>();
+        for (BestBet bet : bets) {
+            String key = bet.game() + "|" + bet.betType() + "|" + bet.selection() + "|" + bet.point();
+            assertTrue(selections.add(key), "Duplicate selection " + key);
+        }
+    }
+    
+    @Test
+    void topKMatchesFullRanking() {
+        OddsBook book = SyntheticOddsBooks.build(GAMES, BOOKS, 3);
+        List<BestBet> all = BestBetsAnalyzer.rankBets(book, Integer.MAX_VALUE);
+        List<BestBet> top = BestBetsAnalyzer.rankBets(book, 10);
+        
+        assertEquals(all.subList(0, 10), top);
+        for (int i = 1; i < all.size(); i++) {
+            assertTrue(all.get(i - 1).value() >= all.get(i).value(), "Ranking not sorted at " + i);
+        }
+    }
+    
+    @Test
+    void matchesLegacyBestPrices() {
+        OddsBook book = SyntheticOddsBooks.build(GAMES, BOOKS, 7);
+        
+        // h2h has no points, so the legacy and grouped engines must agree exactly there
+        Map<String, Double> legacyBest = new HashMap<>();
+        for (Map<String, Object> bet : BestBetsEngines.perOutcomeRescan(book.toResponses(), Integer.MAX_VALUE)) {
+            if ("MONEYLINE".equals(bet.get("betType"))) {
+                legacyBest.put(bet.get("game") + "|" + bet.get("selection"), (Double) bet.get("bestOdds"));
+            }
+        }
+        
+        Map<String, Double> groupedBest = new HashMap<>();
+        for (BestBet bet : BestBetsAnalyzer.rankBets(book, Integer.MAX_VALUE)) {
+            if ("MONEYLINE".equals(bet.betType())) {
+                groupedBest.put(bet.game() + "|" + bet.selection(), bet.bestOdds());
+            }
+        }
+        
+        assertEquals(legacyBest, groupedBest);
+    }
+}
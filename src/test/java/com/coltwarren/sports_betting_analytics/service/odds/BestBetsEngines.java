@@ -0,0 +1,83 @@
+package com.coltwarren.sports_betting_analytics.service.odds;
+
+import com.coltwarren.sports_betting_analytics.model.odds.OddsBook;
+import com.coltwarren.sports_betting_analytics.model.odds.OddsResponse;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The current best-bets ranking and the per-outcome rescan it replaced,
+ * side by side for the parity test and the JMH benchmarks (which live in
+ * another package and cannot reach BestBetsAnalyzer.rankBets directly).
+ */
+public final class BestBetsEngines {
+    
+    private BestBetsEngines() {
+    }
+    
+    /**
+     * Single pass per game (BestBetsAnalyzer.rankBets)
+     */
+    public static List<BestBet> singlePass(OddsBook book, int limit) {
+        return BestBetsAnalyzer.rankBets(book, limit);
+    }
+    
+    /**
+     * The engine BestBetsAnalyzer replaced: for every outcome of every book,
+     * rescan every book's markets for the same outcome name, then sort everything
+     */
+    public static List<Map<String, Object>> perOutcomeRescan(List<OddsResponse> allGames, int limit) {
+        List<Map<String, Object>> bestBets = new ArrayList<>();
+        for (OddsResponse game : allGames) {
+            analyze(game, "h2h", "MONEYLINE", bestBets);
+            analyze(game, "spreads", "SPREAD", bestBets);
+            analyze(game, "totals", "TOTALS", bestBets);
+        }
+        bestBets.sort((a, b) -> ((Double) b.get("value")).compareTo((Double) a.get("value")));
+        return bestBets.size() <= limit ? bestBets : bestBets.subList(0, limit);
+    }
+    
+    private static void analyze(OddsResponse game, String marketKey, String betType,
+                                List<Map<String, Object>> bestBets) {
+        for (OddsResponse.Bookmaker bookmaker : game.getBookmakers()) {
+            for (OddsResponse.Market market : bookmaker.getMarkets()) {
+                if (!market.getKey().equals(marketKey)) continue;
+                for (OddsResponse.Outcome outcome : market.getOutcomes()) {
+                    double best = Double.NEGATIVE_INFINITY;
+                    double worst = Double.POSITIVE_INFINITY;
+                    String bestBook = null;
+                    Map<String, Double> allBooks = new HashMap<>();
+                    
+                    for (OddsResponse.Bookmaker other : game.getBookmakers()) {
+                        for (OddsResponse.Market otherMarket : other.getMarkets()) {
+                            if (!otherMarket.getKey().equals(marketKey)) continue;
+                            for (OddsResponse.Outcome otherOutcome : otherMarket.getOutcomes()) {
+                                if (otherOutcome.getName().equals(outcome.getName())) {
+                                    double price = otherOutcome.getPrice();
+                                    allBooks.put(other.getTitle(), price);
+                                    if (price > best) { best = price; bestBook = other.getTitle(); }
+                                    if (price < worst) { worst = price; }
+                                }
+                            }
+                        }
+                    }
+                    
+                    if (best - worst >= 10) {
+                        Map<String, Object> bet = new HashMap<>();
+                        bet.put("game", game.getAway_team() + " @ " + game.getHome_team());
+                        bet.put("betType", betType);
+                        bet.put("selection", outcome.getName());
+                        bet.put("bestBook", bestBook);
+                        bet.put("bestOdds", best);
+                        bet.put("value", best - worst);
+                        bet.put("allBooks", allBooks);
+                        bestBets.add(bet);
+                    }
+                }
+            }
+        }
+    }
+}
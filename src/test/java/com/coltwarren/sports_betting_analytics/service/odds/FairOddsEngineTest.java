@@ -0,0 +1,231 @@
+package com.coltwarren.sports_betting_analytics.service.odds;
+
+import com.coltwarren.sports_betting_analytics.model.odds.OddsBook;
+import com.coltwarren.sports_betting_analytics.model.odds.OddsStringPool;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * De-vig methods and the cross-book consensus. Expected values were worked
+ * out independently of the engine's solvers.
+ */
+class FairOddsEngineTest {
+
+    private static final double EPSILON = 1e-6;
+
+    // ============================================
+    // DE-VIG METHODS
+    // ============================================
+
+    @Test
+    void fairProbabilitiesSumToOne() {
+        int[][] markets = { { -110, -110 }, { -200, 170 }, { -1000, 600 }, { 150, 230, 200 }, { -150, 300, 280 } };
+        for (DevigMethod method : DevigMethod.values()) {
+            for (int[] odds : markets) {
+                double[] fair = devig(method, odds);
+                double total = 0;
+                for (double p : fair) {
+                    assertTrue(p > 0 && p < 1, method + " gave " + p);
+                    total += p;
+                }
+                assertEquals(1, total, EPSILON, method + " on " + odds.length + "-way market");
+            }
+        }
+    }
+
+    @Test
+    void zeroMarginBookIsLeftAlone() {
+        // +150 / -150 is exactly 0.4 + 0.6
+        for (DevigMethod method : DevigMethod.values()) {
+            double[] fair = devig(method, 150, -150);
+            assertEquals(0.4, fair[0], EPSILON, method.name());
+            assertEquals(0.6, fair[1], EPSILON, method.name());
+        }
+    }
+
+    @Test
+    void solversApproachMultiplicativeAsTheMarginVanishes() {
+        // A hair of margin takes the solver path; Shin's z tends to 0 and Power's k to 1
+        double[] implied = { 0.4, 0.6 + 1e-7 };
+        double[] multiplicative = new double[2];
+        FairOddsEngine.devig(implied, 2, DevigMethod.MULTIPLICATIVE, multiplicative);
+
+        for (DevigMethod method : new DevigMethod[] { DevigMethod.SHIN, DevigMethod.POWER }) {
+            double[] fair = new double[2];
+            FairOddsEngine.devig(implied, 2, method, fair);
+            assertEquals(multiplicative[0], fair[0], EPSILON, method.name());
+            assertEquals(multiplicative[1], fair[1], EPSILON, method.name());
+        }
+    }
+
+    @Test
+    void evenMarketSplitsEvenly() {
+        for (DevigMethod method : DevigMethod.values()) {
+            double[] fair = devig(method, -110, -110);
+            assertEquals(0.5, fair[0], EPSILON, method.name());
+            assertEquals(0.5, fair[1], EPSILON, method.name());
+        }
+    }
+
+    @Test
+    void twoWayKnownValues() {
+        // -200 / +170: implied 0.666667 + 0.370370 = 1.037037
+        double[] multiplicative = devig(DevigMethod.MULTIPLICATIVE, -200, 170);
+        assertEquals(0.642857, multiplicative[0], EPSILON);
+        assertEquals(0.357143, multiplicative[1], EPSILON);
+
+        // With two outcomes Shin takes the margin off equally (0.666667 - 0.037037 / 2)
+        double[] shin = devig(DevigMethod.SHIN, -200, 170);
+        assertEquals(0.648148, shin[0], EPSILON);
+        assertEquals(0.351852, shin[1], EPSILON);
+
+        double[] power = devig(DevigMethod.POWER, -200, 170);
+        assertEquals(0.650822, power[0], EPSILON);
+        assertEquals(0.349178, power[1], EPSILON);
+
+        // Both take more of the margin off the longshot than multiplicative does
+        assertTrue(shin[1] < multiplicative[1]);
+        assertTrue(power[1] < multiplicative[1]);
+    }
+
+    @Test
+    void threeWayKnownValues() {
+        // +150 / +230 / +200: implied 0.4 + 0.30303 + 0.333333 = 1.036364
+        double[] multiplicative = devig(DevigMethod.MULTIPLICATIVE, 150, 230, 200);
+        assertEquals(0.385965, multiplicative[0], EPSILON);
+        assertEquals(0.292398, multiplicative[1], EPSILON);
+        assertEquals(0.321637, multiplicative[2], EPSILON);
+
+        double[] shin = devig(DevigMethod.SHIN, 150, 230, 200);
+        assertEquals(0.387389, shin[0], EPSILON);
+        assertEquals(0.291292, shin[1], EPSILON);
+        assertEquals(0.321320, shin[2], EPSILON);
+
+        double[] power = devig(DevigMethod.POWER, 150, 230, 200);
+        assertEquals(0.387792, power[0], EPSILON);
+        assertEquals(0.291035, power[1], EPSILON);
+        assertEquals(0.321173, power[2], EPSILON);
+    }
+
+    @Test
+    void convertsBetweenAmericanOddsAndProbability() {
+        assertEquals(0.5, FairOddsEngine.impliedProbability(100), EPSILON);
+        assertEquals(2.0 / 3, FairOddsEngine.impliedProbability(-200), EPSILON);
+        assertEquals(0.4, FairOddsEngine.impliedProbability(150), EPSILON);
+
+        assertEquals(-200, FairOddsEngine.toAmerican(2.0 / 3));
+        assertEquals(150, FairOddsEngine.toAmerican(0.4));
+        assertEquals(0, FairOddsEngine.toAmerican(1));
+    }
+
+    // ============================================
+    // CONSENSUS
+    // ============================================
+
+    @Test
+    void consensusAveragesBooksThatPriceTheWholeMarket() {
+        OddsBook book = twoBookGame();
+        int market = book.marketIndex("h2h");
+        int chiefs = outcome(book, "Kansas City Chiefs");
+
+        FairOdds fair = FairOddsEngine.consensus(book, 0, market, chiefs, Double.NaN,
+                                                 DevigMethod.MULTIPLICATIVE, 2);
+
+        // DraftKings -200/+170 -> 0.642857, FanDuel -110/-110 -> 0.5; BetMGM only quotes one side
+        assertNotNull(fair);
+        assertEquals(2, fair.books());
+        assertEquals(0.5714, fair.fairProbability(), 1e-4);
+        assertEquals(-133, fair.fairOdds());
+        assertEquals(0.6429, fair.fairProbabilityByBook().get("DraftKings"), 1e-4);
+        assertEquals(0.5, fair.fairProbabilityByBook().get("FanDuel"), 1e-4);
+        assertNull(fair.fairProbabilityByBook().get("BetMGM"));
+        assertNull(fair.point());
+    }
+
+    @Test
+    void consensusMatchesSpreadSides() {
+        OddsBook book = twoBookGame();
+        int market = book.marketIndex("spreads");
+        int chiefs = outcome(book, "Kansas City Chiefs");
+
+        FairOdds fair = FairOddsEngine.consensus(book, 0, market, chiefs, -3.5, DevigMethod.SHIN, 2);
+
+        assertNotNull(fair);
+        assertEquals(2, fair.books());
+        assertEquals(0.5, fair.fairProbability(), 1e-4);
+        assertEquals(-3.5, fair.point());
+        assertEquals(4.7619, fair.averageHoldPercent(), 1e-4);
+    }
+
+    @Test
+    void consensusNeedsMinBooks() {
+        OddsBook book = twoBookGame();
+        int market = book.marketIndex("h2h");
+        int chiefs = outcome(book, "Kansas City Chiefs");
+
+        assertNotNull(FairOddsEngine.consensus(book, 0, market, chiefs, Double.NaN, DevigMethod.SHIN, 2));
+        assertNull(FairOddsEngine.consensus(book, 0, market, chiefs, Double.NaN, DevigMethod.SHIN, 3));
+
+        // Nobody hangs Chiefs -7.5
+        int spreads = book.marketIndex("spreads");
+        assertNull(FairOddsEngine.consensus(book, 0, spreads, chiefs, -7.5, DevigMethod.SHIN, 1));
+    }
+
+    // ============================================
+    // HELPERS
+    // ============================================
+
+    private static double[] devig(DevigMethod method, int... americanOdds) {
+        double[] implied = new double[americanOdds.length];
+        for (int i = 0; i < americanOdds.length; i++) {
+            implied[i] = FairOddsEngine.impliedProbability(americanOdds[i]);
+        }
+        double[] fair = new double[implied.length];
+        FairOddsEngine.devig(implied, implied.length, method, fair);
+        return fair;
+    }
+
+    /**
+     * One game: DraftKings and FanDuel price both sides of h2h and the -3.5 spread,
+     * BetMGM only the Chiefs moneyline
+     */
+    private static OddsBook twoBookGame() {
+        OddsBook.Builder builder = new OddsBook.Builder("americanfootball_nfl", new OddsStringPool());
+        int h2h = builder.market("h2h");
+        int spreads = builder.market("spreads");
+
+        builder.startGame("game-1", "NFL", "2026-10-18T17:00:00Z", "Kansas City Chiefs", "Buffalo Bills");
+        int chiefs = builder.outcome("Kansas City Chiefs");
+        int bills = builder.outcome("Buffalo Bills");
+
+        int draftKings = builder.book("draftkings", "DraftKings");
+        builder.addRow(draftKings, h2h, chiefs, -200, Double.NaN);
+        builder.addRow(draftKings, h2h, bills, 170, Double.NaN);
+        builder.addRow(draftKings, spreads, chiefs, -110, -3.5);
+        builder.addRow(draftKings, spreads, bills, -110, 3.5);
+
+        int fanDuel = builder.book("fanduel", "FanDuel");
+        builder.addRow(fanDuel, h2h, chiefs, -110, Double.NaN);
+        builder.addRow(fanDuel, h2h, bills, -110, Double.NaN);
+        builder.addRow(fanDuel, spreads, chiefs, -110, -3.5);
+        builder.addRow(fanDuel, spreads, bills, -110, 3.5);
+
+        int betMgm = builder.book("betmgm", "BetMGM");
+        builder.addRow(betMgm, h2h, chiefs, -180, Double.NaN);
+
+        return builder.build();
+    }
+
+    private static int outcome(OddsBook book, String name) {
+        for (int o = 0; o < book.outcomeCount(); o++) {
+            if (book.outcomeNameAt(o).equals(name)) {
+                return o;
+            }
+        }
+        throw new IllegalArgumentException(name);
+    }
+}
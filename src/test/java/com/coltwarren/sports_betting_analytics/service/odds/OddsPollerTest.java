@@ -0,0 +1,84 @@
+package com.coltwarren.sports_betting_analytics.service.odds;
+
+import com.coltwarren.sports_betting_analytics.model.odds.OddsBook;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * What the poller does when the Odds API stops answering after it has
+ * already served a payload: the old snapshot must not be ingested again as
+ * if it were new.
+ */
+class OddsPollerTest {
+
+    private static final String SPORT_KEY = "americanfootball_nfl";
+
+    @Test
+    void failedRefreshAfterSuccessIsNotIngested() {
+        OddsBook book = SyntheticOddsBooks.build(4, 3, 1);
+
+        // Real cache, so the failure goes through the same single-flight path production uses
+        AtomicInteger calls = new AtomicInteger();
+        OddsSnapshotCache<OddsBook> cache = new OddsSnapshotCache<>(key -> calls.getAndIncrement() == 0
+            ? CompletableFuture.completedFuture(book)
+            : CompletableFuture.failedFuture(new IllegalStateException("503 from Odds API")), Duration.ofSeconds(30));
+
+        OddsService oddsService = mock(OddsService.class);
+        when(oddsService.refreshOddsBookAsync(SPORT_KEY)).thenAnswer(invocation -> cache.refreshOrError(SPORT_KEY));
+        OddsFetchScheduler scheduler = mock(OddsFetchScheduler.class);
+        when(scheduler.dueSports(any())).thenReturn(List.of(SPORT_KEY));
+
+        OddsShardStore shardStore = new OddsShardStore();
+        List<OddsUpdate> published = new ArrayList<>();
+        OddsPoller poller = new OddsPoller(oddsService, scheduler, shardStore, List.of(published::add), true);
+
+        poller.pollDueSports();
+        SportShard first = shardStore.sport(SPORT_KEY);
+        assertEquals(1, published.size());
+
+        poller.pollDueSports();
+
+        // Same shard (and timestamp), so readers age it out and fall back to the cache
+        assertSame(first, shardStore.sport(SPORT_KEY));
+        assertEquals(1, published.size());
+        verify(scheduler, times(1)).recordFetch(eq(SPORT_KEY), any(), any());
+        verify(scheduler, times(1)).recordFailure(eq(SPORT_KEY), any());
+
+        // Plain refresh() still falls back to the old snapshot for page readers
+        assertSame(book, cache.refresh(SPORT_KEY).join());
+    }
+
+    @Test
+    void firstFetchFailureIsRecorded() {
+        OddsService oddsService = mock(OddsService.class);
+        when(oddsService.refreshOddsBookAsync(SPORT_KEY))
+            .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("timeout")));
+        OddsFetchScheduler scheduler = mock(OddsFetchScheduler.class);
+        when(scheduler.dueSports(any())).thenReturn(List.of(SPORT_KEY));
+
+        OddsShardStore shardStore = new OddsShardStore();
+        OddsPoller poller = new OddsPoller(oddsService, scheduler, shardStore, List.of(), true);
+
+        poller.pollDueSports();
+
+        assertNull(shardStore.sport(SPORT_KEY));
+        verify(scheduler, never()).recordFetch(any(), any(), any());
+        verify(scheduler).recordFailure(eq(SPORT_KEY), any());
+    }
+}
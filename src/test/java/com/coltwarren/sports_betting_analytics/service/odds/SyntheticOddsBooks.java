@@ -0,0 +1,56 @@
+package com.coltwarren.sports_betting_analytics.service.odds;
+
+import com.coltwarren.sports_betting_analytics.model.odds.OddsBook;
+import com.coltwarren.sports_betting_analytics.model.odds.OddsStringPool;
+
+import java.util.Random;
+
+/**
+ * Deterministic synthetic odds books for tests and benchmarks.
+ * Every book quotes h2h, spreads and totals for every game, with prices
+ * jittered around a common line so best/worst spreads look realistic.
+ */
+public final class SyntheticOddsBooks {
+    
+    private SyntheticOddsBooks() {
+    }
+    
+    public static OddsBook build(int games, int books, long seed) {
+        Random random = new Random(seed);
+        OddsBook.Builder builder = new OddsBook.Builder("americanfootball_nfl", new OddsStringPool());
+        
+        int h2h = builder.market("h2h");
+        int spreads = builder.market("spreads");
+        int totals = builder.market("totals");
+        int over = builder.outcome("Over");
+        int under = builder.outcome("Under");
+        
+        for (int g = 0; g < games; g++) {
+            String home = "Home Team " + g;
+            String away = "Away Team " + g;
+            builder.startGame("game-" + g, "NFL", "2026-10-18T17:00:00Z", home, away);
+            int homeOutcome = builder.outcome(home);
+            int awayOutcome = builder.outcome(away);
+            
+            double spread = 1.5 + random.nextInt(10);
+            double total = 38.5 + random.nextInt(15);
+            
+            for (int b = 0; b < books; b++) {
+                int book = builder.book("book" + b, "Book " + b);
+                
+                builder.addRow(book, h2h, homeOutcome, -150 - random.nextInt(40), Double.NaN);
+                builder.addRow(book, h2h, awayOutcome, 120 + random.nextInt(40), Double.NaN);
+                
+                // A few books hang an alternate half point
+                double bookSpread = spread + (b % 5 == 0 ? 0.5 : 0);
+                builder.addRow(book, spreads, homeOutcome, -100 - random.nextInt(25), -bookSpread);
+                builder.addRow(book, spreads, awayOutcome, -100 - random.nextInt(25), bookSpread);
+                
+                builder.addRow(book, totals, over, -100 - random.nextInt(25), total);
+                builder.addRow(book, totals, under, -100 - random.nextInt(25), total);
+            }
+        }
+        
+        return builder.build();
+    }
+}
@@ -0,0 +1,198 @@
+package com.coltwarren.sports_betting_analytics.service.odds.history;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Point-in-time reads against a SportHistory while it rolls, compacts and
+ * reopens. Every series repeats its price on odd ticks, so compaction has
+ * something to drop and a lookup may land one tick earlier than asked.
+ */
+class SportHistoryTest {
+
+    private static final int TICKS_PER_SEGMENT = 64;
+    private static final int SERIES = 4;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void readsStayConsistentWhileCompacting() throws Exception {
+        SportHistory history = new SportHistory(directory, TICKS_PER_SEGMENT);
+        AtomicReference<String> failure = new AtomicReference<>();
+        WatermarkHolder watermark = new WatermarkHolder();
+
+        List<Thread> readers = new ArrayList<>();
+        for (int r = 0; r < 4; r++) {
+            Thread reader = new Thread(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                while (!watermark.done && failure.get() == null) {
+                    long upTo = watermark.value;
+                    if (upTo < 1) continue;
+                    long at = 1 + random.nextLong(upTo);
+                    int series = random.nextInt(SERIES);
+                    String problem = check(history, series, at);
+                    if (problem != null) {
+                        failure.compareAndSet(null, problem);
+                    }
+                }
+            });
+            reader.start();
+            readers.add(reader);
+        }
+
+        int compactions = 0;
+        for (long t = 1; t <= 4000; t++) {
+            for (int series = 0; series < SERIES; series++) {
+                append(history, series, t);
+            }
+            watermark.value = t;
+            if (t % 250 == 0) {
+                history.compact(0);
+                compactions++;
+            }
+        }
+        watermark.done = true;
+        for (Thread reader : readers) {
+            reader.join();
+        }
+
+        assertNull(failure.get());
+        assertEquals(16, compactions);
+        for (long at = 1; at <= 4000; at++) {
+            assertNull(check(history, (int) (at % SERIES), at));
+        }
+        history.close();
+    }
+
+    @Test
+    void compactionDropsRepeatsAndSurvivesReopen() {
+        SportHistory history = new SportHistory(directory, TICKS_PER_SEGMENT);
+        for (long t = 1; t <= 300; t++) {
+            for (int series = 0; series < SERIES; series++) {
+                append(history, series, t);
+            }
+        }
+        assertTrue(history.segmentCount() > 2);
+
+        // t = 3, 5, ..., 299 repeat the price of the tick before; the other 604 ticks fill 10 segments
+        assertEquals(149 * SERIES, history.compact(0));
+        assertEquals(11, history.segmentCount());
+        assertEquals(0, history.compact(0));
+        history.close();
+
+        SportHistory reopened = new SportHistory(directory, TICKS_PER_SEGMENT);
+        assertEquals(11, reopened.segmentCount());
+        for (long at = 1; at <= 300; at++) {
+            for (int series = 0; series < SERIES; series++) {
+                assertNull(check(reopened, series, at));
+            }
+        }
+
+        List<LineMovement> movement = reopened.lineMovement(game(0), "h2h", "Home");
+        assertEquals(1, movement.size());
+        assertEquals(1, movement.get(0).open().timestamp());
+        assertEquals(300, movement.get(0).current().timestamp());
+        reopened.close();
+    }
+
+    @Test
+    void retentionExpiresCompactedSegments() {
+        SportHistory history = new SportHistory(directory, TICKS_PER_SEGMENT);
+        for (long t = 1; t <= 1000; t++) {
+            for (int series = 0; series < SERIES; series++) {
+                append(history, series, t);
+            }
+        }
+        history.compact(0);
+        int compacted = history.segmentCount();
+
+        assertTrue(history.enforceRetention(500) > 0);
+        assertTrue(history.segmentCount() < compacted);
+        assertNull(history.priceAt(game(0), "draftkings", "h2h", "Home", 100));
+        for (long at = 600; at <= 1000; at++) {
+            assertNull(check(history, (int) (at % SERIES), at));
+        }
+
+        // The next night only rewrites what came in since; t = 1001 repeats the compacted tick at 1000
+        for (long t = 1001; t <= 1400; t++) {
+            for (int series = 0; series < SERIES; series++) {
+                append(history, series, t);
+            }
+        }
+        assertEquals(200 * SERIES, history.compact(900));
+        assertTrue(history.enforceRetention(1100) > 0);
+        assertNull(history.priceAt(game(0), "draftkings", "h2h", "Home", 1000));
+        for (long at = 1200; at <= 1400; at++) {
+            assertNull(check(history, (int) (at % SERIES), at));
+        }
+        history.close();
+    }
+
+    @Test
+    void compactionDropsTicksOlderThanTheCutoff() {
+        SportHistory history = new SportHistory(directory, TICKS_PER_SEGMENT);
+        for (long t = 1; t <= 1000; t++) {
+            for (int series = 0; series < SERIES; series++) {
+                append(history, series, t);
+            }
+        }
+
+        // 499 expired ticks per series, then t = 501, 503, ..., 999 repeat the tick before
+        assertEquals((499 + 250) * SERIES, history.compact(500));
+        assertNull(history.priceAt(game(0), "draftkings", "h2h", "Home", 499));
+        for (long at = 501; at <= 1000; at++) {
+            assertNull(check(history, (int) (at % SERIES), at));
+        }
+        history.close();
+    }
+
+    // ============================================
+    // HELPERS
+    // ============================================
+
+    private static final class WatermarkHolder {
+        private volatile long value;
+        private volatile boolean done;
+    }
+
+    private static void append(SportHistory history, int series, long t) {
+        history.append(t, game(series), "draftkings", "h2h", "Home", price(series, t), Double.NaN, false);
+    }
+
+    /**
+     * Null when the tick at or before {@code at} is the expected one, otherwise what went wrong
+     */
+    private static String check(SportHistory history, int series, long at) {
+        PriceTick tick = history.priceAt(game(series), "draftkings", "h2h", "Home", at);
+        if (tick == null) {
+            return "No tick for series " + series + " at " + at;
+        }
+        if (tick.timestamp() > at || tick.timestamp() < at - 1) {
+            return "Series " + series + " at " + at + " returned the tick from " + tick.timestamp();
+        }
+        if (tick.price() != price(series, tick.timestamp())) {
+            return "Series " + series + " at " + at + " returned price " + tick.price();
+        }
+        return null;
+    }
+
+    private static String game(int series) {
+        return "game-" + series;
+    }
+
+    private static double price(int series, long t) {
+        return series * 1_000_000 + (t / 2) * 2;
+    }
+}